@@ -0,0 +1,53 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * BinarySerializer interface, for formats that are not text, such as Smile or CBOR.
+ */
+public interface BinarySerializer {
+
+    /**
+     * Parse bytes to the specific class.
+     */
+    <T> T read( InputStream from, Class<T> clazz );
+
+    /**
+     * Parse bytes to the specific class.
+     */
+    <T> T read( byte[] from, Class<T> clazz );
+
+    /**
+     * Parse the remaining bytes of the buffer to the specific class. The position of the buffer is left untouched.
+     */
+    <T> T read( ByteBuffer from, Class<T> clazz );
+
+    /**
+     * Serialize an object to a stream.
+     */
+    void write( OutputStream to, Object o );
+
+    /**
+     * Serialize an object to bytes.
+     */
+    byte[] writeToBytes( Object o );
+
+}
@@ -58,6 +58,13 @@ public interface Fqn {
         return FqnParseUtils.parseFqn( fqn );
     }
 
+    /**
+     * Create an interned name from a String. The string is only parsed the first time the name is interned.
+     */
+    static Fqn ofInterned( String fqn ) {
+        return FqnImpl.intern( fqn );
+    }
+
     static Fqn ofSegment( String segment ) {
         if ( segment != null ) {
             return new FqnImpl( Arrays.asList( segment ) );
@@ -129,6 +136,16 @@ public interface Fqn {
      */
     boolean startsWith( Fqn other );
 
+    /**
+     * The canonical instance is weakly held: it is shared while in use and reclaimed once it is not anymore.
+     * Implementations that do not intern return themselves.
+     *
+     * @return The canonical instance of this name, equal to this name.
+     */
+    default Fqn intern() {
+        return this;
+    }
+
     /**
      * Builder interface for the Fqn.
      */
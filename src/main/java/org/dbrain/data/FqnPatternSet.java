@@ -0,0 +1,89 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data;
+
+import org.dbrain.data.impl.fqn.FqnPatternSetBuilderImpl;
+
+import java.util.List;
+
+/**
+ * Set of Fqn patterns, each associated with a value, matched together against a name.
+ *
+ * The patterns are compiled into a single trie of segments, so that a name is matched against all the patterns in one
+ * walk. Parts are captured the same way FqnPattern.match does.
+ */
+public interface FqnPatternSet<V> {
+
+    /**
+     * @return A new builder instance.
+     */
+    static <V> Builder<V> newBuilder() {
+        return new FqnPatternSetBuilderImpl<>();
+    }
+
+    /**
+     * Match all the patterns against a name.
+     *
+     * @return The matches, in the order the patterns were added. Empty if no pattern matched.
+     */
+    List<Match<V>> match( Fqn fqn );
+
+    /**
+     * @return The number of patterns in the set.
+     */
+    int size();
+
+    /**
+     * A pattern that matched, with the parts it captured.
+     */
+    interface Match<V> extends FqnPattern.MatchResult {
+
+        /**
+         * @return The pattern that matched.
+         */
+        FqnPattern getPattern();
+
+        /**
+         * @return The value associated with the pattern.
+         */
+        V getValue();
+
+    }
+
+    /**
+     * Allows to build pattern sets.
+     */
+    interface Builder<V> {
+
+        /**
+         * Add a pattern. A pattern can be added more than once, with different values.
+         */
+        Builder<V> add( FqnPattern pattern, V value );
+
+        /**
+         * Add a pattern, parsed from a String.
+         */
+        Builder<V> add( String pattern, V value );
+
+        /**
+         * Build the set.
+         */
+        FqnPatternSet<V> build();
+
+    }
+
+}
@@ -50,6 +50,13 @@ public interface Path {
          return PathParseUtils.parsePath( path );
     }
 
+    /**
+     * Create an interned path from a String. The string is only parsed the first time the path is interned.
+     */
+    static Path ofInterned( String path ) {
+        return PathImpl.intern( path );
+    }
+
     /**
      * Create a new path from the specific attribute.
      */
@@ -141,6 +148,16 @@ public interface Path {
      */
     boolean startsWith( Path other );
 
+    /**
+     * The canonical instance is weakly held: it is shared while in use and reclaimed once it is not anymore.
+     * Implementations that do not intern return themselves.
+     *
+     * @return The canonical instance of this path, equal to this path.
+     */
+    default Path intern() {
+        return this;
+    }
+
     /**
      * @return @return A path containing the current path with another appended.
      */
@@ -17,7 +17,13 @@
 package org.dbrain.data;
 
 import org.dbrain.data.impl.path.PathPatternBuilderImpl;
+import org.dbrain.data.impl.path.PathPatternImpl;
 import org.dbrain.data.impl.path.PathPatternParseUtils;
+import org.dbrain.data.tree.Node;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Pattern to match a Path.
@@ -46,6 +52,26 @@ public interface PathPattern {
      */
     MatchResult match( Path path );
 
+    /**
+     * Search a tree for the nodes matching this pattern. The tree is walked once, in document order, and only the
+     * branches that can still match are visited.
+     *
+     * @return The matching nodes.
+     */
+    default List<Selection> select( Node root ) {
+        return selectStream( root ).collect( Collectors.toList() );
+    }
+
+    /**
+     * Lazy version of select. The tree must not be modified while the stream is consumed. The default implementation
+     * matches the path of every node of the tree.
+     *
+     * @return The matching nodes.
+     */
+    default Stream<Selection> selectStream( Node root ) {
+        return PathPatternImpl.selectStream( this, root );
+    }
+
     /**
      * @return The specifications of this pattern.
      */
@@ -84,6 +110,23 @@ public interface PathPattern {
 
     }
 
+    /**
+     * A node of a tree matched by a pattern.
+     */
+    interface Selection extends MatchResult {
+
+        /**
+         * @return The path of the node within the tree.
+         */
+        Path getPath();
+
+        /**
+         * @return The node matched.
+         */
+        Node getNode();
+
+    }
+
     /**
      * Specifications of this pattern.
      */
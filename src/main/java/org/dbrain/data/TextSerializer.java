@@ -16,11 +16,21 @@
 
 package org.dbrain.data;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * TextSerializer interface.
+ *
+ * The byte oriented methods use UTF-8. Their default implementation goes through a Reader or a Writer, implementations
+ * able to work on bytes directly should override them.
  */
 public interface TextSerializer {
 
@@ -34,6 +44,28 @@ public interface TextSerializer {
      */
     <T> T read( Reader from, Class<T> clazz );
 
+    /**
+     * Parse UTF-8 bytes to the specific class.
+     */
+    default <T> T read( InputStream from, Class<T> clazz ) {
+        return read( new InputStreamReader( from, StandardCharsets.UTF_8 ), clazz );
+    }
+
+    /**
+     * Parse UTF-8 bytes to the specific class.
+     */
+    default <T> T read( byte[] from, Class<T> clazz ) {
+        return read( new String( from, StandardCharsets.UTF_8 ), clazz );
+    }
+
+    /**
+     * Parse the remaining UTF-8 bytes of the buffer to the specific class. The position of the buffer is left
+     * untouched.
+     */
+    default <T> T read( ByteBuffer from, Class<T> clazz ) {
+        return read( StandardCharsets.UTF_8.decode( from.duplicate() ).toString(), clazz );
+    }
+
     /**
      * Serialize an object to a writer.
      */
@@ -44,4 +76,22 @@ public interface TextSerializer {
      */
     String writeToString( Object o );
 
+    /**
+     * Serialize an object to a stream, as UTF-8.
+     */
+    default void write( OutputStream to, Object o ) {
+        try {
+            to.write( writeToBytes( o ) );
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Serialize an object to UTF-8 bytes.
+     */
+    default byte[] writeToBytes( Object o ) {
+        return writeToString( o ).getBytes( StandardCharsets.UTF_8 );
+    }
+
 }
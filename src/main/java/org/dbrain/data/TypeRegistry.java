@@ -1,5 +1,7 @@
 package org.dbrain.data;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -23,6 +25,19 @@ public class TypeRegistry<T> {
     private final Map<String, Class<? extends T>> classMap;
     private final Map<Class<? extends T>, String> nameMap;
 
+    // Marks classes having no registered name.
+    private static final String NO_NAME = new String();
+
+    // Name resolved through the hierarchy, for each class.
+    private final ClassValue<String> nameByClass = new ClassValue<String>() {
+
+        @Override
+        protected String computeValue( Class<?> clazz ) {
+            String result = findName( clazz );
+            return result != null ? result : NO_NAME;
+        }
+    };
+
     TypeRegistry( Class<T> baseClass, Map<String, Class<? extends T>> classMap, Map<Class<? extends T>, String> nameMap ) {
         this.baseClass = baseClass;
         this.classMap = classMap;
@@ -45,11 +60,39 @@ public class TypeRegistry<T> {
     }
 
     /**
-     * @return The name for the type.
+     * @return The registered types.
+     */
+    public Collection<Class<? extends T>> getTypes() {
+        return Collections.unmodifiableCollection( classMap.values() );
+    }
+
+    /**
+     * @return The name for the type, or null if neither the type nor one of its supertypes is registered.
+     *
+     * An unregistered type, such as a proxy or an anonymous subclass, takes the name of its nearest registered
+     * superclass, then of its first registered interface in declaration order. The answer is cached per class.
      */
     public String getNameByType( Class<?> clazz ) {
         Objects.requireNonNull( clazz );
-        return nameMap.get( clazz );
+        String result = nameByClass.get( clazz );
+        return result != NO_NAME ? result : null;
+    }
+
+    private String findName( Class<?> clazz ) {
+        String result = nameMap.get( clazz );
+        if ( result != null || !baseClass.isAssignableFrom( clazz ) ) {
+            return result;
+        }
+        if ( clazz.getSuperclass() != null ) {
+            result = getNameByType( clazz.getSuperclass() );
+        }
+        for ( Class<?> i : clazz.getInterfaces() ) {
+            if ( result != null ) {
+                break;
+            }
+            result = getNameByType( i );
+        }
+        return result;
     }
 
 
@@ -0,0 +1,200 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.binary;
+
+import org.dbrain.data.DataCoercionException;
+import org.dbrain.data.impl.value.DoubleValueImpl;
+import org.dbrain.data.impl.value.LongValueImpl;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+
+/**
+ * Encode a node tree in the binary document format. An encoder reuses its buffer and is not thread safe.
+ */
+public final class BinaryEncoder {
+
+    private byte[] buffer = new byte[256];
+
+    private int size;
+
+    /**
+     * @return The encoded document.
+     */
+    public byte[] encode( Node node ) {
+        writeDocument( node );
+        return Arrays.copyOf( buffer, size );
+    }
+
+    /**
+     * Write the encoded document to the stream.
+     */
+    public void encode( Node node, OutputStream os ) throws IOException {
+        writeDocument( node );
+        os.write( buffer, 0, size );
+    }
+
+    private void writeDocument( Node node ) {
+        size = 0;
+        writeInt( BinaryFormat.MAGIC );
+        write( node );
+    }
+
+    private void ensureCapacity( int extra ) {
+        if ( size + extra > buffer.length ) {
+            buffer = Arrays.copyOf( buffer, Math.max( buffer.length * 2, size + extra ) );
+        }
+    }
+
+    private void writeByte( byte b ) {
+        ensureCapacity( 1 );
+        buffer[size++] = b;
+    }
+
+    private void putInt( int position, int v ) {
+        buffer[position] = (byte) v;
+        buffer[position + 1] = (byte) ( v >>> 8 );
+        buffer[position + 2] = (byte) ( v >>> 16 );
+        buffer[position + 3] = (byte) ( v >>> 24 );
+    }
+
+    private void writeInt( int v ) {
+        ensureCapacity( 4 );
+        putInt( size, v );
+        size += 4;
+    }
+
+    private void writeLong( long v ) {
+        writeInt( (int) v );
+        writeInt( (int) ( v >>> 32 ) );
+    }
+
+    private void writeBytes( byte[] bytes ) {
+        writeInt( bytes.length );
+        ensureCapacity( bytes.length );
+        System.arraycopy( bytes, 0, buffer, size, bytes.length );
+        size += bytes.length;
+    }
+
+    private void write( Node node ) {
+        node = Node.of( node );
+        if ( node.isNull() ) {
+            writeByte( BinaryFormat.NULL );
+        } else if ( node instanceof NodeMap ) {
+            writeMap( (NodeMap) node );
+        } else if ( node instanceof NodeList ) {
+            writeList( (NodeList) node );
+        } else if ( node instanceof LongValueImpl ) {
+            writeByte( BinaryFormat.LONG );
+            writeLong( node.getLong() );
+        } else if ( node instanceof DoubleValueImpl ) {
+            writeByte( BinaryFormat.DOUBLE );
+            writeLong( Double.doubleToRawLongBits( node.getDouble() ) );
+        } else {
+            Object o = node.getObject();
+            if ( o instanceof Boolean ) {
+                writeByte( (Boolean) o ? BinaryFormat.TRUE : BinaryFormat.FALSE );
+            } else if ( o instanceof String ) {
+                writeByte( BinaryFormat.STRING );
+                writeBytes( ( (String) o ).getBytes( StandardCharsets.UTF_8 ) );
+            } else if ( o instanceof BigDecimal ) {
+                BigDecimal bd = (BigDecimal) o;
+                writeByte( BinaryFormat.DECIMAL );
+                writeInt( bd.scale() );
+                writeBytes( bd.unscaledValue().toByteArray() );
+            } else {
+                throw new DataCoercionException( "Cannot encode " + node.getClass().getName() + "." );
+            }
+        }
+    }
+
+    private void writeList( NodeList list ) {
+        int start = size;
+        int count = list.size();
+        writeByte( BinaryFormat.LIST );
+        writeInt( count );
+        int table = size;
+        ensureCapacity( count * 4 );
+        size += count * 4;
+        int i = 0;
+        for ( Node n : list ) {
+            if ( i == count ) {
+                throw new ConcurrentModificationException();
+            }
+            putInt( table + i++ * 4, size - start );
+            write( n );
+        }
+        if ( i != count ) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private void writeMap( NodeMap map ) {
+        int start = size;
+        int count = map.size();
+        writeByte( BinaryFormat.MAP );
+        writeInt( count );
+        int table = size;
+        ensureCapacity( count * 12 );
+        size += count * 12;
+        byte[][] keys = new byte[count][];
+        int i = 0;
+        for ( Map.Entry<String, Node> e : map.entrySet() ) {
+            if ( i == count ) {
+                throw new ConcurrentModificationException();
+            }
+            byte[] key = e.getKey().getBytes( StandardCharsets.UTF_8 );
+            putInt( table + i * 8, size - start );
+            writeBytes( key );
+            putInt( table + i * 8 + 4, size - start );
+            write( e.getValue() );
+            keys[i++] = key;
+        }
+        if ( i != count ) {
+            throw new ConcurrentModificationException();
+        }
+        Integer[] order = new Integer[count];
+        for ( int j = 0; j < count; j++ ) {
+            order[j] = j;
+        }
+        Arrays.sort( order, ( a, b ) -> compare( keys[a], keys[b] ) );
+        for ( int j = 0; j < count; j++ ) {
+            putInt( table + count * 8 + j * 4, order[j] );
+        }
+    }
+
+    // Unsigned lexicographic order of the UTF-8 bytes, same as the code point order of the strings.
+    private static int compare( byte[] a, byte[] b ) {
+        int n = Math.min( a.length, b.length );
+        for ( int i = 0; i < n; i++ ) {
+            int c = ( a[i] & 0xff ) - ( b[i] & 0xff );
+            if ( c != 0 ) {
+                return c;
+            }
+        }
+        return a.length - b.length;
+    }
+
+}
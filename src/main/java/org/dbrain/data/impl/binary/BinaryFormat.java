@@ -0,0 +1,53 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.binary;
+
+/**
+ * Constants of the binary document encoding. All integers are little endian.
+ *
+ * A document is the 4 bytes magic followed by the root value. Each value starts with a type tag:
+ * <ul>
+ * <li>NULL, FALSE, TRUE: no payload.</li>
+ * <li>LONG, DOUBLE: 8 bytes.</li>
+ * <li>DECIMAL: int scale, int length and the bytes of the unscaled value.</li>
+ * <li>STRING: int length and the UTF-8 bytes.</li>
+ * <li>LIST: int count, then count int offsets of the elements, then the elements.</li>
+ * <li>MAP: int count, then count pairs of int offsets of the key and the value, in insertion order, then count int
+ * entry numbers ordered by key, then the keys and values. A key is an int length and the UTF-8 bytes.</li>
+ * </ul>
+ * Offsets are relative to the tag of the list or map holding them. Keys are ordered by their unsigned UTF-8 bytes.
+ */
+final class BinaryFormat {
+
+    static final int MAGIC = 0x314E4244; // "DBN1"
+
+    static final int HEADER_SIZE = 4;
+
+    static final byte NULL    = 0;
+    static final byte FALSE   = 1;
+    static final byte TRUE    = 2;
+    static final byte LONG    = 3;
+    static final byte DOUBLE  = 4;
+    static final byte DECIMAL = 5;
+    static final byte STRING  = 6;
+    static final byte LIST    = 7;
+    static final byte MAP     = 8;
+
+    private BinaryFormat() {
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.binary;
+
+import org.dbrain.data.impl.value.AbstractListValueImpl;
+import org.dbrain.data.impl.value.PersistentListValueImpl;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only Value.List reading its elements from a binary document.
+ */
+public final class BinaryListValueImpl extends AbstractListValueImpl {
+
+    private final ByteBuffer buffer;
+
+    private final int offset;
+
+    private final int size;
+
+    BinaryListValueImpl( ByteBuffer buffer, int offset ) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = buffer.getInt( offset + 1 );
+    }
+
+    @Override
+    public Node get( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+        }
+        return BinaryNodes.read( buffer, offset + buffer.getInt( offset + 5 + index * 4 ) );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public NodeList freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public NodeList with( int index, Node node ) {
+        return PersistentListValueImpl.copyOf( this ).with( index, node );
+    }
+
+    @Override
+    public NodeList plus( Node node ) {
+        return PersistentListValueImpl.copyOf( this ).plus( node );
+    }
+
+}
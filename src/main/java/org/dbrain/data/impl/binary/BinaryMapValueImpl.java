@@ -0,0 +1,170 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.binary;
+
+import org.dbrain.data.impl.value.AbstractMapValueImpl;
+import org.dbrain.data.impl.value.PersistentMapValueImpl;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeMap;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only Value.Map reading its entries from a binary document. Keys are looked up by binary search in the buffer.
+ */
+public final class BinaryMapValueImpl extends AbstractMapValueImpl {
+
+    private final ByteBuffer buffer;
+
+    private final int offset;
+
+    private final int size;
+
+    BinaryMapValueImpl( ByteBuffer buffer, int offset ) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = buffer.getInt( offset + 1 );
+    }
+
+    private int keyOffset( int entry ) {
+        return offset + buffer.getInt( offset + 5 + entry * 8 );
+    }
+
+    private int valueOffset( int entry ) {
+        return offset + buffer.getInt( offset + 9 + entry * 8 );
+    }
+
+    // Entry number of the n-th key in key order.
+    private int sortedEntry( int n ) {
+        return buffer.getInt( offset + 5 + size * 8 + n * 4 );
+    }
+
+    @Override
+    protected Node find( Object key ) {
+        if ( !( key instanceof String ) || size == 0 ) {
+            return null;
+        }
+        int low = 0;
+        int high = size - 1;
+        while ( low <= high ) {
+            int mid = ( low + high ) >>> 1;
+            int entry = sortedEntry( mid );
+            int c = BinaryNodes.compareString( buffer, keyOffset( entry ), (String) key );
+            if ( c < 0 ) {
+                low = mid + 1;
+            } else if ( c > 0 ) {
+                high = mid - 1;
+            } else {
+                return BinaryNodes.read( buffer, valueOffset( entry ) );
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public NodeMap freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public NodeMap with( String key, Node node ) {
+        return PersistentMapValueImpl.copyOf( this ).with( key, node );
+    }
+
+    @Override
+    public NodeMap without( String key ) {
+        return PersistentMapValueImpl.copyOf( this ).without( key );
+    }
+
+    @Override
+    public Node put( String key, Node node ) {
+        throw new UnsupportedOperationException( "Binary map cannot be modified." );
+    }
+
+    @Override
+    public Node remove( Object key ) {
+        throw new UnsupportedOperationException( "Binary map cannot be modified." );
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException( "Binary map cannot be modified." );
+    }
+
+    @Override
+    public void forEach( BiConsumer<? super String, ? super Node> action ) {
+        for ( int i = 0; i < size; i++ ) {
+            action.accept( BinaryNodes.readString( buffer, keyOffset( i ) ),
+                           BinaryNodes.read( buffer, valueOffset( i ) ) );
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Node>> entrySet() {
+        return new AbstractSet<Entry<String, Node>>() {
+
+            @Override
+            public Iterator<Entry<String, Node>> iterator() {
+                return new Iterator<Entry<String, Node>>() {
+
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, Node> next() {
+                        if ( next >= size ) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>( BinaryNodes.readString( buffer, keyOffset( i ) ),
+                                                           BinaryNodes.read( buffer, valueOffset( i ) ) );
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+}
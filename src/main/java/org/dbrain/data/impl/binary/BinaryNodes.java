@@ -0,0 +1,138 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.binary;
+
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read values of a binary document. Maps and lists are returned as lazy views over the buffer, scalars are decoded.
+ *
+ * Only absolute reads are used, so the views are safe to share between threads as long as the content of the buffer
+ * does not change.
+ */
+public final class BinaryNodes {
+
+    private BinaryNodes() {
+    }
+
+    /**
+     * @return The root node of the document starting at the position of the buffer.
+     */
+    public static Node decode( ByteBuffer buffer ) {
+        ByteBuffer document = buffer.slice().order( ByteOrder.LITTLE_ENDIAN );
+        if ( document.remaining() <= BinaryFormat.HEADER_SIZE || document.getInt( 0 ) != BinaryFormat.MAGIC ) {
+            throw new ParseException( "Not a binary node document." );
+        }
+        return read( document, BinaryFormat.HEADER_SIZE );
+    }
+
+    /**
+     * @return The value starting at the offset.
+     */
+    static Node read( ByteBuffer buffer, int offset ) {
+        byte tag = buffer.get( offset );
+        switch ( tag ) {
+            case BinaryFormat.NULL:
+                return Node.nullValue();
+            case BinaryFormat.FALSE:
+                return Node.of( false );
+            case BinaryFormat.TRUE:
+                return Node.of( true );
+            case BinaryFormat.LONG:
+                return Node.of( buffer.getLong( offset + 1 ) );
+            case BinaryFormat.DOUBLE:
+                return Node.of( buffer.getDouble( offset + 1 ) );
+            case BinaryFormat.DECIMAL:
+                return Node.of( new BigDecimal( new BigInteger( readBytes( buffer, offset + 5 ) ),
+                                                buffer.getInt( offset + 1 ) ) );
+            case BinaryFormat.STRING:
+                return Node.of( readString( buffer, offset + 1 ) );
+            case BinaryFormat.LIST:
+                return new BinaryListValueImpl( buffer, offset );
+            case BinaryFormat.MAP:
+                return new BinaryMapValueImpl( buffer, offset );
+            default:
+                throw new ParseException( "Unknown value type " + tag + " at offset " + offset + "." );
+        }
+    }
+
+    private static byte[] readBytes( ByteBuffer buffer, int offset ) {
+        byte[] result = new byte[buffer.getInt( offset )];
+        for ( int i = 0; i < result.length; i++ ) {
+            result[i] = buffer.get( offset + 4 + i );
+        }
+        return result;
+    }
+
+    /**
+     * @return The string made of an int length followed by the UTF-8 bytes.
+     */
+    static String readString( ByteBuffer buffer, int offset ) {
+        int length = buffer.getInt( offset );
+        if ( buffer.hasArray() ) {
+            return new String( buffer.array(), buffer.arrayOffset() + offset + 4, length, StandardCharsets.UTF_8 );
+        } else {
+            return new String( readBytes( buffer, offset ), StandardCharsets.UTF_8 );
+        }
+    }
+
+    /**
+     * Compare the UTF-8 string at the offset with a key, in the order of the UTF-8 bytes. The key is encoded on the
+     * fly, a char at a time, without allocation. Unpaired surrogates compare as '?', as String.getBytes encodes them.
+     */
+    static int compareString( ByteBuffer buffer, int offset, String key ) {
+        int pos = offset + 4;
+        int end = pos + buffer.getInt( offset );
+        int n = key.length();
+        for ( int i = 0; i < n; i++ ) {
+            int cp = key.charAt( i );
+            if ( Character.isHighSurrogate( (char) cp ) && i + 1 < n && Character.isLowSurrogate( key.charAt( i + 1 ) ) ) {
+                cp = Character.toCodePoint( (char) cp, key.charAt( ++i ) );
+            } else if ( Character.isSurrogate( (char) cp ) ) {
+                cp = '?';
+            }
+            int count = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            for ( int b = 0; b < count; b++ ) {
+                if ( pos == end ) {
+                    return -1;
+                }
+                int c = ( buffer.get( pos++ ) & 0xff ) - utf8Byte( cp, count, b );
+                if ( c != 0 ) {
+                    return c;
+                }
+            }
+        }
+        return pos < end ? 1 : 0;
+    }
+
+    // The b-th byte of the UTF-8 encoding of the code point, encoded on count bytes.
+    private static int utf8Byte( int cp, int count, int b ) {
+        if ( count == 1 ) {
+            return cp;
+        }
+        int bits = ( cp >> ( 6 * ( count - 1 - b ) ) ) & 0x3f;
+        return b > 0 ? 0x80 | bits : ( 0xff00 >> count ) & 0xff | cp >> ( 6 * ( count - 1 ) );
+    }
+
+}
@@ -18,30 +18,43 @@ package org.dbrain.data.impl.fqn;
 
 import org.dbrain.data.Fqn;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Builder implementation of Fully Qualified Names.
+ *
+ * Built names share the array of the builder: segments are only ever added past the ones already built.
  */
 public class FqnBuilderImpl implements Fqn.Builder {
 
-    private List<String> segments;
+    private String[] segments;
+
+    private int size;
+
+    private void ensureCapacity( int capacity ) {
+        if ( segments == null ) {
+            segments = new String[Math.max( capacity, 4 )];
+        } else if ( capacity > segments.length ) {
+            segments = Arrays.copyOf( segments, Math.max( capacity, segments.length * 2 ) );
+        }
+    }
 
     @Override
     public FqnBuilderImpl segment( String segment ) {
         Objects.requireNonNull( segment );
-        if ( segments == null ) {
-            segments = new ArrayList<>();
-        }
-        segments.add( segment );
+        ensureCapacity( size + 1 );
+        segments[size++] = segment;
         return this;
     }
 
     @Override
     public Fqn.Builder append( Fqn fqn ) {
-        if ( fqn != null ) {
+        if ( fqn instanceof FqnImpl ) {
+            ensureCapacity( size + fqn.size() );
+            ( (FqnImpl) fqn ).copyTo( segments, size );
+            size += fqn.size();
+        } else if ( fqn != null ) {
             for ( int i = 0; i < fqn.size(); i++ ) {
                 segment( fqn.segment( i ) );
             }
@@ -51,8 +64,8 @@ public class FqnBuilderImpl implements Fqn.Builder {
 
     @Override
     public Fqn build() {
-        if ( segments != null ) {
-            return new FqnImpl( segments );
+        if ( size > 0 ) {
+            return new FqnImpl( segments, 0, size );
         } else {
             return FqnImpl.EMPTY_NAME;
         }
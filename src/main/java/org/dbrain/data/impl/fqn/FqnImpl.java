@@ -17,26 +17,115 @@
 package org.dbrain.data.impl.fqn;
 
 import org.dbrain.data.Fqn;
+import org.dbrain.data.util.WeakInterner;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Implements the Fqn.
+ *
+ * Segments are a range of an immutable array. Heads and tails are slices sharing the array of the name they come
+ * from, so walking a hierarchy does not copy. The hash code and the string form are computed once.
+ *
+ * Interned names are kept in a weak table indexed by their string form. Two interned names are equal only if they are
+ * the same instance.
  */
 public final class FqnImpl implements Fqn {
 
+    private static final String[] NO_SEGMENTS = new String[0];
+
     // Singleton for no name value
-    public static final Fqn EMPTY_NAME = new FqnImpl( null );
+    public static final Fqn EMPTY_NAME = new FqnImpl( NO_SEGMENTS, 0, 0 );
+
+    private static final WeakInterner<FqnImpl> INTERNED = new WeakInterner<>();
+
+
+    // Shared between slices, never modified.
+    private final String[] segments;
+    private final int      offset;
+    private final int      length;
 
+    // Cached hash code, 0 if not computed yet.
+    private int hash;
 
-    private final List<String> segments;
+    // Cached string form.
+    private String text;
+
+    // True if this instance is the canonical one held by the intern table.
+    private boolean interned;
 
     /**
      * Use the of(xxx) factory.
      */
     public FqnImpl( List<String> segments ) {
-        this.segments = segments != null && segments.size() > 0 ? new ArrayList<>( segments ) : null;
+        this( segments != null ? segments.toArray( NO_SEGMENTS ) : NO_SEGMENTS );
+    }
+
+    private FqnImpl( String[] segments ) {
+        this( segments, 0, segments.length );
+    }
+
+    /**
+     * Create a name over a range of the array, without copying it. The array must never be modified within the range.
+     */
+    FqnImpl( String[] segments, int offset, int length ) {
+        this.segments = segments;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    private Fqn slice( int from, int to ) {
+        if ( from < 0 || to > length || from > to ) {
+            throw new IndexOutOfBoundsException( "Range: " + from + ".." + to + ", Size: " + length );
+        }
+        if ( from == to ) {
+            return EMPTY_NAME;
+        } else if ( from == 0 && to == length ) {
+            return this;
+        } else {
+            return new FqnImpl( segments, offset + from, to - from );
+        }
+    }
+
+    /**
+     * @return The interned name for the string, parsed only if it is not interned yet.
+     */
+    public static Fqn intern( String text ) {
+        FqnImpl result = INTERNED.get( text );
+        if ( result != null ) {
+            return result;
+        }
+        Fqn parsed = FqnParseUtils.parseFqn( text ).intern();
+        if ( text != null && parsed != EMPTY_NAME && !text.equals( parsed.toString() ) ) {
+            // Also index the name by the text as written, it is not the canonical form.
+            return INTERNED.intern( text, (FqnImpl) parsed );
+        }
+        return parsed;
+    }
+
+    @Override
+    public Fqn intern() {
+        if ( interned || length == 0 ) {
+            return length == 0 ? EMPTY_NAME : this;
+        }
+        // Do not retain the whole array of a slice.
+        FqnImpl candidate = offset == 0 && length == segments.length ? this :
+                new FqnImpl( Arrays.copyOfRange( segments, offset, offset + length ) );
+        FqnImpl result = INTERNED.intern( toString(), candidate );
+        if ( result == candidate ) {
+            candidate.text = text;
+            candidate.hash = hash;
+            candidate.interned = true;
+        }
+        return result;
+    }
+
+    /**
+     * Copy the segments to the array.
+     */
+    void copyTo( String[] to, int toOffset ) {
+        System.arraycopy( segments, offset, to, toOffset, length );
     }
 
     /**
@@ -44,7 +133,7 @@ public final class FqnImpl implements Fqn {
      */
     @Override
     public int size() {
-        return segments != null ? segments.size() : 0;
+        return length;
     }
 
     /**
@@ -56,44 +145,25 @@ public final class FqnImpl implements Fqn {
      */
     @Override
     public String segment( int i ) {
-        if ( segments != null ) {
-            return segments.get( i );
-        } else {
-            throw new IndexOutOfBoundsException();
+        if ( i < 0 || i >= length ) {
+            throw new IndexOutOfBoundsException( "Index: " + i + ", Size: " + length );
         }
+        return segments[offset + i];
     }
 
     @Override
     public Fqn head( int toIndex ) {
-        if ( toIndex == 0 ) {
-            return new FqnImpl( null );
-        } else if ( segments != null ) {
-            return new FqnImpl( segments.subList( 0, toIndex ) );
-        } else {
-            throw new IndexOutOfBoundsException();
-        }
+        return slice( 0, toIndex );
     }
 
     @Override
     public Fqn tail( int size ) {
-        return tailFrom( size() - size );
+        return tailFrom( length - size );
     }
 
     @Override
     public Fqn tailFrom( int fromIndex ) {
-        if ( segments != null ) {
-            if ( fromIndex == segments.size() ) {
-                return new FqnImpl( null );
-            } else {
-                return new FqnImpl( segments.subList( fromIndex, segments.size() ) );
-            }
-        } else {
-            if ( fromIndex != 0 ) {
-                throw new IndexOutOfBoundsException();
-            } else {
-                return new FqnImpl( null );
-            }
-        }
+        return slice( fromIndex, length );
     }
 
     /**
@@ -105,11 +175,11 @@ public final class FqnImpl implements Fqn {
             return true;
         }
         int otherSize = other.size();
-        if ( size() < otherSize ) {
+        if ( length < otherSize ) {
             return false;
         }
         for ( int i = 0; i < otherSize; i++ ) {
-            if ( !segment( i ).equals( other.segment( i ) ) ) {
+            if ( !segments[offset + i].equals( other.segment( i ) ) ) {
                 return false;
             }
         }
@@ -121,21 +191,32 @@ public final class FqnImpl implements Fqn {
         if ( this == o ) return true;
         if ( o == null || getClass() != o.getClass() ) return false;
 
-        Fqn fqn = (Fqn) o;
-        if ( size() != fqn.size() ) {
+        FqnImpl fqn = (FqnImpl) o;
+        if ( interned && fqn.interned || length != fqn.length || hash != 0 && fqn.hash != 0 && hash != fqn.hash ) {
             return false;
         }
-        for ( int i = 0; i < size(); i++ ) {
-            if ( !segment( i ).equals( fqn.segment( i ) ) ) {
+        for ( int i = 0; i < length; i++ ) {
+            if ( !segments[offset + i].equals( fqn.segments[fqn.offset + i] ) ) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Same hash code as the list of the segments, 0 for the empty name.
+     */
     @Override
     public int hashCode() {
-        return segments != null ? segments.hashCode() : 0;
+        int result = hash;
+        if ( result == 0 && length > 0 ) {
+            result = 1;
+            for ( int i = offset; i < offset + length; i++ ) {
+                result = 31 * result + segments[i].hashCode();
+            }
+            hash = result;
+        }
+        return result;
     }
 
     /**
@@ -143,26 +224,25 @@ public final class FqnImpl implements Fqn {
      */
     @Override
     public String toString() {
-        final int size = size();
-        if ( size == 0 ) {
-            return "";
-        } else {
-            if ( size == 1 ) {
-                return FqnParseUtils.encodeSegment( segment( 0 ) );
+        String result = text;
+        if ( result == null ) {
+            if ( length == 0 ) {
+                result = "";
+            } else if ( length == 1 ) {
+                result = FqnParseUtils.encodeSegment( segments[offset] );
             } else {
-                StringBuilder sb = null;
-                for ( int i = 0; i < size; i++ ) {
-                    String s = segment( i );
-                    if ( sb == null ) {
-                        sb = new StringBuilder();
-                    } else {
+                StringBuilder sb = new StringBuilder();
+                for ( int i = 0; i < length; i++ ) {
+                    if ( i > 0 ) {
                         sb.append( "." );
                     }
-                    sb.append( FqnParseUtils.encodeSegment( s ) );
+                    sb.append( FqnParseUtils.encodeSegment( segments[offset + i] ) );
                 }
-                return sb != null ? sb.toString() : "";
+                result = sb.toString();
             }
+            text = result;
         }
+        return result;
     }
 
 }
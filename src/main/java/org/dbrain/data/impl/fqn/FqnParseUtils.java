@@ -22,8 +22,6 @@ import org.dbrain.data.text.ParserUtils;
 import org.dbrain.data.text.ReaderCursor;
 
 import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Implements parsing of Fully Qualified Name and Patterns.
@@ -40,13 +38,13 @@ public final class FqnParseUtils {
 
         // Parse the name
         if ( c.is( Character::isJavaIdentifierStart ) || c.is( "'") ) {
-            List<String> segments = new ArrayList<>();
-            segments.add( readSegment( c ) );
+            FqnBuilderImpl segments = new FqnBuilderImpl();
+            segments.segment( readSegment( c ) );
             while ( c.is( "." ) ) {
                 c.next();
-                segments.add( readSegment( c ) );
+                segments.segment( readSegment( c ) );
             }
-            return new FqnImpl( segments );
+            return segments.build();
         }
         return FqnImpl.EMPTY_NAME;
     }
@@ -99,11 +97,16 @@ public final class FqnParseUtils {
 
     // Read a segment.
     private static String readSegment( ReaderCursor c ) {
+        String result;
         if ( c.is( "'" ) ) {
-            return ParserUtils.readQuotedString( c );
+            result = ParserUtils.readQuotedString( c );
         } else {
-            return ParserUtils.readJavaIdentifier( c );
+            result = ParserUtils.readJavaIdentifier( c );
         }
+        if ( result == null ) {
+            throw c.error( "Expecting segment" );
+        }
+        return result;
     }
 
     /**
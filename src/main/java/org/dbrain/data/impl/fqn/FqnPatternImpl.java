@@ -50,6 +50,13 @@ public class FqnPatternImpl implements FqnPattern {
         return result;
     }
 
+    /**
+     * @return The first node of the pattern, null for the empty pattern.
+     */
+    Node getRoot() {
+        return root;
+    }
+
     @Override
     public Specs getSpecs() {
         if ( specs == null ) {
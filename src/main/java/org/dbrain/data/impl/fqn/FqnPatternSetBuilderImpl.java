@@ -0,0 +1,66 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.fqn;
+
+import org.dbrain.data.FqnPattern;
+import org.dbrain.data.FqnPatternSet;
+
+import java.util.Objects;
+
+/**
+ * Implementation of the Pattern Set Builder.
+ */
+public class FqnPatternSetBuilderImpl<V> implements FqnPatternSet.Builder<V> {
+
+    private FqnPatternSetImpl.State<V> root = new FqnPatternSetImpl.State<>( -1, false, 0 );
+    private int                        size = 0;
+
+    @Override
+    public FqnPatternSet.Builder<V> add( FqnPattern pattern, V value ) {
+        Objects.requireNonNull( pattern );
+        if ( !( pattern instanceof FqnPatternImpl ) ) {
+            throw new IllegalArgumentException( "Unsupported pattern implementation: " + pattern.getClass() );
+        }
+        FqnPatternSetImpl.State<V> state = root;
+        for ( FqnPatternImpl.Node node = ( (FqnPatternImpl) pattern ).getRoot(); node != null; node = node.getNext() ) {
+            if ( node instanceof FqnPatternImpl.SpecificNode ) {
+                state = state.segment( ( (FqnPatternImpl.SpecificNode) node ).getSegment() );
+            } else if ( node instanceof FqnPatternImpl.OneNode ) {
+                state = state.one();
+            } else {
+                state = state.any();
+            }
+        }
+        state.addEntry( new FqnPatternSetImpl.Entry<>( pattern, value, size++ ) );
+        return this;
+    }
+
+    @Override
+    public FqnPatternSet.Builder<V> add( String pattern, V value ) {
+        return add( FqnPattern.of( pattern ), value );
+    }
+
+    @Override
+    public FqnPatternSet<V> build() {
+        try {
+            return new FqnPatternSetImpl<>( root, size );
+        } finally {
+            root = new FqnPatternSetImpl.State<>( -1, false, 0 );
+            size = 0;
+        }
+    }
+}
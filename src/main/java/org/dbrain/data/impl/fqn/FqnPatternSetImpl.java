@@ -0,0 +1,278 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.fqn;
+
+import org.dbrain.data.Fqn;
+import org.dbrain.data.FqnPattern;
+import org.dbrain.data.FqnPatternSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the Fqn Pattern Set.
+ *
+ * Patterns are stored in a trie of states, one edge per pattern node: specific segments are looked up in a map, one
+ * and any wildcards have their own edge. The name is walked once, keeping the ordered list of the states reached so
+ * far. Like the backtracking of FqnPatternImpl, an any wildcard prefers to consume one more segment; when two paths
+ * reach the same state, the preferred one is kept, which gives the same parts as FqnPattern.match.
+ */
+public class FqnPatternSetImpl<V> implements FqnPatternSet<V> {
+
+    private static final int[] NO_PARTS = new int[0];
+
+    private final State<V> root;
+
+    private final int size;
+
+    FqnPatternSetImpl( State<V> root, int size ) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @Override
+    public List<Match<V>> match( Fqn fqn ) {
+        Fqn name = fqn != null ? fqn : FqnImpl.EMPTY_NAME;
+        Step<V> current = new Step<>();
+        current.add( root, NO_PARTS, 0 );
+        for ( int i = 0; i < name.size() && !current.isEmpty(); i++ ) {
+            String segment = name.segment( i );
+            Step<V> next = new Step<>();
+            for ( Branch<V> t : current.branches ) {
+                State<V> state = t.state;
+                if ( t.inAny ) {
+                    next.add( state, t.parts, i + 1 );
+                } else {
+                    State<V> child = state.segments != null ? state.segments.get( segment ) : null;
+                    if ( child != null ) {
+                        next.add( child, t.parts, i + 1 );
+                    }
+                    if ( state.one != null ) {
+                        next.add( state.one, capture( t.parts, state.one.partIdx, i, i + 1 ), i + 1 );
+                    }
+                }
+            }
+            current = next;
+        }
+
+        List<Match<V>> result = null;
+        for ( Branch<V> t : current.branches ) {
+            if ( !t.inAny && t.state.entries != null ) {
+                if ( result == null ) {
+                    result = new ArrayList<>();
+                }
+                for ( Entry<V> entry : t.state.entries ) {
+                    result.add( new MatchImpl<>( entry, name, t.parts ) );
+                }
+            }
+        }
+        if ( result == null ) {
+            return Collections.emptyList();
+        }
+        result.sort( ( m1, m2 ) -> Integer.compare( ( (MatchImpl<V>) m1 ).entry.order,
+                                                    ( (MatchImpl<V>) m2 ).entry.order ) );
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Copy the parts, setting the bounds of a part. An end of -1 denotes an open any wildcard.
+    private static int[] capture( int[] parts, int partIdx, int start, int end ) {
+        int[] result = Arrays.copyOf( parts, Math.max( parts.length, partIdx * 2 + 2 ) );
+        result[partIdx * 2] = start;
+        result[partIdx * 2 + 1] = end;
+        return result;
+    }
+
+    /**
+     * Pattern added to the set.
+     */
+    static final class Entry<V> {
+
+        final FqnPattern pattern;
+        final V          value;
+        final int        order;
+
+        Entry( FqnPattern pattern, V value, int order ) {
+            this.pattern = pattern;
+            this.value = value;
+            this.order = order;
+        }
+    }
+
+    /**
+     * State of the trie, reached after matching a prefix of patterns.
+     */
+    static final class State<V> {
+
+        // Index of the part captured by the edge leading to this state, or -1 for a specific segment.
+        final int partIdx;
+
+        // True if the edge leading to this state is an any wildcard: the state can consume more segments.
+        final boolean any;
+
+        // Number of parts captured by the prefix.
+        final int partCount;
+
+        Map<String, State<V>> segments;
+        State<V>              one;
+        State<V>              anyChild;
+
+        // Patterns ending at this state.
+        List<Entry<V>> entries;
+
+        State( int partIdx, boolean any, int partCount ) {
+            this.partIdx = partIdx;
+            this.any = any;
+            this.partCount = partCount;
+        }
+
+        State<V> segment( String segment ) {
+            if ( segments == null ) {
+                segments = new HashMap<>();
+            }
+            return segments.computeIfAbsent( segment, s -> new State<>( -1, false, partCount ) );
+        }
+
+        State<V> one() {
+            if ( one == null ) {
+                one = new State<>( partCount, false, partCount + 1 );
+            }
+            return one;
+        }
+
+        State<V> any() {
+            if ( anyChild == null ) {
+                anyChild = new State<>( partCount, true, partCount + 1 );
+            }
+            return anyChild;
+        }
+
+        void addEntry( Entry<V> entry ) {
+            if ( entries == null ) {
+                entries = new ArrayList<>( 1 );
+            }
+            entries.add( entry );
+        }
+    }
+
+    /**
+     * State reached with the parts captured so far. A branch in an any state either consumes the next segment in the
+     * wildcard or leaves it.
+     */
+    private static final class Branch<V> {
+
+        final State<V> state;
+        final int[]    parts;
+        final boolean  inAny;
+
+        Branch( State<V> state, int[] parts, boolean inAny ) {
+            this.state = state;
+            this.parts = parts;
+            this.inAny = inAny;
+        }
+    }
+
+    /**
+     * Ordered branches at a position of the name, the preferred first.
+     */
+    private static final class Step<V> {
+
+        final List<Branch<V>> branches = new ArrayList<>();
+
+        // Any states already reached at this position. Other states have a single parent and cannot be reached twice.
+        private Set<State<V>> anyStates;
+
+        boolean isEmpty() {
+            return branches.isEmpty();
+        }
+
+        // Add the state reached at position i, along with the states reachable without consuming a segment.
+        void add( State<V> state, int[] parts, int i ) {
+            if ( state.any ) {
+                if ( anyStates == null ) {
+                    anyStates = new HashSet<>();
+                }
+                if ( !anyStates.add( state ) ) {
+                    return;
+                }
+                branches.add( new Branch<>( state, parts, true ) );
+                parts = capture( parts, state.partIdx, parts[state.partIdx * 2], i );
+            }
+            branches.add( new Branch<>( state, parts, false ) );
+            if ( state.anyChild != null ) {
+                add( state.anyChild, capture( parts, state.anyChild.partIdx, i, -1 ), i );
+            }
+        }
+    }
+
+    /**
+     * Match of a pattern, parts are extracted from the name when requested.
+     */
+    private static final class MatchImpl<V> implements Match<V> {
+
+        private final Entry<V> entry;
+        private final Fqn      fqn;
+        private final int[]    parts;
+
+        MatchImpl( Entry<V> entry, Fqn fqn, int[] parts ) {
+            this.entry = entry;
+            this.fqn = fqn;
+            this.parts = parts;
+        }
+
+        @Override
+        public FqnPattern getPattern() {
+            return entry.pattern;
+        }
+
+        @Override
+        public V getValue() {
+            return entry.value;
+        }
+
+        @Override
+        public boolean matched() {
+            return true;
+        }
+
+        @Override
+        public int partCount() {
+            return parts.length / 2;
+        }
+
+        @Override
+        public Fqn getPart( int idx ) {
+            if ( idx < 0 || idx >= partCount() ) {
+                throw new IndexOutOfBoundsException();
+            }
+            int start = parts[idx * 2];
+            int end = parts[idx * 2 + 1];
+            return fqn.tailFrom( start ).head( end - start );
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.patch;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.dbrain.data.tree.Patch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compute the patch between two documents.
+ *
+ * Maps are compared key by key; a map or list removed under one key and added under another becomes a move. Lists are
+ * compared after skipping their common prefix and suffix, the remaining elements are compared pairwise and the extra
+ * ones removed or added at the end. Moves within lists are not detected.
+ */
+public final class NodeDiff {
+
+    private final List<Patch.Operation> operations = new ArrayList<>();
+
+    // Path nodes of the current position, String or Long.
+    private final List<Object> position = new ArrayList<>();
+
+    private NodeDiff() {
+    }
+
+    /**
+     * @return The patch transforming from into to.
+     */
+    public static Patch diff( Node from, Node to ) {
+        NodeDiff diff = new NodeDiff();
+        diff.diffNode( Node.of( from ), Node.of( to ) );
+        return new PatchImpl( diff.operations );
+    }
+
+    private Path path() {
+        Path.Builder builder = Path.newBuilder();
+        for ( Object o : position ) {
+            if ( o instanceof String ) {
+                builder.attr( (String) o );
+            } else {
+                builder.index( (Long) o );
+            }
+        }
+        return builder.build();
+    }
+
+    private Path path( Object last ) {
+        position.add( last );
+        try {
+            return path();
+        } finally {
+            position.remove( position.size() - 1 );
+        }
+    }
+
+    // Both nodes are frozen and equal. Cached hash codes make unequal nodes cheap to reject.
+    private static boolean sameFrozen( Node from, Node to ) {
+        return from.isFrozen() && to.isFrozen() && from.hashCode() == to.hashCode() && from.equals( to );
+    }
+
+    private void diffNode( Node from, Node to ) {
+        if ( from == to ) {
+            return;
+        }
+        if ( from instanceof NodeMap && to instanceof NodeMap ) {
+            if ( !sameFrozen( from, to ) ) {
+                diffMap( (NodeMap) from, (NodeMap) to );
+            }
+        } else if ( from instanceof NodeList && to instanceof NodeList ) {
+            if ( !sameFrozen( from, to ) ) {
+                diffList( (NodeList) from, (NodeList) to );
+            }
+        } else if ( !from.equals( to ) ) {
+            operations.add( Patch.replace( path(), to ) );
+        }
+    }
+
+    private void diffChild( Object pathNode, Node from, Node to ) {
+        position.add( pathNode );
+        try {
+            diffNode( Node.of( from ), Node.of( to ) );
+        } finally {
+            position.remove( position.size() - 1 );
+        }
+    }
+
+    private void diffMap( NodeMap from, NodeMap to ) {
+        List<String> removed = new ArrayList<>();
+        for ( Map.Entry<String, Node> e : from.entrySet() ) {
+            if ( to.containsKey( e.getKey() ) ) {
+                diffChild( e.getKey(), e.getValue(), to.get( e.getKey() ) );
+            } else {
+                removed.add( e.getKey() );
+            }
+        }
+
+        // Removed maps and lists, by value, candidates to a move.
+        Map<Node, Deque<String>> movable = new HashMap<>();
+        for ( String key : removed ) {
+            Node value = from.get( key );
+            if ( value instanceof NodeMap || value instanceof NodeList ) {
+                movable.computeIfAbsent( value, k -> new ArrayDeque<>() ).add( key );
+            }
+        }
+
+        List<Patch.Operation> adds = new ArrayList<>();
+        for ( Map.Entry<String, Node> e : to.entrySet() ) {
+            if ( !from.containsKey( e.getKey() ) ) {
+                Deque<String> sources = movable.isEmpty() ? null : movable.get( e.getValue() );
+                String source = sources != null ? sources.poll() : null;
+                if ( source != null ) {
+                    operations.add( Patch.move( path( source ), path( e.getKey() ) ) );
+                    removed.remove( source );
+                } else {
+                    adds.add( Patch.add( path( e.getKey() ), e.getValue() ) );
+                }
+            }
+        }
+        for ( String key : removed ) {
+            operations.add( Patch.remove( path( key ) ) );
+        }
+        operations.addAll( adds );
+    }
+
+    private void diffList( NodeList from, NodeList to ) {
+        int n = from.size();
+        int m = to.size();
+        int prefix = 0;
+        while ( prefix < n && prefix < m && Node.of( from.get( prefix ) ).equals( to.get( prefix ) ) ) {
+            prefix++;
+        }
+        int suffix = 0;
+        while ( suffix < n - prefix && suffix < m - prefix &&
+                Node.of( from.get( n - 1 - suffix ) ).equals( to.get( m - 1 - suffix ) ) ) {
+            suffix++;
+        }
+        int fromEnd = n - suffix;
+        int toEnd = m - suffix;
+        int common = Math.min( fromEnd, toEnd ) - prefix;
+        for ( int i = prefix; i < prefix + common; i++ ) {
+            diffChild( (long) i, from.get( i ), to.get( i ) );
+        }
+        // Remove from the end, so that indexes stay valid.
+        for ( int i = fromEnd - 1; i >= prefix + common; i-- ) {
+            operations.add( Patch.remove( path( (long) i ) ) );
+        }
+        for ( int i = prefix + common; i < toEnd; i++ ) {
+            operations.add( Patch.add( path( (long) i ), to.get( i ) ) );
+        }
+    }
+
+}
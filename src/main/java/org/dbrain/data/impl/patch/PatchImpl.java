@@ -0,0 +1,342 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.patch;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.dbrain.data.tree.Patch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implements the Patch.
+ */
+public final class PatchImpl implements Patch {
+
+    private final List<Operation> operations;
+
+    public PatchImpl( List<Operation> operations ) {
+        this.operations = Collections.unmodifiableList( new ArrayList<>( operations ) );
+    }
+
+    @Override
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    @Override
+    public Node apply( Node document ) {
+        Deque<Runnable> undo = new ArrayDeque<>();
+        try {
+            return applyAll( Node.of( document ), undo );
+        } catch ( RuntimeException e ) {
+            // Revert the changes made in place, latest first, so that a failing operation leaves the document as it
+            // was. Frozen nodes are never modified, only the mutable nodes along the paths need it.
+            while ( !undo.isEmpty() ) {
+                undo.pop().run();
+            }
+            throw e;
+        }
+    }
+
+    private Node applyAll( Node document, Deque<Runnable> undo ) {
+        Node result = document;
+        for ( Operation op : operations ) {
+            switch ( op.getType() ) {
+                case ADD:
+                case REPLACE:
+                    result = write( result, op.getPath(), 0, op.getType(), op.getValue(), undo );
+                    break;
+                case REMOVE:
+                    result = write( result, op.getPath(), 0, Type.REMOVE, null, undo );
+                    break;
+                case MOVE:
+                    Node value = read( result, op.getFrom() );
+                    result = write( result, op.getFrom(), 0, Type.REMOVE, null, undo );
+                    result = write( result, op.getPath(), 0, Type.ADD, value, undo );
+                    break;
+            }
+        }
+        return result;
+    }
+
+    // Mutable copy of a frozen map or list, inserted into a mutable container.
+    private static Node thaw( Node node ) {
+        if ( node.isFrozen() ) {
+            if ( node instanceof NodeMap ) {
+                NodeMap result = NodeMap.newInstance();
+                ( (NodeMap) node ).forEach( ( k, v ) -> result.put( k, thaw( v ) ) );
+                return result;
+            } else if ( node instanceof NodeList ) {
+                NodeList result = NodeList.newInstance();
+                for ( Node v : (NodeList) node ) {
+                    result.add( thaw( v ) );
+                }
+                return result;
+            }
+        }
+        return node;
+    }
+
+    private static IllegalArgumentException notFound( Path path ) {
+        return new IllegalArgumentException( "Cannot apply patch, no node at path: " + path );
+    }
+
+    // Key of the path node within a map.
+    private static String key( Path path, int i ) {
+        return path.nodeType( i ) == Path.NodeType.ATTRIBUTE ? path.attr( i ) : Long.toString( path.index( i ) );
+    }
+
+    // Index of the path node within a list, -1 if invalid.
+    private static int index( Path path, int i, NodeList list ) {
+        if ( path.nodeType( i ) == Path.NodeType.INDEX ) {
+            long index = path.index( i );
+            return index >= 0 && index <= list.size() ? (int) index : -1;
+        }
+        return "-".equals( path.attr( i ) ) ? list.size() : -1;
+    }
+
+    private static Node read( Node node, Path path ) {
+        for ( int i = 0; i < path.size(); i++ ) {
+            node = child( node, path, i );
+        }
+        return node;
+    }
+
+    private static Node child( Node node, Path path, int i ) {
+        if ( node instanceof NodeMap ) {
+            NodeMap map = (NodeMap) node;
+            String key = key( path, i );
+            if ( map.containsKey( key ) ) {
+                return map.get( key );
+            }
+        } else if ( node instanceof NodeList ) {
+            NodeList list = (NodeList) node;
+            int index = index( path, i, list );
+            if ( index >= 0 && index < list.size() ) {
+                return Node.of( list.get( index ) );
+            }
+        }
+        throw notFound( path );
+    }
+
+    /**
+     * Apply an add, replace or remove at path, starting at the path node i. Each change made in place pushes its
+     * inverse on undo.
+     *
+     * @return The node replacing node, itself if modified in place.
+     */
+    private static Node write( Node node, Path path, int i, Type type, Node value, Deque<Runnable> undo ) {
+        if ( i == path.size() ) {
+            if ( type == Type.REMOVE ) {
+                return Node.nullValue();
+            }
+            return node.isFrozen() ? value : thaw( value );
+        } else if ( i < path.size() - 1 ) {
+            Node child = child( node, path, i );
+            Node newChild = write( child, path, i + 1, type, value, undo );
+            return newChild == child ? node : setChild( node, path, i, child, newChild, undo );
+        } else if ( node instanceof NodeMap ) {
+            return writeMap( (NodeMap) node, path, type, value, undo );
+        } else if ( node instanceof NodeList ) {
+            return writeList( (NodeList) node, path, type, value, undo );
+        } else {
+            throw notFound( path );
+        }
+    }
+
+    private static Node setChild( Node node, Path path, int i, Node previous, Node child, Deque<Runnable> undo ) {
+        if ( node instanceof NodeMap ) {
+            NodeMap map = (NodeMap) node;
+            String key = key( path, i );
+            if ( map.isFrozen() ) {
+                return map.with( key, child );
+            }
+            map.put( key, child );
+            undo.push( () -> map.put( key, previous ) );
+        } else {
+            NodeList list = (NodeList) node;
+            int index = index( path, i, list );
+            if ( list.isFrozen() ) {
+                return list.with( index, child );
+            }
+            list.set( index, child );
+            undo.push( () -> list.set( index, previous ) );
+        }
+        return node;
+    }
+
+    private static Node writeMap( NodeMap map, Path path, Type type, Node value, Deque<Runnable> undo ) {
+        String key = key( path, path.size() - 1 );
+        if ( type != Type.ADD && !map.containsKey( key ) ) {
+            throw notFound( path );
+        }
+        if ( map.isFrozen() ) {
+            return type == Type.REMOVE ? map.without( key ) : map.with( key, value );
+        }
+        if ( type == Type.REMOVE || !map.containsKey( key ) ) {
+            // Restore the whole map, to keep the order of its keys.
+            Map<String, Node> previous = new LinkedHashMap<>( map );
+            undo.push( () -> {
+                map.clear();
+                map.putAll( previous );
+            } );
+        } else {
+            Node previous = map.get( key );
+            undo.push( () -> map.put( key, previous ) );
+        }
+        if ( type == Type.REMOVE ) {
+            map.remove( key );
+        } else {
+            map.put( key, thaw( value ) );
+        }
+        return map;
+    }
+
+    private static Node writeList( NodeList list, Path path, Type type, Node value, Deque<Runnable> undo ) {
+        int index = index( path, path.size() - 1, list );
+        if ( index < 0 || ( type != Type.ADD && index == list.size() ) ) {
+            throw notFound( path );
+        }
+        if ( list.isFrozen() ) {
+            if ( type == Type.REPLACE || ( type == Type.ADD && index == list.size() ) ) {
+                return list.with( index, value );
+            }
+            // Insert and remove are not supported by the persistent list, rebuild it.
+            List<Node> copy = new ArrayList<>( list );
+            if ( type == Type.ADD ) {
+                copy.add( index, value );
+            } else {
+                copy.remove( index );
+            }
+            return NodeList.of( copy.toArray() ).freeze();
+        }
+        switch ( type ) {
+            case ADD:
+                list.add( index, thaw( value ) );
+                undo.push( () -> list.remove( index ) );
+                break;
+            case REPLACE: {
+                Node previous = list.set( index, thaw( value ) );
+                undo.push( () -> list.set( index, previous ) );
+                break;
+            }
+            default: {
+                Node previous = list.remove( index );
+                undo.push( () -> list.add( index, previous ) );
+                break;
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) return true;
+        if ( o == null || getClass() != o.getClass() ) return false;
+        return operations.equals( ( (PatchImpl) o ).operations );
+    }
+
+    @Override
+    public int hashCode() {
+        return operations.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return operations.toString();
+    }
+
+    /**
+     * Implements the Operation.
+     */
+    public static final class OperationImpl implements Operation {
+
+        private final Type type;
+        private final Path path;
+        private final Path from;
+        private final Node value;
+
+        public OperationImpl( Type type, Path path, Path from, Node value ) {
+            this.type = Objects.requireNonNull( type );
+            this.path = Objects.requireNonNull( path );
+            this.from = type == Type.MOVE ? Objects.requireNonNull( from ) : null;
+            this.value = type == Type.ADD || type == Type.REPLACE ? Node.of( value ).freeze() : null;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public Path getPath() {
+            return path;
+        }
+
+        @Override
+        public Path getFrom() {
+            return from;
+        }
+
+        @Override
+        public Node getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( o == null || getClass() != o.getClass() ) return false;
+            OperationImpl that = (OperationImpl) o;
+            return type == that.type && path.equals( that.path ) && Objects.equals( from, that.from ) &&
+                   Objects.equals( value, that.value );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( type, path, from, value );
+        }
+
+        @Override
+        public String toString() {
+            switch ( type ) {
+                case MOVE:
+                    return "move " + from + " to " + path;
+                case REMOVE:
+                    return "remove " + path;
+                default:
+                    return type.name().toLowerCase() + " " + path + " = " + value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.path;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.dbrain.data.tree.PathAccessor;
+
+import java.util.Objects;
+
+/**
+ * Implements the PathAccessor. Each node of the path is compiled to a step, so that access does not look at the path
+ * anymore.
+ */
+public final class PathAccessorImpl implements PathAccessor {
+
+    private final Path path;
+
+    private final Step[] steps;
+
+    public PathAccessorImpl( Path path ) {
+        Objects.requireNonNull( path );
+        this.path = path;
+        this.steps = new Step[path.size()];
+        for ( int i = 0; i < steps.length; i++ ) {
+            switch ( path.nodeType( i ) ) {
+                case ATTRIBUTE:
+                    steps[i] = new AttributeStep( path.attr( i ) );
+                    break;
+                case INDEX:
+                    steps[i] = new IndexStep( path.index( i ) );
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public Node get( Node root ) {
+        Node current = Node.of( root );
+        for ( Step step : steps ) {
+            if ( current.isNull() ) {
+                break;
+            }
+            current = step.get( current );
+        }
+        return current;
+    }
+
+    @Override
+    public Node set( Node root, Node node ) {
+        if ( steps.length == 0 ) {
+            throw new IllegalArgumentException( "Cannot set the node at an empty path." );
+        }
+        Node current = Node.of( root );
+        int last = steps.length - 1;
+        for ( int i = 0; i < last; i++ ) {
+            current = steps[i].getOrCreate( current, steps[i + 1] );
+        }
+        return steps[last].set( current, node );
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+    /**
+     * A compiled node of the path.
+     */
+    private static abstract class Step {
+
+        /**
+         * @return The child of the parent, or a null value if missing.
+         */
+        abstract Node get( Node parent );
+
+        /**
+         * @return The child of the parent, created for the next step if missing.
+         */
+        abstract Node getOrCreate( Node parent, Step next );
+
+        /**
+         * @return The previous child of the parent, or null.
+         */
+        abstract Node set( Node parent, Node node );
+
+        /**
+         * @return A new container this step can navigate.
+         */
+        abstract Node newContainer();
+
+    }
+
+    private static final class AttributeStep extends Step {
+
+        private final String attr;
+
+        AttributeStep( String attr ) {
+            this.attr = attr;
+        }
+
+        @Override
+        Node get( Node parent ) {
+            return parent.getMap().get( attr );
+        }
+
+        @Override
+        Node getOrCreate( Node parent, Step next ) {
+            NodeMap map = parent.getMap();
+            Node child = map.get( attr );
+            if ( child.isNull() ) {
+                child = next.newContainer();
+                map.put( attr, child );
+            }
+            return child;
+        }
+
+        @Override
+        Node set( Node parent, Node node ) {
+            return parent.getMap().put( attr, Node.of( node ) );
+        }
+
+        @Override
+        Node newContainer() {
+            return NodeMap.newInstance();
+        }
+    }
+
+    private static final class IndexStep extends Step {
+
+        // Indexes past Integer.MAX_VALUE cannot exist, they are kept as -1.
+        private final int index;
+
+        IndexStep( long index ) {
+            this.index = index >= 0 && index <= Integer.MAX_VALUE ? (int) index : -1;
+        }
+
+        @Override
+        Node get( Node parent ) {
+            NodeList list = parent.getList();
+            return index >= 0 && index < list.size() ? Node.of( list.get( index ) ) : Node.nullValue();
+        }
+
+        @Override
+        Node getOrCreate( Node parent, Step next ) {
+            NodeList list = parent.getList();
+            Node child = index >= 0 && index < list.size() ? Node.of( list.get( index ) ) : Node.nullValue();
+            if ( child.isNull() ) {
+                child = next.newContainer();
+                set( list, child );
+            }
+            return child;
+        }
+
+        @Override
+        Node set( Node parent, Node node ) {
+            NodeList list = parent.getList();
+            if ( index >= 0 && index < list.size() ) {
+                return list.set( index, Node.of( node ) );
+            } else if ( index == list.size() ) {
+                list.add( Node.of( node ) );
+                return null;
+            } else {
+                throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + list.size() );
+            }
+        }
+
+        @Override
+        Node newContainer() {
+            return NodeList.newInstance();
+        }
+    }
+
+}
@@ -19,35 +19,60 @@ package org.dbrain.data.impl.path;
 import org.dbrain.data.Fqn;
 import org.dbrain.data.Path;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Builder implementation of Paths.
+ *
+ * Built paths share the arrays of the builder: nodes are only ever added past the ones already built.
  */
 public class PathBuilderImpl implements Path.Builder {
 
-    private List<Object> nodes;
+    private String[] attrs;
+
+    private long[] indexes;
+
+    private int size;
+
+    private void ensureCapacity( int capacity ) {
+        if ( attrs == null ) {
+            attrs = new String[Math.max( capacity, 4 )];
+            indexes = new long[attrs.length];
+        } else if ( capacity > attrs.length ) {
+            int newCapacity = Math.max( capacity, attrs.length * 2 );
+            attrs = Arrays.copyOf( attrs, newCapacity );
+            indexes = Arrays.copyOf( indexes, newCapacity );
+        }
+    }
 
     @Override
     public PathBuilderImpl attr( String attr ) {
         Objects.requireNonNull( attr );
-        if ( nodes == null ) {
-            nodes = new ArrayList<>();
-        }
-        nodes.add( attr );
+        ensureCapacity( size + 1 );
+        attrs[size++] = attr;
         return this;
     }
 
     public PathBuilderImpl index( long index ) {
-        if ( nodes == null ) {
-            nodes = new ArrayList<>();
-        }
-        nodes.add( index );
+        ensureCapacity( size + 1 );
+        indexes[size++] = index;
         return this;
     }
 
+    // Append the nodes of the path in the range.
+    private void appendRange( Path path, int startIdx, int endIdx ) {
+        if ( path instanceof PathImpl ) {
+            ensureCapacity( size + endIdx - startIdx );
+            ( (PathImpl) path ).copyTo( startIdx, endIdx, attrs, indexes, size );
+            size += endIdx - startIdx;
+        } else {
+            for ( int i = startIdx; i < endIdx; i++ ) {
+                appendNode( path, i );
+            }
+        }
+    }
+
     private void appendNode( Path path, int i ) {
         switch ( path.nodeType( i ) ) {
             case INDEX:
@@ -62,9 +87,7 @@ public class PathBuilderImpl implements Path.Builder {
     @Override
     public Path.Builder append( Path path ) {
         if ( path != null ) {
-            for ( int i = 0; i < path.size(); i++ ) {
-                appendNode( path, i );
-            }
+            appendRange( path, 0, path.size() );
         }
         return this;
     }
@@ -73,9 +96,7 @@ public class PathBuilderImpl implements Path.Builder {
     public Path.Builder append( Path path, int startIdx, int endIdx ) {
         if ( path != null ) {
             if ( startIdx >= 0 && endIdx >= 0 && startIdx < path.size() && endIdx <= path.size() ) {
-                for ( int i = startIdx; i < endIdx; i++ ) {
-                    appendNode( path, i );
-                }
+                appendRange( path, startIdx, endIdx );
             } else {
                 throw new IndexOutOfBoundsException();
             }
@@ -101,8 +122,8 @@ public class PathBuilderImpl implements Path.Builder {
 
     @Override
     public Path build() {
-        if ( nodes != null ) {
-            return new PathImpl( nodes );
+        if ( size > 0 ) {
+            return new PathImpl( attrs, indexes, 0, size );
         } else {
             return PathImpl.EMPTY_PATH;
         }
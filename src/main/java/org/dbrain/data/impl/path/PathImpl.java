@@ -17,26 +17,153 @@
 package org.dbrain.data.impl.path;
 
 import org.dbrain.data.Path;
+import org.dbrain.data.util.WeakInterner;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Implements the Fqn.
+ * Implements the Path.
+ *
+ * Nodes are a range of two immutable arrays: the attributes, null for index nodes, and the indexes as primitive longs.
+ * Heads and tails are slices sharing the arrays of the path they come from. The hash code and the string form are
+ * computed once.
+ *
+ * Interned paths are kept in a weak table indexed by their string form. Two interned paths are equal only if they are
+ * the same instance.
  */
 public final class PathImpl implements Path {
 
+    private static final String[] NO_ATTRS   = new String[0];
+    private static final long[]   NO_INDEXES = new long[0];
+
     // Singleton for no name value
-    public static final Path EMPTY_PATH = new PathImpl( null );
+    public static final Path EMPTY_PATH = new PathImpl( NO_ATTRS, NO_INDEXES, 0, 0 );
+
+    private static final WeakInterner<PathImpl> INTERNED = new WeakInterner<>();
 
 
-    private final List<Object> nodes;
+    // Shared between slices, never modified.
+    private final String[] attrs;
+    private final long[]   indexes;
+    private final int      offset;
+    private final int      length;
+
+    // Cached hash code, 0 if not computed yet.
+    private int hash;
+
+    // Cached string form.
+    private String text;
+
+    // True if this instance is the canonical one held by the intern table.
+    private boolean interned;
 
     /**
-     * Use the of(xxx) factory.
+     * Use the of(xxx) factory. Nodes are either String attributes or Number indexes.
      */
     public PathImpl( List<Object> nodes ) {
-        this.nodes = nodes != null && nodes.size() > 0 ? new ArrayList<>( nodes ) : null;
+        this( toAttrs( nodes ), toIndexes( nodes ) );
+    }
+
+    private PathImpl( String[] attrs, long[] indexes ) {
+        this( attrs, indexes, 0, attrs.length );
+    }
+
+    /**
+     * Create a path over a range of the arrays, without copying them. The arrays must never be modified within the
+     * range.
+     */
+    PathImpl( String[] attrs, long[] indexes, int offset, int length ) {
+        this.attrs = attrs;
+        this.indexes = indexes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    private static String[] toAttrs( List<Object> nodes ) {
+        if ( nodes == null || nodes.isEmpty() ) {
+            return NO_ATTRS;
+        }
+        String[] result = new String[nodes.size()];
+        for ( int i = 0; i < result.length; i++ ) {
+            Object node = nodes.get( i );
+            result[i] = node instanceof String ? (String) node : null;
+        }
+        return result;
+    }
+
+    private static long[] toIndexes( List<Object> nodes ) {
+        if ( nodes == null || nodes.isEmpty() ) {
+            return NO_INDEXES;
+        }
+        long[] result = new long[nodes.size()];
+        for ( int i = 0; i < result.length; i++ ) {
+            Object node = nodes.get( i );
+            result[i] = node instanceof String ? 0 : ( (Number) node ).longValue();
+        }
+        return result;
+    }
+
+    private Path slice( int from, int to ) {
+        if ( from < 0 || to > length || from > to ) {
+            throw new IndexOutOfBoundsException( "Range: " + from + ".." + to + ", Size: " + length );
+        }
+        if ( from == to ) {
+            return EMPTY_PATH;
+        } else if ( from == 0 && to == length ) {
+            return this;
+        } else {
+            return new PathImpl( attrs, indexes, offset + from, to - from );
+        }
+    }
+
+    /**
+     * @return The interned path for the string, parsed only if it is not interned yet.
+     */
+    public static Path intern( String text ) {
+        PathImpl result = INTERNED.get( text );
+        if ( result != null ) {
+            return result;
+        }
+        Path parsed = PathParseUtils.parsePath( text ).intern();
+        if ( text != null && parsed != EMPTY_PATH && !text.equals( parsed.toString() ) ) {
+            // Also index the path by the text as written, it is not the canonical form.
+            return INTERNED.intern( text, (PathImpl) parsed );
+        }
+        return parsed;
+    }
+
+    @Override
+    public Path intern() {
+        if ( interned || length == 0 ) {
+            return length == 0 ? EMPTY_PATH : this;
+        }
+        // Do not retain the whole arrays of a slice.
+        PathImpl candidate = offset == 0 && length == attrs.length ? this :
+                new PathImpl( Arrays.copyOfRange( attrs, offset, offset + length ),
+                              Arrays.copyOfRange( indexes, offset, offset + length ) );
+        PathImpl result = INTERNED.intern( toString(), candidate );
+        if ( result == candidate ) {
+            candidate.text = text;
+            candidate.hash = hash;
+            candidate.interned = true;
+        }
+        return result;
+    }
+
+    /**
+     * Copy the nodes to the arrays.
+     */
+    void copyTo( int from, int to, String[] toAttrs, long[] toIndexes, int toOffset ) {
+        System.arraycopy( attrs, offset + from, toAttrs, toOffset, to - from );
+        System.arraycopy( indexes, offset + from, toIndexes, toOffset, to - from );
+    }
+
+    private int position( int i ) {
+        if ( i < 0 || i >= length ) {
+            throw new IndexOutOfBoundsException( "Index: " + i + ", Size: " + length );
+        }
+        return offset + i;
     }
 
     /**
@@ -44,16 +171,12 @@ public final class PathImpl implements Path {
      */
     @Override
     public int size() {
-        return nodes != null ? nodes.size() : 0;
+        return length;
     }
 
     @Override
     public NodeType nodeType( int i ) {
-        if ( nodes != null ) {
-            return nodes.get( i ) instanceof String ? NodeType.ATTRIBUTE : NodeType.INDEX;
-        } else {
-            throw new IndexOutOfBoundsException();
-        }
+        return attrs[position( i )] != null ? NodeType.ATTRIBUTE : NodeType.INDEX;
     }
 
     /**
@@ -64,11 +187,11 @@ public final class PathImpl implements Path {
      */
     @Override
     public long index( int i ) {
-        if ( nodes != null ) {
-            return ( (Number) nodes.get( i ) ).longValue();
-        } else {
-            throw new IndexOutOfBoundsException();
+        int p = position( i );
+        if ( attrs[p] != null ) {
+            throw new ClassCastException( "Node " + i + " is an attribute." );
         }
+        return indexes[p];
     }
 
     /**
@@ -79,43 +202,35 @@ public final class PathImpl implements Path {
      */
     @Override
     public String attr( int i ) {
-        if ( nodes != null ) {
-            return (String) nodes.get( i );
-        } else {
-            throw new IndexOutOfBoundsException();
+        String result = attrs[position( i )];
+        if ( result == null ) {
+            throw new ClassCastException( "Node " + i + " is an index." );
         }
+        return result;
     }
 
     @Override
     public Path head( int toIndex ) {
-        if ( toIndex == 0 ) {
-            return new PathImpl( null );
-        } else if ( nodes != null ) {
-            return new PathImpl( nodes.subList( 0, toIndex ) );
-        } else {
-            throw new IndexOutOfBoundsException();
-        }
+        return slice( 0, toIndex );
     }
 
     @Override
     public Path tail( int size ) {
-        return tailFrom( size() - size );
+        return tailFrom( length - size );
     }
 
     @Override
     public Path tailFrom( int fromIndex ) {
-        if ( nodes != null ) {
-            if ( fromIndex == nodes.size() ) {
-                return new PathImpl( null );
-            } else {
-                return new PathImpl( nodes.subList( fromIndex, nodes.size() ) );
-            }
+        return slice( fromIndex, length );
+    }
+
+    // Compare the node at position p with the node i of the other path.
+    private boolean nodeEquals( int p, Path other, int i ) {
+        String attr = attrs[p];
+        if ( attr != null ) {
+            return other.nodeType( i ) == NodeType.ATTRIBUTE && attr.equals( other.attr( i ) );
         } else {
-            if ( fromIndex != 0 ) {
-                throw new IndexOutOfBoundsException();
-            } else {
-                return new PathImpl( null );
-            }
+            return other.nodeType( i ) == NodeType.INDEX && indexes[p] == other.index( i );
         }
     }
 
@@ -128,11 +243,11 @@ public final class PathImpl implements Path {
             return true;
         }
         int otherSize = other.size();
-        if ( size() < otherSize ) {
+        if ( length < otherSize ) {
             return false;
         }
         for ( int i = 0; i < otherSize; i++ ) {
-            if ( !attr( i ).equals( other.attr( i ) ) ) {
+            if ( !nodeEquals( offset + i, other, i ) ) {
                 return false;
             }
         }
@@ -160,32 +275,32 @@ public final class PathImpl implements Path {
         if ( this == o ) return true;
         if ( o == null || getClass() != o.getClass() ) return false;
 
-        Path fqn = (Path) o;
-        if ( size() != fqn.size() ) {
+        PathImpl path = (PathImpl) o;
+        if ( interned && path.interned || length != path.length || hash != 0 && path.hash != 0 && hash != path.hash ) {
             return false;
         }
-        for ( int i = 0; i < size(); i++ ) {
-            if ( !nodeType( i ).equals( fqn.nodeType( i ) ) ) {
+        for ( int i = 0; i < length; i++ ) {
+            if ( !nodeEquals( offset + i, path, i ) ) {
                 return false;
             }
-            switch ( nodeType( i ) ) {
-                case ATTRIBUTE:
-                    if ( !attr( i ).equals( fqn.attr( i ) ) ) {
-                        return false;
-                    }
-                    break;
-                case INDEX:
-                    if ( index( i ) !=  fqn.index( i ) ) {
-                        return false;
-                    }
-                    break;
-            }
-        } return true;
+        }
+        return true;
     }
 
+    /**
+     * Same hash code as the list of the nodes, attributes as String and indexes as Long. 0 for the empty path.
+     */
     @Override
     public int hashCode() {
-        return nodes != null ? nodes.hashCode() : 0;
+        int result = hash;
+        if ( result == 0 && length > 0 ) {
+            result = 1;
+            for ( int p = offset; p < offset + length; p++ ) {
+                result = 31 * result + ( attrs[p] != null ? attrs[p].hashCode() : Long.hashCode( indexes[p] ) );
+            }
+            hash = result;
+        }
+        return result;
     }
 
     /**
@@ -193,25 +308,23 @@ public final class PathImpl implements Path {
      */
     @Override
     public String toString() {
-        final int size = size();
-        if ( size == 0 ) {
-            return "";
-        } else {
+        String result = text;
+        if ( result == null ) {
             StringBuilder sb = new StringBuilder();
-            for ( int i = 0; i < size; i++ ) {
-                switch ( nodeType( i ) ) {
-                    case ATTRIBUTE:
-                        sb.append( PathParseUtils.encodeAttribute( attr( i ), i == 0 ) );
-                        break;
-                    case INDEX:
-                        sb.append( "[" );
-                        sb.append( index( i ) );
-                        sb.append( "]" );
-                        break;
+            for ( int i = 0; i < length; i++ ) {
+                String attr = attrs[offset + i];
+                if ( attr != null ) {
+                    sb.append( PathParseUtils.encodeAttribute( attr, i == 0 ) );
+                } else {
+                    sb.append( "[" );
+                    sb.append( indexes[offset + i] );
+                    sb.append( "]" );
                 }
             }
-            return sb.toString();
+            result = sb.toString();
+            text = result;
         }
+        return result;
     }
 
 }
@@ -19,6 +19,13 @@ package org.dbrain.data.impl.path;
 import org.dbrain.data.Path;
 import org.dbrain.data.PathPattern;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Implementation of the Path Pattern.
  */
@@ -27,9 +34,10 @@ public class PathPatternImpl implements PathPattern {
     // Empty pattern singleton.
     public static final PathPattern EMPTY_PATTERN = new PathPatternImpl( null, 0 );
 
-    private Node  root;
-    private int   partCount;
-    private Specs specs;
+    private Node   root;
+    private int    partCount;
+    private Specs  specs;
+    private Node[] chain;
 
     public PathPatternImpl( Node root, int partCount ) {
         this.root = root;
@@ -50,6 +58,37 @@ public class PathPatternImpl implements PathPattern {
         return result;
     }
 
+    @Override
+    public Stream<Selection> selectStream( org.dbrain.data.tree.Node root ) {
+        return stream( new PathPatternSelector( this, getChain(), root ) );
+    }
+
+    /**
+     * Select by matching the path of every node of the tree, for patterns of other implementations.
+     */
+    public static Stream<Selection> selectStream( PathPattern pattern, org.dbrain.data.tree.Node root ) {
+        return stream( new PathPatternSelector( pattern, null, root ) );
+    }
+
+    private static Stream<Selection> stream( PathPatternSelector selector ) {
+        return StreamSupport.stream( Spliterators.spliteratorUnknownSize( selector, Spliterator.ORDERED |
+                                                                                   Spliterator.NONNULL ), false );
+    }
+
+    /**
+     * @return The nodes of the pattern, in order.
+     */
+    private Node[] getChain() {
+        if ( chain == null ) {
+            List<Node> nodes = new ArrayList<>();
+            for ( Node node = root; node != null; node = node.getNext() ) {
+                nodes.add( node );
+            }
+            chain = nodes.toArray( new Node[nodes.size()] );
+        }
+        return chain;
+    }
+
     @Override
     public Specs getSpecs() {
         if ( specs == null ) {
@@ -173,6 +212,27 @@ public class PathPatternImpl implements PathPattern {
 
         abstract boolean match( Path fqn, int i, MatchResultImpl mr );
 
+        /**
+         * @return true if the node accepts the attribute, used while walking a tree.
+         */
+        boolean matchAttr( String attr ) {
+            return false;
+        }
+
+        /**
+         * @return true if the node accepts the index, used while walking a tree.
+         */
+        boolean matchIndex( long index ) {
+            return false;
+        }
+
+        /**
+         * @return true if the node can match any number of path nodes.
+         */
+        boolean isRepeatable() {
+            return false;
+        }
+
         Node getNext() {
             return next;
         }
@@ -202,6 +262,11 @@ public class PathPatternImpl implements PathPattern {
             return attr;
         }
 
+        @Override
+        boolean matchAttr( String attr ) {
+            return this.attr.equals( attr );
+        }
+
         @Override
         boolean match( Path path, int i, MatchResultImpl mr ) {
             if ( i >= path.size() || !( path.nodeType( i ) == Path.NodeType.ATTRIBUTE && path.attr( i )
@@ -236,6 +301,11 @@ public class PathPatternImpl implements PathPattern {
             return index;
         }
 
+        @Override
+        boolean matchIndex( long index ) {
+            return this.index == index;
+        }
+
         @Override
         boolean match( Path path, int i, MatchResultImpl mr ) {
             if ( i >= path.size() || !( path.nodeType( i ) == Path.NodeType.INDEX && path.index( i ) == index ) ) {
@@ -261,6 +331,16 @@ public class PathPatternImpl implements PathPattern {
 
         int partIdx;
 
+        @Override
+        boolean matchAttr( String attr ) {
+            return true;
+        }
+
+        @Override
+        boolean matchIndex( long index ) {
+            return true;
+        }
+
         @Override
         boolean match( Path path, int i, MatchResultImpl mr ) {
             if ( i >= path.size() ) {
@@ -293,6 +373,21 @@ public class PathPatternImpl implements PathPattern {
 
         private int partIdx;
 
+        @Override
+        boolean matchAttr( String attr ) {
+            return true;
+        }
+
+        @Override
+        boolean matchIndex( long index ) {
+            return true;
+        }
+
+        @Override
+        boolean isRepeatable() {
+            return true;
+        }
+
         @Override
         boolean match( Path path, int i, MatchResultImpl mr ) {
             if ( i > path.size() ) {
@@ -0,0 +1,243 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.path;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.PathPattern;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Walk a tree depth first and return the nodes matching a pattern.
+ *
+ * Each visited node carries the set of pattern positions reachable by its path, as a bit mask. A child is only visited
+ * if one of those positions accepts its attribute or index, and a node is selected when the end of the pattern is
+ * reachable. Paths and parts are only built for the selected nodes.
+ *
+ * Without a chain, for patterns of other implementations or of 63 nodes or more, every node is visited and its path
+ * matched.
+ */
+final class PathPatternSelector implements Iterator<PathPattern.Selection> {
+
+    private final PathPattern pattern;
+
+    private final PathPatternImpl.Node[] chain;
+
+    private final long accept;
+
+    private final List<Frame> frames = new ArrayList<>();
+
+    private int depth;
+
+    private PathPattern.Selection next;
+
+    PathPatternSelector( PathPattern pattern, PathPatternImpl.Node[] chain, Node root ) {
+        // Positions are bits of a long, longer patterns match the path of every node.
+        if ( chain != null && chain.length >= 63 ) {
+            chain = null;
+        }
+        this.pattern = pattern;
+        this.chain = chain;
+        this.accept = chain != null ? 1L << chain.length : 1L;
+        this.depth = 0;
+        frames.add( new Frame() );
+        frames.get( 0 ).enter( Node.of( root ), chain != null ? closure( 1L ) : -1L, null, 0 );
+    }
+
+    // Add the positions reached by skipping repeatable nodes, that can match no path node.
+    private long closure( long states ) {
+        for ( int p = 0; p < chain.length; p++ ) {
+            if ( ( states & ( 1L << p ) ) != 0 && chain[p].isRepeatable() ) {
+                states |= 1L << ( p + 1 );
+            }
+        }
+        return states;
+    }
+
+    // Positions reached after matching an attribute, or an index if the attribute is null.
+    private long step( long states, String attr, long index ) {
+        if ( chain == null ) {
+            return states;
+        }
+        long result = 0;
+        for ( long s = states & ~accept; s != 0; s &= s - 1 ) {
+            int p = Long.numberOfTrailingZeros( s );
+            PathPatternImpl.Node n = chain[p];
+            if ( attr != null ? n.matchAttr( attr ) : n.matchIndex( index ) ) {
+                result |= n.isRepeatable() ? 1L << p : 1L << ( p + 1 );
+            }
+        }
+        return result != 0 ? closure( result ) : 0;
+    }
+
+    private Path currentPath() {
+        Path.Builder builder = Path.newBuilder();
+        for ( int i = 1; i <= depth; i++ ) {
+            Frame f = frames.get( i );
+            if ( f.attr != null ) {
+                builder.attr( f.attr );
+            } else {
+                builder.index( f.index );
+            }
+        }
+        return builder.build();
+    }
+
+    private void push( Node node, long states, String attr, long index ) {
+        depth++;
+        if ( depth == frames.size() ) {
+            frames.add( new Frame() );
+        }
+        frames.get( depth ).enter( node, states, attr, index );
+    }
+
+    private void advance() {
+        while ( next == null && depth >= 0 ) {
+            Frame f = frames.get( depth );
+            if ( !f.visited ) {
+                f.visited = true;
+                if ( ( f.states & accept ) != 0 ) {
+                    Path path = currentPath();
+                    PathPattern.MatchResult mr = pattern.match( path );
+                    if ( mr.matched() ) {
+                        next = new SelectionImpl( path, f.node, mr );
+                    }
+                }
+            } else if ( f.entries != null && f.entries.hasNext() ) {
+                Map.Entry<String, Node> e = f.entries.next();
+                long states = step( f.states, e.getKey(), 0 );
+                if ( states != 0 ) {
+                    push( Node.of( e.getValue() ), states, e.getKey(), 0 );
+                }
+            } else if ( f.list != null && f.nextIndex < f.list.size() ) {
+                int i = f.nextIndex++;
+                long states = step( f.states, null, i );
+                if ( states != 0 ) {
+                    push( Node.of( f.list.get( i ) ), states, null, i );
+                }
+            } else {
+                f.leave();
+                depth--;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        advance();
+        return next != null;
+    }
+
+    @Override
+    public PathPattern.Selection next() {
+        advance();
+        if ( next == null ) {
+            throw new NoSuchElementException();
+        }
+        PathPattern.Selection result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * A node being visited. Frames are reused between siblings.
+     */
+    private final class Frame {
+
+        Node                              node;
+        long                              states;
+        String                            attr;
+        long                              index;
+        boolean                           visited;
+        Iterator<Map.Entry<String, Node>> entries;
+        NodeList                          list;
+        int                               nextIndex;
+
+        void enter( Node node, long states, String attr, long index ) {
+            this.node = node;
+            this.states = states;
+            this.attr = attr;
+            this.index = index;
+            this.visited = false;
+            // Only descend if some position can consume more path nodes.
+            boolean more = ( states & ~accept ) != 0;
+            this.entries = more && node instanceof NodeMap ? ( (NodeMap) node ).entrySet().iterator() : null;
+            this.list = more && node instanceof NodeList ? (NodeList) node : null;
+            this.nextIndex = 0;
+        }
+
+        void leave() {
+            node = null;
+            entries = null;
+            list = null;
+        }
+    }
+
+    /**
+     * Implements the Selection.
+     */
+    private static final class SelectionImpl implements PathPattern.Selection {
+
+        private final Path                    path;
+        private final Node                    node;
+        private final PathPattern.MatchResult matchResult;
+
+        SelectionImpl( Path path, Node node, PathPattern.MatchResult matchResult ) {
+            this.path = path;
+            this.node = node;
+            this.matchResult = matchResult;
+        }
+
+        @Override
+        public Path getPath() {
+            return path;
+        }
+
+        @Override
+        public Node getNode() {
+            return node;
+        }
+
+        @Override
+        public boolean matched() {
+            return true;
+        }
+
+        @Override
+        public int partCount() {
+            return matchResult.partCount();
+        }
+
+        @Override
+        public Path getPart( int idx ) {
+            return matchResult.getPart( idx );
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
+    }
+
+}
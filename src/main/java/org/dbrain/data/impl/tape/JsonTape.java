@@ -0,0 +1,425 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.tape;
+
+import org.dbrain.data.impl.value.LazyNumberValueImpl;
+import org.dbrain.data.impl.value.LongValueImpl;
+import org.dbrain.data.impl.value.NullValueImpl;
+import org.dbrain.data.jackson.KeyTable;
+import org.dbrain.data.jackson.NumberPolicy;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Structural tape of a JSON document, used to decode Values on demand.
+ *
+ * A single pass validates the document and records one entry per value and per map key: its type, its offset in the
+ * buffer and its length. Entries follow the document order. A container entry holds its number of children and the
+ * index of the entry that follows its last child, so a whole subtree can be skipped in one step. Map children are a
+ * key entry followed by the value entries.
+ *
+ * The nodes returned by root() keep a reference to the tape and its buffer until they are fully decoded. The
+ * document must be strict JSON, the extensions that can be enabled on Jackson parsers are not supported.
+ */
+public final class JsonTape {
+
+    static final byte NULL    = 0;
+    static final byte TRUE    = 1;
+    static final byte FALSE   = 2;
+    static final byte INT     = 3;
+    static final byte FLOAT   = 4;
+    static final byte STRING  = 5;
+    static final byte ESCAPED = 6;
+    static final byte MAP     = 7;
+    static final byte LIST    = 8;
+
+    private final char[]       buffer;
+    private final int          limit;
+    private final KeyTable     keys;
+    private final NumberPolicy numbers;
+
+    private byte[] tags;
+    private int[]  offsets;
+    // Length of scalars, number of children of containers.
+    private int[]  lengths;
+    // Index of the entry following a container.
+    private int[]  nexts;
+    private int    size;
+
+    private JsonTape( char[] buffer, int limit, KeyTable keys, NumberPolicy numbers ) {
+        this.buffer = buffer;
+        this.limit = limit;
+        this.keys = keys;
+        this.numbers = numbers != null ? numbers : NumberPolicy.FAST;
+        int capacity = Math.max( 16, limit / 8 );
+        this.tags = new byte[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.nexts = new int[capacity];
+    }
+
+    /**
+     * Scan the first chars of the buffer. The buffer is kept by the tape and must not be modified afterward.
+     *
+     * @param keys    Table used to canonicalize map keys, or null.
+     * @param numbers How to decode numbers, null for the default.
+     * @return The tape of the document.
+     */
+    public static JsonTape parse( char[] buffer, int length, KeyTable keys, NumberPolicy numbers ) {
+        JsonTape tape = new JsonTape( buffer, length, keys, numbers );
+        int pos = tape.scanValue( tape.skipWhitespace( 0 ) );
+        pos = tape.skipWhitespace( pos );
+        if ( pos < length ) {
+            throw tape.error( "Unexpected character after the document", pos );
+        }
+        return tape;
+    }
+
+    /**
+     * @return The number of entries of the tape.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The root node of the document.
+     */
+    public Node root() {
+        return node( 0 );
+    }
+
+    private ParseException error( String message, int pos ) {
+        return new ParseException( message + " at offset " + pos + "." );
+    }
+
+    private int add( byte tag, int offset, int length ) {
+        if ( size == tags.length ) {
+            int capacity = size * 2;
+            tags = Arrays.copyOf( tags, capacity );
+            offsets = Arrays.copyOf( offsets, capacity );
+            lengths = Arrays.copyOf( lengths, capacity );
+            nexts = Arrays.copyOf( nexts, capacity );
+        }
+        tags[size] = tag;
+        offsets[size] = offset;
+        lengths[size] = length;
+        return size++;
+    }
+
+    private int skipWhitespace( int pos ) {
+        while ( pos < limit ) {
+            char c = buffer[pos];
+            if ( c != ' ' && c != '\n' && c != '\r' && c != '\t' ) {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private int expect( int pos, char c ) {
+        if ( pos >= limit || buffer[pos] != c ) {
+            throw error( "Expected '" + c + "'", pos );
+        }
+        return pos + 1;
+    }
+
+    private int scanValue( int pos ) {
+        if ( pos >= limit ) {
+            throw error( "Unexpected end of input", pos );
+        }
+        switch ( buffer[pos] ) {
+            case '{':
+                return scanMap( pos );
+            case '[':
+                return scanList( pos );
+            case '"':
+                return scanString( pos );
+            case 't':
+                return scanLiteral( pos, "true", TRUE );
+            case 'f':
+                return scanLiteral( pos, "false", FALSE );
+            case 'n':
+                return scanLiteral( pos, "null", NULL );
+            default:
+                return scanNumber( pos );
+        }
+    }
+
+    private int scanMap( int pos ) {
+        int index = add( MAP, pos, 0 );
+        int count = 0;
+        pos = skipWhitespace( pos + 1 );
+        if ( pos < limit && buffer[pos] == '}' ) {
+            pos++;
+        } else {
+            while ( true ) {
+                if ( pos >= limit || buffer[pos] != '"' ) {
+                    throw error( "Expected field name", pos );
+                }
+                pos = skipWhitespace( scanString( pos ) );
+                pos = skipWhitespace( expect( pos, ':' ) );
+                pos = skipWhitespace( scanValue( pos ) );
+                count++;
+                if ( pos < limit && buffer[pos] == ',' ) {
+                    pos = skipWhitespace( pos + 1 );
+                } else {
+                    pos = expect( pos, '}' );
+                    break;
+                }
+            }
+        }
+        lengths[index] = count;
+        nexts[index] = size;
+        return pos;
+    }
+
+    private int scanList( int pos ) {
+        int index = add( LIST, pos, 0 );
+        int count = 0;
+        pos = skipWhitespace( pos + 1 );
+        if ( pos < limit && buffer[pos] == ']' ) {
+            pos++;
+        } else {
+            while ( true ) {
+                pos = skipWhitespace( scanValue( pos ) );
+                count++;
+                if ( pos < limit && buffer[pos] == ',' ) {
+                    pos = skipWhitespace( pos + 1 );
+                } else {
+                    pos = expect( pos, ']' );
+                    break;
+                }
+            }
+        }
+        lengths[index] = count;
+        nexts[index] = size;
+        return pos;
+    }
+
+    private int scanString( int pos ) {
+        int start = pos + 1;
+        boolean escaped = false;
+        int i = start;
+        while ( true ) {
+            if ( i >= limit ) {
+                throw error( "Unterminated string", pos );
+            }
+            char c = buffer[i];
+            if ( c == '"' ) {
+                break;
+            } else if ( c == '\\' ) {
+                escaped = true;
+                i++;
+                char e = i < limit ? buffer[i] : 0;
+                if ( e == 'u' ) {
+                    for ( int j = 1; j <= 4; j++ ) {
+                        if ( i + j >= limit || Character.digit( buffer[i + j], 16 ) < 0 ) {
+                            throw error( "Invalid unicode escape", i );
+                        }
+                    }
+                    i += 4;
+                } else if ( "\"\\/bfnrt".indexOf( e ) < 0 || e == 0 ) {
+                    throw error( "Invalid escape", i );
+                }
+            } else if ( c < 0x20 ) {
+                throw error( "Control character in string", i );
+            }
+            i++;
+        }
+        add( escaped ? ESCAPED : STRING, start, i - start );
+        return i + 1;
+    }
+
+    private int scanLiteral( int pos, String literal, byte tag ) {
+        if ( pos + literal.length() > limit ) {
+            throw error( "Unexpected end of input", pos );
+        }
+        for ( int i = 0; i < literal.length(); i++ ) {
+            if ( buffer[pos + i] != literal.charAt( i ) ) {
+                throw error( "Unexpected character", pos + i );
+            }
+        }
+        add( tag, pos, literal.length() );
+        return pos + literal.length();
+    }
+
+    private int digits( int pos ) {
+        int start = pos;
+        while ( pos < limit && buffer[pos] >= '0' && buffer[pos] <= '9' ) {
+            pos++;
+        }
+        if ( pos == start ) {
+            throw error( pos < limit ? "Unexpected character" : "Unexpected end of input", pos );
+        }
+        return pos;
+    }
+
+    private int scanNumber( int pos ) {
+        int start = pos;
+        boolean integral = true;
+        if ( buffer[pos] == '-' ) {
+            pos++;
+        }
+        if ( pos < limit && buffer[pos] == '0' ) {
+            pos++;
+        } else {
+            pos = digits( pos );
+        }
+        if ( pos < limit && buffer[pos] == '.' ) {
+            integral = false;
+            pos = digits( pos + 1 );
+        }
+        if ( pos < limit && ( buffer[pos] == 'e' || buffer[pos] == 'E' ) ) {
+            integral = false;
+            pos++;
+            if ( pos < limit && ( buffer[pos] == '+' || buffer[pos] == '-' ) ) {
+                pos++;
+            }
+            pos = digits( pos );
+        }
+        add( integral ? INT : FLOAT, start, pos - start );
+        return pos;
+    }
+
+    byte tag( int index ) {
+        return tags[index];
+    }
+
+    /**
+     * @return The number of children of the container.
+     */
+    int count( int index ) {
+        return lengths[index];
+    }
+
+    /**
+     * @return The index of the entry following the value, skipping the children of containers.
+     */
+    int next( int index ) {
+        return tags[index] >= MAP ? nexts[index] : index + 1;
+    }
+
+    /**
+     * Decode the entry. Containers are returned as lazy nodes.
+     */
+    Node node( int index ) {
+        switch ( tags[index] ) {
+            case NULL:
+                return NullValueImpl.NULL;
+            case TRUE:
+                return Node.of( Boolean.TRUE );
+            case FALSE:
+                return Node.of( Boolean.FALSE );
+            case INT:
+            case FLOAT:
+                return number( index );
+            case STRING:
+            case ESCAPED:
+                return Node.of( string( index ) );
+            case MAP:
+                return new TapeMapValueImpl( this, index );
+            default:
+                return new TapeListValueImpl( this, index );
+        }
+    }
+
+    /**
+     * Decode a key entry.
+     */
+    String key( int index ) {
+        if ( keys == null ) {
+            return string( index );
+        } else if ( tags[index] == STRING ) {
+            return keys.canonicalize( buffer, offsets[index], lengths[index] );
+        } else {
+            return keys.canonicalize( string( index ) );
+        }
+    }
+
+    private String string( int index ) {
+        int offset = offsets[index];
+        int length = lengths[index];
+        if ( tags[index] == STRING ) {
+            return new String( buffer, offset, length );
+        }
+        StringBuilder sb = new StringBuilder( length );
+        for ( int i = offset; i < offset + length; i++ ) {
+            char c = buffer[i];
+            if ( c != '\\' ) {
+                sb.append( c );
+                continue;
+            }
+            c = buffer[++i];
+            switch ( c ) {
+                case 'b':
+                    sb.append( '\b' );
+                    break;
+                case 'f':
+                    sb.append( '\f' );
+                    break;
+                case 'n':
+                    sb.append( '\n' );
+                    break;
+                case 'r':
+                    sb.append( '\r' );
+                    break;
+                case 't':
+                    sb.append( '\t' );
+                    break;
+                case 'u':
+                    sb.append( (char) Integer.parseInt( new String( buffer, i + 1, 4 ), 16 ) );
+                    i += 4;
+                    break;
+                default:
+                    sb.append( c );
+            }
+        }
+        return sb.toString();
+    }
+
+    private Node number( int index ) {
+        int offset = offsets[index];
+        int length = lengths[index];
+        boolean integral = tags[index] == INT;
+        if ( integral && length <= 18 && numbers != NumberPolicy.LAZY ) {
+            // Fits in a long, parse the digits in place.
+            boolean negative = buffer[offset] == '-';
+            long value = 0;
+            for ( int i = negative ? offset + 1 : offset; i < offset + length; i++ ) {
+                value = value * 10 + ( buffer[i] - '0' );
+            }
+            return new LongValueImpl( negative ? -value : value );
+        }
+        String literal = new String( buffer, offset, length );
+        if ( numbers == NumberPolicy.LAZY ) {
+            return new LazyNumberValueImpl( literal, integral );
+        } else if ( integral ) {
+            return Node.of( new BigInteger( literal ) );
+        } else if ( numbers == NumberPolicy.EXACT ) {
+            return Node.of( new BigDecimal( literal ) );
+        } else {
+            return Node.of( Double.parseDouble( literal ) );
+        }
+    }
+
+}
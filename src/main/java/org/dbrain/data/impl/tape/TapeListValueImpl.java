@@ -0,0 +1,156 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.tape;
+
+import org.dbrain.data.impl.value.AbstractListValueImpl;
+import org.dbrain.data.tree.Node;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Implementation of the Value.List decoded on demand from a JSON tape.
+ *
+ * The position of the elements is found on first access, each element is decoded when first read and kept. The first
+ * modification decodes the remaining elements into a private ArrayList, which is used from then on.
+ *
+ * Until it is modified, the list and each map or list decoded from it keep the whole tape and the char array of the
+ * document alive. freeze() copies the list into persistent nodes that do not refer to the tape.
+ *
+ * As the other lists, the list can be read from many threads: the element positions are published at once through a
+ * volatile holder, and an element decoded concurrently is kept only once.
+ */
+public final class TapeListValueImpl extends AbstractListValueImpl {
+
+    private JsonTape tape;
+    private int      index;
+
+    private static final AtomicReferenceFieldUpdater<TapeListValueImpl, Elements> ELEMENTS =
+            AtomicReferenceFieldUpdater.newUpdater( TapeListValueImpl.class, Elements.class, "elements" );
+
+    // Elements located in the tape, null until first accessed.
+    private volatile Elements elements;
+
+    private ArrayList<Node> delegate;
+
+    TapeListValueImpl( JsonTape tape, int index ) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    /**
+     * Tape index of each element, and the elements decoded so far. Immutable but for the decoded elements.
+     */
+    private static final class Elements {
+
+        final int[]                      positions;
+        final AtomicReferenceArray<Node> decoded;
+
+        Elements( JsonTape tape, int index ) {
+            int count = tape.count( index );
+            int[] result = new int[count];
+            int next = index + 1;
+            for ( int i = 0; i < count; i++ ) {
+                result[i] = next;
+                next = tape.next( next );
+            }
+            this.positions = result;
+            this.decoded = new AtomicReferenceArray<>( count );
+        }
+
+        Node decode( JsonTape tape, int i ) {
+            Node result = decoded.get( i );
+            if ( result == null ) {
+                result = tape.node( positions[i] );
+                if ( !decoded.compareAndSet( i, null, result ) ) {
+                    result = decoded.get( i );
+                }
+            }
+            return result;
+        }
+    }
+
+    private Elements locate() {
+        Elements result = elements;
+        if ( result == null ) {
+            result = new Elements( tape, index );
+            if ( !ELEMENTS.compareAndSet( this, null, result ) ) {
+                result = elements;
+            }
+        }
+        return result;
+    }
+
+    // Switch to the private list, the tape is released.
+    private ArrayList<Node> materialize() {
+        if ( delegate == null ) {
+            int size = size();
+            ArrayList<Node> result = new ArrayList<>( size );
+            for ( int i = 0; i < size; i++ ) {
+                result.add( get( i ) );
+            }
+            delegate = result;
+            tape = null;
+            elements = null;
+        }
+        return delegate;
+    }
+
+    /**
+     * @return true if the list has been modified, and no longer refers to the tape.
+     */
+    public boolean isMaterialized() {
+        return delegate != null;
+    }
+
+    @Override
+    public Node get( int i ) {
+        if ( delegate != null ) {
+            return delegate.get( i );
+        }
+        Elements e = locate();
+        if ( i < 0 || i >= e.positions.length ) {
+            throw new IndexOutOfBoundsException( "Index: " + i + ", Size: " + e.positions.length );
+        }
+        return e.decode( tape, i );
+    }
+
+    @Override
+    public int size() {
+        return delegate != null ? delegate.size() : tape.count( index );
+    }
+
+    @Override
+    public Node set( int i, Node element ) {
+        return materialize().set( i, Node.of( element ) );
+    }
+
+    @Override
+    public void add( int i, Node element ) {
+        materialize().add( i, Node.of( element ) );
+        modCount++;
+    }
+
+    @Override
+    public Node remove( int i ) {
+        Node result = materialize().remove( i );
+        modCount++;
+        return result;
+    }
+
+}
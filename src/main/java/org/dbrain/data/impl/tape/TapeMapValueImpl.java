@@ -0,0 +1,279 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.tape;
+
+import org.dbrain.data.impl.value.AbstractMapValueImpl;
+import org.dbrain.data.impl.value.CompactMapValueImpl;
+import org.dbrain.data.tree.Node;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiConsumer;
+
+/**
+ * Implementation of the Value.Map decoded on demand from a JSON tape.
+ *
+ * The keys are decoded on first access, each value when first read and kept. The first modification decodes the
+ * remaining values into a private compact map, which is used from then on. A key present twice in the document keeps
+ * its first position and its last value, as with the other readers.
+ *
+ * Until it is modified, the map and each map or list decoded from it keep the whole tape and the char array of the
+ * document alive. freeze() copies the map into persistent nodes that do not refer to the tape.
+ *
+ * As the other maps, the map can be read from many threads: the decoded keys are published at once through a volatile
+ * holder, and a value decoded concurrently is kept only once.
+ */
+public final class TapeMapValueImpl extends AbstractMapValueImpl {
+
+    // Maps larger than this use a hash index to find the keys.
+    private static final int LINEAR_SEARCH_LIMIT = 8;
+
+    private JsonTape tape;
+    private int      index;
+
+    private static final AtomicReferenceFieldUpdater<TapeMapValueImpl, Slots> SLOTS =
+            AtomicReferenceFieldUpdater.newUpdater( TapeMapValueImpl.class, Slots.class, "slots" );
+
+    // Keys and values located in the tape, null until first accessed.
+    private volatile Slots slots;
+
+    private CompactMapValueImpl delegate;
+
+    TapeMapValueImpl( JsonTape tape, int index ) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    /**
+     * Keys, tape index of values, and the values decoded so far. Immutable but for the decoded values.
+     */
+    private static final class Slots {
+
+        final String[]                   keys;
+        final int[]                      values;
+        final AtomicReferenceArray<Node> decoded;
+        final HashMap<String, Integer>   lookup;
+
+        Slots( JsonTape tape, int index ) {
+            int count = tape.count( index );
+            String[] k = new String[count];
+            int[] v = new int[count];
+            HashMap<String, Integer> l = count > LINEAR_SEARCH_LIMIT ? new HashMap<>( count * 2 ) : null;
+            int size = 0;
+            int next = index + 1;
+            for ( int i = 0; i < count; i++ ) {
+                String key = tape.key( next );
+                int slot = l != null ? l.getOrDefault( key, -1 ) : slotOf( k, size, key );
+                if ( slot < 0 ) {
+                    slot = size++;
+                    k[slot] = key;
+                    if ( l != null ) {
+                        l.put( key, slot );
+                    }
+                }
+                v[slot] = next + 1;
+                next = tape.next( next + 1 );
+            }
+            this.keys = size == count ? k : Arrays.copyOf( k, size );
+            this.values = size == count ? v : Arrays.copyOf( v, size );
+            this.decoded = new AtomicReferenceArray<>( size );
+            this.lookup = l;
+        }
+
+        private static int slotOf( String[] keys, int size, Object key ) {
+            for ( int i = 0; i < size; i++ ) {
+                if ( keys[i].equals( key ) ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int slotOf( Object key ) {
+            if ( lookup != null ) {
+                Integer slot = lookup.get( key );
+                return slot != null ? slot : -1;
+            }
+            return slotOf( keys, keys.length, key );
+        }
+
+        Node decode( JsonTape tape, int slot ) {
+            Node result = decoded.get( slot );
+            if ( result == null ) {
+                result = tape.node( values[slot] );
+                if ( !decoded.compareAndSet( slot, null, result ) ) {
+                    result = decoded.get( slot );
+                }
+            }
+            return result;
+        }
+    }
+
+    private Slots locate() {
+        Slots result = slots;
+        if ( result == null && delegate == null ) {
+            result = new Slots( tape, index );
+            if ( !SLOTS.compareAndSet( this, null, result ) ) {
+                result = slots;
+            }
+        }
+        return result;
+    }
+
+    // Switch to the private map, the tape is released.
+    private CompactMapValueImpl materialize() {
+        Slots s = locate();
+        if ( delegate == null ) {
+            CompactMapValueImpl result = new CompactMapValueImpl();
+            for ( int slot = 0; slot < s.keys.length; slot++ ) {
+                result.put( s.keys[slot], s.decode( tape, slot ) );
+            }
+            result.trimToSize();
+            delegate = result;
+            tape = null;
+            slots = null;
+        }
+        return delegate;
+    }
+
+    /**
+     * @return true if the map has been modified, and no longer refers to the tape.
+     */
+    public boolean isMaterialized() {
+        return delegate != null;
+    }
+
+    @Override
+    protected Node find( Object key ) {
+        Slots s = locate();
+        if ( s == null ) {
+            return delegate.containsKey( key ) ? delegate.get( key ) : null;
+        }
+        int slot = key instanceof String ? s.slotOf( key ) : -1;
+        return slot >= 0 ? s.decode( tape, slot ) : null;
+    }
+
+    @Override
+    public int size() {
+        Slots s = locate();
+        return s != null ? s.keys.length : delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Node put( String key, Node node ) {
+        return materialize().put( key, node );
+    }
+
+    @Override
+    public Node remove( Object key ) {
+        return materialize().remove( key );
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    @Override
+    public void forEach( BiConsumer<? super String, ? super Node> action ) {
+        Slots s = locate();
+        if ( s == null ) {
+            delegate.forEach( action );
+        } else {
+            for ( int slot = 0; slot < s.keys.length; slot++ ) {
+                action.accept( s.keys[slot], s.decode( tape, slot ) );
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Node>> entrySet() {
+        return new AbstractSet<Entry<String, Node>>() {
+
+            @Override
+            public Iterator<Entry<String, Node>> iterator() {
+                Slots s = locate();
+                return s != null ? new SlotIterator( s ) : delegate.entrySet().iterator();
+            }
+
+            @Override
+            public int size() {
+                return TapeMapValueImpl.this.size();
+            }
+        };
+    }
+
+    /**
+     * Iterate over the slots of the tape. Removal switches the map to its private table.
+     */
+    private final class SlotIterator implements Iterator<Entry<String, Node>> {
+
+        private final Slots    s;
+        private final String[] k;
+        private final JsonTape t = tape;
+        private int next    = 0;
+        private int current = -1;
+
+        SlotIterator( Slots s ) {
+            this.s = s;
+            this.k = s.keys;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < k.length;
+        }
+
+        @Override
+        public Entry<String, Node> next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            String key = k[current];
+            return new SimpleEntry<String, Node>( key, delegate != null ? delegate.get( key ) : s.decode( t, current ) ) {
+
+                @Override
+                public Node setValue( Node value ) {
+                    super.setValue( Node.of( value ) );
+                    return put( getKey(), value );
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if ( current < 0 ) {
+                throw new IllegalStateException();
+            }
+            TapeMapValueImpl.this.remove( k[current] );
+            current = -1;
+        }
+    }
+
+}
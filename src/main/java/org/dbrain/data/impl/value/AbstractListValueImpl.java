@@ -0,0 +1,114 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.DataCoercionException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+
+import java.util.AbstractList;
+import java.util.stream.Collectors;
+
+/**
+ * Base class of the NodeList implementations. Implements the Node side of the list, the storage is left to subclasses.
+ */
+public abstract class AbstractListValueImpl extends AbstractList<Node> implements NodeList {
+
+    // Cached hash code, 0 if not computed.
+    private int hash;
+
+    /**
+     * @return true if the hash code can be cached. Frozen lists are cached, subclasses may allow more.
+     */
+    protected boolean isHashCacheable() {
+        return isFrozen();
+    }
+
+    /**
+     * Forget the cached hash code, called by mutable subclasses when they change.
+     */
+    protected void invalidateHash() {
+        hash = 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if ( h == 0 ) {
+            h = super.hashCode();
+            if ( isHashCacheable() ) {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Compare the cached hash codes, if both are known, before comparing the content.
+     */
+    @Override
+    public boolean equals( Object o ) {
+        if ( o == this ) {
+            return true;
+        }
+        if ( o instanceof AbstractListValueImpl ) {
+            int h1 = hash;
+            int h2 = ( (AbstractListValueImpl) o ).hash;
+            if ( h1 != 0 && h2 != 0 && h1 != h2 ) {
+                return false;
+            }
+        }
+        return super.equals( o );
+    }
+
+    @Override
+    public Object getObject() {
+        return stream().map( a -> a.getObject() ).collect( Collectors.toList() );
+    }
+
+    @Override
+    public Object getObject( int fieldIndex ) {
+        return get( fieldIndex ).getObject();
+    }
+
+    @Override
+    public Boolean getBoolean() {
+        throw new DataCoercionException( "Cannot cast list to boolean." );
+    }
+
+    @Override
+    public String getString() {
+        throw new DataCoercionException( "Cannot cast list to string." );
+    }
+
+    @Override
+    public NodeMap getMap() {
+        throw new DataCoercionException( "Cannot convert list to map." );
+    }
+
+    @Override
+    public NodeList getList() {
+        return this;
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.DataCoercionException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Base class of the NodeMap implementations. Implements the Node side of the map, the storage is left to subclasses.
+ */
+public abstract class AbstractMapValueImpl extends AbstractMap<String, Node> implements NodeMap {
+
+    // Cached hash code, 0 if not computed.
+    private int hash;
+
+    /**
+     * @return true if the hash code can be cached. Frozen maps are cached, subclasses may allow more.
+     */
+    protected boolean isHashCacheable() {
+        return isFrozen();
+    }
+
+    /**
+     * Forget the cached hash code, called by mutable subclasses when they change.
+     */
+    protected void invalidateHash() {
+        hash = 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if ( h == 0 ) {
+            h = super.hashCode();
+            if ( isHashCacheable() ) {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Compare the cached hash codes, if both are known, before comparing the content.
+     */
+    @Override
+    public boolean equals( Object o ) {
+        if ( o == this ) {
+            return true;
+        }
+        if ( o instanceof AbstractMapValueImpl ) {
+            int h1 = hash;
+            int h2 = ( (AbstractMapValueImpl) o ).hash;
+            if ( h1 != 0 && h2 != 0 && h1 != h2 ) {
+                return false;
+            }
+        }
+        return super.equals( o );
+    }
+
+    @Override
+    public Object getObject() {
+        java.util.Map<String, Object> result = new HashMap<>( size() );
+        forEach( ( s, value ) -> result.put( s, value.getObject() ) );
+        return result;
+    }
+
+    @Override
+    public Object getObject( String fieldName ) {
+        return get( fieldName ).getObject();
+    }
+
+    @Override
+    public Boolean getBoolean() {
+        throw new DataCoercionException( "Cannot cast map to boolean." );
+    }
+
+    @Override
+    public Byte getByte() {
+        throw new DataCoercionException( "Cannot cast map to byte." );
+    }
+
+    @Override
+    public Short getShort() {
+        throw new DataCoercionException( "Cannot cast map to short." );
+    }
+
+    @Override
+    public Integer getInt() {
+        throw new DataCoercionException( "Cannot cast map to integer." );
+    }
+
+    @Override
+    public Long getLong() {
+        throw new DataCoercionException( "Cannot cast map to long." );
+    }
+
+    @Override
+    public Float getFloat() {
+        throw new DataCoercionException( "Cannot cast map to float." );
+    }
+
+    @Override
+    public Double getDouble() {
+        throw new DataCoercionException( "Cannot cast map to double." );
+    }
+
+    @Override
+    public String getString() {
+        throw new DataCoercionException( "Cannot cast map to string." );
+    }
+
+    @Override
+    public NodeMap getMap() {
+        return this;
+    }
+
+    @Override
+    public NodeList getList() {
+        throw new DataCoercionException( "Cannot cast map to list." );
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    /**
+     * @return The value of the key, or null if the key is not in the map.
+     */
+    protected abstract Node find( Object key );
+
+    /**
+     * @return The value of the key, or a null value if the key is not in the map.
+     */
+    @Override
+    public Node get( Object key ) {
+        return Node.of( find( key ) );
+    }
+
+    @Override
+    public boolean containsKey( Object key ) {
+        return find( key ) != null;
+    }
+
+    @Override
+    public void putAll( java.util.Map<? extends String, ? extends Node> m ) {
+        for ( NodeMap.Entry<? extends String, ? extends Node> e : m.entrySet() ) {
+            put( e.getKey(), e.getValue() );
+        }
+    }
+
+    @Override
+    public boolean containsValue( Object value ) {
+        return super.containsValue( Node.of( value ) );
+    }
+
+    @Override
+    public Node getOrDefault( Object key, Node defaultNode ) {
+        Node result = get( key );
+        return result.isNull() ? Node.of( defaultNode ) : result;
+    }
+
+    @Override
+    public Node putIfAbsent( String key, Node node ) {
+        if ( !containsKey( key ) ) {
+            return put( key, Node.of( node ) );
+        } else {
+            return get( key );
+        }
+    }
+
+    @Override
+    public boolean remove( Object key, Object value ) {
+        Node current = find( key );
+        if ( current != null && current.equals( Node.of( value ) ) ) {
+            remove( key );
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean replace( String key, Node oldNode, Node newNode ) {
+        Node current = find( key );
+        if ( current != null && current.equals( Node.of( oldNode ) ) ) {
+            put( key, newNode );
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Node replace( String key, Node node ) {
+        return find( key ) != null ? put( key, node ) : null;
+    }
+
+    @Override
+    public Node computeIfAbsent( String key, Function<? super String, ? extends Node> mappingFunction ) {
+        Node current = find( key );
+        if ( current == null ) {
+            Node result = mappingFunction.apply( key );
+            if ( result != null ) {
+                put( key, result );
+            }
+            return result;
+        }
+        return current;
+    }
+
+    @Override
+    public Node computeIfPresent( String key,
+                                  BiFunction<? super String, ? super Node, ? extends Node> remappingFunction ) {
+        Node current = find( key );
+        if ( current != null ) {
+            Node result = remappingFunction.apply( key, current );
+            if ( result != null ) {
+                put( key, result );
+            } else {
+                remove( key );
+            }
+            return result;
+        }
+        return null;
+    }
+
+    @Override
+    public Node compute( String key, BiFunction<? super String, ? super Node, ? extends Node> remappingFunction ) {
+        Node current = find( key );
+        Node result = remappingFunction.apply( key, current );
+        if ( result != null ) {
+            put( key, result );
+        } else if ( current != null ) {
+            remove( key );
+        }
+        return result;
+    }
+
+    @Override
+    public Node merge( String key, Node node, BiFunction<? super Node, ? super Node, ? extends Node> remappingFunction ) {
+        Objects.requireNonNull( node );
+        Node current = find( key );
+        Node result = current != null ? remappingFunction.apply( current, node ) : node;
+        if ( result != null ) {
+            put( key, result );
+        } else {
+            remove( key );
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright [2014] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.DataCoercionException;
+import org.dbrain.data.tree.Node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Base class of the number values.
+ *
+ * Whatever the backing representation, two numbers are equal if their BigDecimal values compare to 0. The hash code
+ * is computed from the long value when the number is an integer fitting in a long, and from the double value
+ * otherwise, so every implementation hash the same number the same way.
+ */
+public abstract class AbstractNumberValueImpl implements Node {
+
+    private static final BigDecimal MIN_LONG = BigDecimal.valueOf( Long.MIN_VALUE );
+    private static final BigDecimal MAX_LONG = BigDecimal.valueOf( Long.MAX_VALUE );
+
+    /**
+     * @return The value as a BigDecimal.
+     */
+    public abstract BigDecimal getBigDecimal();
+
+    /**
+     * @return true if the value is an integer that fits in a long.
+     */
+    abstract boolean isExactLong();
+
+    /**
+     * @return The value as a long. Only meaningful if isExactLong() is true.
+     */
+    abstract long exactLongValue();
+
+    /**
+     * @return The nearest double of the value.
+     */
+    abstract double doubleValue();
+
+    /**
+     * @return true if the value is entirely defined by doubleValue().
+     */
+    boolean isExactDouble() {
+        return false;
+    }
+
+    /**
+     * @return true if the BigDecimal is an integer that fits in a long.
+     */
+    static boolean isExactLong( BigDecimal value ) {
+        if ( value.signum() == 0 ) {
+            return true;
+        }
+        BigDecimal integral = value.scale() > 0 ? value.stripTrailingZeros() : value;
+        return integral.scale() <= 0 && integral.compareTo( MIN_LONG ) >= 0 && integral.compareTo( MAX_LONG ) <= 0;
+    }
+
+    /**
+     * @return true if the BigInteger fits in a long.
+     */
+    static boolean isExactLong( BigInteger value ) {
+        return value.bitLength() < 64;
+    }
+
+    @Override
+    public Object getObject() {
+        return getBigDecimal();
+    }
+
+    @Override
+    public MapValueImpl getMap() {
+        throw new DataCoercionException( "Cannot cast number to Map." );
+    }
+
+    @Override
+    public ListValueImpl getList() {
+        throw new DataCoercionException( "Cannot cast number to List." );
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) return true;
+        if ( !( o instanceof AbstractNumberValueImpl ) ) return false;
+
+        AbstractNumberValueImpl that = (AbstractNumberValueImpl) o;
+        boolean exactLong = isExactLong();
+        if ( exactLong != that.isExactLong() ) return false;
+        if ( exactLong ) return exactLongValue() == that.exactLongValue();
+
+        // Equal numbers always have the same nearest double.
+        if ( doubleValue() != that.doubleValue() ) return false;
+        if ( isExactDouble() && that.isExactDouble() ) return true;
+
+        return getBigDecimal().compareTo( that.getBigDecimal() ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return isExactLong() ? Long.hashCode( exactLongValue() ) : Double.hashCode( doubleValue() );
+    }
+
+    @Override
+    public String toString() {
+        return getString();
+    }
+}
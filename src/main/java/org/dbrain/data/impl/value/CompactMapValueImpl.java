@@ -0,0 +1,310 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.tree.Node;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact implementation of the Value.Map.
+ *
+ * Maps having the same keys share a MapShape holding the key to slot table, each map only holds the values. This
+ * is the common case of records deserialized from an array. Maps that cannot use a shared shape, because they are too
+ * large or their shape has too many live children, switch to a private LinkedHashMap.
+ *
+ * Iteration follows the insertion order of the keys. Removing a key other than the last one also switches to the
+ * private table, rather than registering new shapes.
+ */
+public final class CompactMapValueImpl extends AbstractMapValueImpl {
+
+    private static final Node[] NO_VALUES = new Node[0];
+
+    private MapShape shape = MapShape.EMPTY;
+
+    private Node[] values = NO_VALUES;
+
+    // Private table, used once the map does not fit a shared shape.
+    private LinkedHashMap<String, Node> table;
+
+    public CompactMapValueImpl() {
+    }
+
+    // Move the content to a private table.
+    private void toTable() {
+        int size = shape.size();
+        table = new LinkedHashMap<>( size * 2 );
+        for ( int slot = 0; slot < size; slot++ ) {
+            table.put( shape.key( slot ), values[slot] );
+        }
+        shape = MapShape.EMPTY;
+        values = NO_VALUES;
+    }
+
+    /**
+     * Release the unused value slots. Called once a map is fully built.
+     */
+    public void trimToSize() {
+        if ( table == null && values.length != shape.size() ) {
+            values = shape.size() > 0 ? Arrays.copyOf( values, shape.size() ) : NO_VALUES;
+        }
+    }
+
+    @Override
+    protected Node find( Object key ) {
+        if ( table != null ) {
+            return table.get( key );
+        }
+        int slot = shape.slotOf( key );
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    @Override
+    public int size() {
+        return table != null ? table.size() : shape.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * The hash code is cached while all the values are frozen, since then only this map can change.
+     */
+    @Override
+    protected boolean isHashCacheable() {
+        if ( table != null ) {
+            for ( Node value : table.values() ) {
+                if ( !value.isFrozen() ) {
+                    return false;
+                }
+            }
+        } else {
+            for ( int slot = 0; slot < shape.size(); slot++ ) {
+                if ( !values[slot].isFrozen() ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Node put( String key, Node node ) {
+        Objects.requireNonNull( key );
+        Node value = Node.of( node );
+        invalidateHash();
+        if ( table != null ) {
+            return table.put( key, value );
+        }
+        int slot = shape.slotOf( key );
+        if ( slot >= 0 ) {
+            Node old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+        MapShape next = shape.with( key );
+        if ( next == null ) {
+            toTable();
+            return table.put( key, value );
+        }
+        slot = shape.size();
+        if ( slot == values.length ) {
+            values = Arrays.copyOf( values, Math.max( 4, slot * 2 ) );
+        }
+        values[slot] = value;
+        shape = next;
+        return null;
+    }
+
+    @Override
+    public Node remove( Object key ) {
+        invalidateHash();
+        if ( table != null ) {
+            return table.remove( key );
+        }
+        int slot = shape.slotOf( key );
+        if ( slot < 0 ) {
+            return null;
+        } else if ( slot == shape.size() - 1 ) {
+            Node old = values[slot];
+            values[slot] = null;
+            shape = shape.parent();
+            return old;
+        } else {
+            toTable();
+            return table.remove( key );
+        }
+    }
+
+    @Override
+    public void clear() {
+        invalidateHash();
+        shape = MapShape.EMPTY;
+        values = NO_VALUES;
+        table = null;
+    }
+
+    @Override
+    public void forEach( BiConsumer<? super String, ? super Node> action ) {
+        if ( table != null ) {
+            table.forEach( action );
+        } else {
+            MapShape s = shape;
+            Node[] v = values;
+            for ( int slot = 0; slot < s.size(); slot++ ) {
+                action.accept( s.key( slot ), v[slot] );
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Node>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Entry set view. Switches between the shape and the private table at each call.
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, Node>> {
+
+        @Override
+        public int size() {
+            return CompactMapValueImpl.this.size();
+        }
+
+        @Override
+        public boolean contains( Object o ) {
+            if ( !( o instanceof Map.Entry ) ) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Node value = find( e.getKey() );
+            return value != null && value.equals( e.getValue() );
+        }
+
+        @Override
+        public boolean remove( Object o ) {
+            if ( contains( o ) ) {
+                CompactMapValueImpl.this.remove( ( (Map.Entry<?, ?>) o ).getKey() );
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            CompactMapValueImpl.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<String, Node>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    /**
+     * Iterate over the slots of the shape, then over the private table once the map switched to it. The table keeps
+     * the insertion order, so the iteration goes on after the entries already visited.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, Node>> {
+
+        // Number of entries visited and not removed.
+        private int     next    = 0;
+        private int     current = -1;
+        private boolean removable;
+
+        private Iterator<Entry<String, Node>> tableIterator;
+
+        private Iterator<Entry<String, Node>> tableIterator() {
+            if ( tableIterator == null && table != null ) {
+                tableIterator = table.entrySet().iterator();
+                for ( int i = 0; i < next && tableIterator.hasNext(); i++ ) {
+                    tableIterator.next();
+                }
+            }
+            return tableIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            Iterator<Entry<String, Node>> t = tableIterator();
+            return t != null ? t.hasNext() : next < shape.size();
+        }
+
+        @Override
+        public Entry<String, Node> next() {
+            Iterator<Entry<String, Node>> t = tableIterator();
+            Entry<String, Node> result;
+            if ( t != null ) {
+                Entry<String, Node> e = t.next();
+                result = new SlotEntry( e.getKey(), e.getValue() );
+            } else if ( next < shape.size() ) {
+                current = next;
+                result = new SlotEntry( shape.key( current ), values[current] );
+            } else {
+                throw new NoSuchElementException();
+            }
+            next++;
+            removable = true;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            if ( !removable ) {
+                throw new IllegalStateException();
+            }
+            removable = false;
+            next--;
+            if ( tableIterator != null ) {
+                invalidateHash();
+                tableIterator.remove();
+            } else {
+                CompactMapValueImpl.this.remove( shape.key( current ) );
+            }
+        }
+    }
+
+    /**
+     * Entry returned by the iterator, writes through the map.
+     */
+    private final class SlotEntry extends SimpleEntry<String, Node> {
+
+        private static final long serialVersionUID = 1L;
+
+        SlotEntry( String key, Node value ) {
+            super( key, value );
+        }
+
+        @Override
+        public Node setValue( Node value ) {
+            super.setValue( Node.of( value ) );
+            return put( getKey(), value );
+        }
+    }
+
+}
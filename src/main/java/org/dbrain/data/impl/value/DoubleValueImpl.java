@@ -0,0 +1,141 @@
+/*
+ * Copyright [2014] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.cast.Bytes;
+import org.dbrain.data.cast.Integers;
+import org.dbrain.data.cast.Longs;
+import org.dbrain.data.cast.Shorts;
+
+import java.math.BigDecimal;
+
+/**
+ * Wrap a finite double value. The BigDecimal is only created when requested.
+ *
+ * The value of the node is the decimal given by Double.toString, as it was when doubles were stored as BigDecimal.
+ * Below 2^53 an integral double and its decimal are the same number, which allows to skip the BigDecimal.
+ */
+public final class DoubleValueImpl extends AbstractNumberValueImpl {
+
+    // Integral doubles below this magnitude are exactly represented as long.
+    private static final double EXACT_INTEGER_LIMIT = 0x1p53;
+
+    private final double value;
+
+    private BigDecimal bigDecimal;
+
+    public DoubleValueImpl( double value ) {
+        if ( !Double.isFinite( value ) ) throw new IllegalArgumentException();
+        this.value = value;
+    }
+
+    // Fast path: the value is an integer and exactly represented as a long.
+    private boolean isSmallInteger() {
+        return Math.abs( value ) < EXACT_INTEGER_LIMIT && value == (long) value;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        BigDecimal result = bigDecimal;
+        if ( result == null ) {
+            result = new BigDecimal( Double.toString( value ) ).stripTrailingZeros();
+            bigDecimal = result;
+        }
+        return result;
+    }
+
+    @Override
+    boolean isExactLong() {
+        if ( Math.abs( value ) < EXACT_INTEGER_LIMIT ) {
+            return value == (long) value;
+        } else {
+            return isExactLong( getBigDecimal() );
+        }
+    }
+
+    @Override
+    long exactLongValue() {
+        return Math.abs( value ) < EXACT_INTEGER_LIMIT ? (long) value : getBigDecimal().longValue();
+    }
+
+    /**
+     * @return The value, unboxed.
+     */
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    boolean isExactDouble() {
+        return true;
+    }
+
+    @Override
+    public Byte getByte() {
+        return isSmallInteger() ? LongValueImpl.toByte( (long) value ) : Bytes.toByte( getBigDecimal() );
+    }
+
+    @Override
+    public Short getShort() {
+        return isSmallInteger() ? LongValueImpl.toShort( (long) value ) : Shorts.toShort( getBigDecimal() );
+    }
+
+    @Override
+    public Integer getInt() {
+        return isSmallInteger() ? LongValueImpl.toInteger( (long) value ) : Integers.toInteger( getBigDecimal() );
+    }
+
+    @Override
+    public Long getLong() {
+        return isSmallInteger() ? (long) value : Longs.toLong( getBigDecimal() );
+    }
+
+    @Override
+    public Float getFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public Double getDouble() {
+        return value;
+    }
+
+    @Override
+    public Boolean getBoolean() {
+        return value != 0;
+    }
+
+    @Override
+    public String getString() {
+        double abs = Math.abs( value );
+        if ( value == 0 ) {
+            return "0";
+        } else if ( isSmallInteger() ) {
+            long longValue = (long) value;
+            // BigDecimal prints integers with trailing zeros in scientific notation.
+            if ( longValue % 10 != 0 ) {
+                return Long.toString( longValue );
+            }
+        } else if ( abs >= 1e-3 && abs < 1e7 ) {
+            // In this range, Double.toString and BigDecimal agree on the plain notation.
+            return Double.toString( value );
+        }
+        return getBigDecimal().toString();
+    }
+
+}
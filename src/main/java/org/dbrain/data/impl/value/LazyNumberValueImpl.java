@@ -0,0 +1,165 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.tree.Node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Number value holding the literal text of a number, parsed on first access.
+ *
+ * Integers are parsed to a long when they fit, other numbers to an exact BigDecimal without trailing zeros, the
+ * same normalization as the other policies, so that 1.50 reads and writes as 1.5. getDouble() and getFloat() of a
+ * decimal are read directly from the text, once, and never build the BigDecimal.
+ */
+public final class LazyNumberValueImpl extends AbstractNumberValueImpl {
+
+    private final String literal;
+
+    private final boolean integral;
+
+    private AbstractNumberValueImpl value;
+
+    // Nearest double of a decimal literal, immutable so concurrent parses are harmless.
+    private Double parsedDouble;
+
+    /**
+     * @param literal  The text of a valid number.
+     * @param integral true if the literal has no fraction nor exponent.
+     */
+    public LazyNumberValueImpl( String literal, boolean integral ) {
+        this.literal = literal;
+        this.integral = integral;
+    }
+
+    /**
+     * @return The literal text of the number, as read.
+     */
+    public String getLiteral() {
+        return literal;
+    }
+
+    /**
+     * @return true if the literal has been parsed.
+     */
+    public boolean isParsed() {
+        return value != null;
+    }
+
+    // Parse the literal, the result is immutable so concurrent parses are harmless.
+    private AbstractNumberValueImpl value() {
+        AbstractNumberValueImpl result = value;
+        if ( result == null ) {
+            if ( integral && literal.length() <= 18 ) {
+                result = new LongValueImpl( Long.parseLong( literal ) );
+            } else if ( integral ) {
+                result = (AbstractNumberValueImpl) Node.of( new BigInteger( literal ) );
+            } else {
+                result = new NumberValueImpl( new BigDecimal( literal ).stripTrailingZeros() );
+            }
+            value = result;
+        }
+        return result;
+    }
+
+    private Double parsedDouble() {
+        Double result = parsedDouble;
+        if ( result == null ) {
+            result = Double.parseDouble( literal );
+            parsedDouble = result;
+        }
+        return result;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        return value().getBigDecimal();
+    }
+
+    @Override
+    boolean isExactLong() {
+        return value().isExactLong();
+    }
+
+    @Override
+    long exactLongValue() {
+        return value().exactLongValue();
+    }
+
+    @Override
+    double doubleValue() {
+        return integral || value != null ? value().doubleValue() : parsedDouble();
+    }
+
+    @Override
+    boolean isExactDouble() {
+        return value().isExactDouble();
+    }
+
+    @Override
+    public Byte getByte() {
+        return value().getByte();
+    }
+
+    @Override
+    public Short getShort() {
+        return value().getShort();
+    }
+
+    @Override
+    public Integer getInt() {
+        return value().getInt();
+    }
+
+    @Override
+    public Long getLong() {
+        return value().getLong();
+    }
+
+    @Override
+    public Float getFloat() {
+        return integral ? value().getFloat() : parsedDouble().floatValue();
+    }
+
+    @Override
+    public Double getDouble() {
+        return integral ? value().getDouble() : parsedDouble();
+    }
+
+    @Override
+    public Boolean getBoolean() {
+        return value().getBoolean();
+    }
+
+    @Override
+    public String getString() {
+        return value().getString();
+    }
+
+    @Override
+    public int hashCode() {
+        return value().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value().toString();
+    }
+
+}
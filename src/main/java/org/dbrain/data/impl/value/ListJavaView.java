@@ -0,0 +1,46 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.tree.Node;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only List view of a NodeList. Elements are unwrapped on access, containers as views themselves.
+ */
+public final class ListJavaView extends AbstractList<Object> implements RandomAccess {
+
+    private final List<Node> list;
+
+    public ListJavaView( List<Node> list ) {
+        this.list = list;
+    }
+
+    @Override
+    public Object get( int index ) {
+        return list.get( index ).asJavaView();
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+}
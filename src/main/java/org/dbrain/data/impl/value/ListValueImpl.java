@@ -16,20 +16,17 @@
 
 package org.dbrain.data.impl.value;
 
-import org.dbrain.data.DataCoercionException;
 import org.dbrain.data.tree.Node;
-import org.dbrain.data.tree.NodeList;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.ListIterator;
-import java.util.stream.Collectors;
 
 /**
  * A list of simple values.
  */
-public class ListValueImpl implements NodeList {
+public class ListValueImpl extends AbstractListValueImpl {
 
     private final java.util.List<Node> delegate;
 
@@ -41,41 +38,11 @@ public class ListValueImpl implements NodeList {
         this( new ArrayList<>() );
     }
 
-    @Override
-    public Object getObject() {
-        return stream().map( a -> a.getObject() ).collect( Collectors.toList() );
-    }
-
-    @Override
-    public Object getObject( int fieldIndex ) {
-        return get( fieldIndex ).getObject();
-    }
-
-    @Override
-    public Boolean getBoolean() {
-        throw new DataCoercionException( "Cannot cast list to boolean." );
-    }
-
-    @Override
-    public String getString() {
-        throw new DataCoercionException( "Cannot cast list to string." );
-    }
-
-    @Override
-    public MapValueImpl getMap() {
-        throw new DataCoercionException( "Cannot convert list to map." );
-    }
-
     @Override
     public ListValueImpl getList() {
         return this;
     }
 
-    @Override
-    public boolean isNull() {
-        return false;
-    }
-
     @Override
     public int size() {
         return delegate.size();
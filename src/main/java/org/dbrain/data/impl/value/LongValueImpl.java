@@ -0,0 +1,141 @@
+/*
+ * Copyright [2014] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.DataTruncationException;
+
+import java.math.BigDecimal;
+
+/**
+ * Wrap an integer number value that fits in a long. The BigDecimal is only created when requested.
+ */
+public final class LongValueImpl extends AbstractNumberValueImpl {
+
+    private final long value;
+
+    private BigDecimal bigDecimal;
+
+    public LongValueImpl( long value ) {
+        this.value = value;
+    }
+
+    /**
+     * Narrow a long to a byte, failing if the value does not fit.
+     */
+    static Byte toByte( long value ) {
+        if ( value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ) {
+            return (byte) value;
+        } else {
+            throw new DataTruncationException();
+        }
+    }
+
+    /**
+     * Narrow a long to a short, failing if the value does not fit.
+     */
+    static Short toShort( long value ) {
+        if ( value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ) {
+            return (short) value;
+        } else {
+            throw new DataTruncationException();
+        }
+    }
+
+    /**
+     * Narrow a long to an integer, failing if the value does not fit.
+     */
+    static Integer toInteger( long value ) {
+        if ( value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ) {
+            return (int) value;
+        } else {
+            throw new DataTruncationException();
+        }
+    }
+
+    /**
+     * @return The value, unboxed.
+     */
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        BigDecimal result = bigDecimal;
+        if ( result == null ) {
+            result = BigDecimal.valueOf( value );
+            bigDecimal = result;
+        }
+        return result;
+    }
+
+    @Override
+    boolean isExactLong() {
+        return true;
+    }
+
+    @Override
+    long exactLongValue() {
+        return value;
+    }
+
+    @Override
+    double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public Byte getByte() {
+        return toByte( value );
+    }
+
+    @Override
+    public Short getShort() {
+        return toShort( value );
+    }
+
+    @Override
+    public Integer getInt() {
+        return toInteger( value );
+    }
+
+    @Override
+    public Long getLong() {
+        return value;
+    }
+
+    @Override
+    public Float getFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public Double getDouble() {
+        return (double) value;
+    }
+
+    @Override
+    public Boolean getBoolean() {
+        return value != 0;
+    }
+
+    @Override
+    public String getString() {
+        return Long.toString( value );
+    }
+
+}
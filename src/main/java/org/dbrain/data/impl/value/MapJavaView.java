@@ -0,0 +1,121 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.tree.Node;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only Map view of a NodeMap. Child nodes are unwrapped on access, containers as views themselves.
+ */
+public final class MapJavaView extends AbstractMap<String, Object> {
+
+    private final Map<String, Node> map;
+
+    public MapJavaView( Map<String, Node> map ) {
+        this.map = map;
+    }
+
+    @Override
+    public Object get( Object key ) {
+        Node value = map.get( key );
+        return value != null ? value.asJavaView() : null;
+    }
+
+    @Override
+    public boolean containsKey( Object key ) {
+        return map.containsKey( key );
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<String> i = map.keySet().iterator();
+                return new Iterator<String>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return i.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return i.next();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains( Object o ) {
+                return map.containsKey( o );
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Node>> i = map.entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return i.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Entry<String, Node> e = i.next();
+                        return new SimpleImmutableEntry<>( e.getKey(), e.getValue().asJavaView() );
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable key to slot table shared by all the compact maps having the same keys, added in the same order.
+ *
+ * Shapes form a tree rooted at EMPTY: adding a key to a map moves it to the child shape for that key. A shape holds
+ * its parent strongly and its children weakly, so a shape, and the keys it holds, is reclaimed once no map uses it
+ * or one of its descendants. A shape cannot exceed MAX_SIZE keys nor MAX_TRANSITIONS live children; when a limit is
+ * reached, with() returns null for that shape only, and the map falls back to a private table. Removing the last key
+ * moves a map back to the parent shape, removing any other key falls back to the private table, so removals never
+ * create shapes.
+ */
+final class MapShape {
+
+    static final int MAX_SIZE = 64;
+
+    static final int MAX_TRANSITIONS = 64;
+
+    // Transitions to reclaimed shapes, removed from their parent on the next miss.
+    private static final ReferenceQueue<MapShape> reclaimed = new ReferenceQueue<>();
+
+    static final MapShape EMPTY = new MapShape( null, new String[0] );
+
+    // Shape without the last key, null for EMPTY.
+    private final MapShape parent;
+
+    private final String[] keys;
+
+    // Open addressing table of slot + 1, 0 denotes a free entry.
+    private final int[] index;
+
+    private final ConcurrentHashMap<String, Transition> transitions = new ConcurrentHashMap<>();
+
+    private MapShape( MapShape parent, String[] keys ) {
+        this.parent = parent;
+        this.keys = keys;
+        int capacity = Integer.highestOneBit( Math.max( keys.length, 1 ) * 2 + 1 );
+        this.index = new int[capacity];
+        for ( int slot = 0; slot < keys.length; slot++ ) {
+            int i = hash( keys[slot] ) & ( capacity - 1 );
+            while ( index[i] != 0 ) {
+                i = ( i + 1 ) & ( capacity - 1 );
+            }
+            index[i] = slot + 1;
+        }
+    }
+
+    private static int hash( Object key ) {
+        int h = key.hashCode();
+        return h ^ ( h >>> 16 );
+    }
+
+    /**
+     * @return The number of keys in this shape.
+     */
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return The key stored at the slot.
+     */
+    String key( int slot ) {
+        return keys[slot];
+    }
+
+    /**
+     * @return The slot of the key, or -1 if the key is not part of this shape.
+     */
+    int slotOf( Object key ) {
+        if ( !( key instanceof String ) || keys.length == 0 ) {
+            return -1;
+        }
+        int mask = index.length - 1;
+        for ( int i = hash( key ) & mask; index[i] != 0; i = ( i + 1 ) & mask ) {
+            String k = keys[index[i] - 1];
+            if ( k == key || k.equals( key ) ) {
+                return index[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The shape having the key appended, or null if this shape cannot grow anymore.
+     */
+    MapShape with( String key ) {
+        Transition transition = transitions.get( key );
+        MapShape result = transition != null ? transition.get() : null;
+        if ( result == null ) {
+            if ( keys.length >= MAX_SIZE ) {
+                return null;
+            }
+            purge();
+            synchronized ( transitions ) {
+                transition = transitions.get( key );
+                result = transition != null ? transition.get() : null;
+                if ( result == null ) {
+                    if ( transition == null && transitions.size() >= MAX_TRANSITIONS ) {
+                        return null;
+                    }
+                    String[] newKeys = new String[keys.length + 1];
+                    System.arraycopy( keys, 0, newKeys, 0, keys.length );
+                    newKeys[keys.length] = key;
+                    result = new MapShape( this, newKeys );
+                    transitions.put( key, new Transition( this, key, result ) );
+                }
+            }
+        }
+        return result;
+    }
+
+    // Remove the transitions to the reclaimed shapes.
+    private static void purge() {
+        Transition transition;
+        while ( ( transition = (Transition) reclaimed.poll() ) != null ) {
+            transition.from.transitions.remove( transition.key, transition );
+        }
+    }
+
+    /**
+     * @return The shape having the last key removed, null for EMPTY.
+     */
+    MapShape parent() {
+        return parent;
+    }
+
+    /**
+     * Weak reference to a child shape, remembering where it is registered.
+     */
+    private static final class Transition extends WeakReference<MapShape> {
+
+        private final MapShape from;
+        private final String   key;
+
+        Transition( MapShape from, String key, MapShape to ) {
+            super( to, reclaimed );
+            this.from = from;
+            this.key = key;
+        }
+    }
+
+}
@@ -16,10 +16,7 @@
 
 package org.dbrain.data.impl.value;
 
-import org.dbrain.data.DataCoercionException;
 import org.dbrain.data.tree.Node;
-import org.dbrain.data.tree.NodeList;
-import org.dbrain.data.tree.NodeMap;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -32,7 +29,7 @@ import java.util.function.Function;
 /**
  * Implementation of the Value.Map.
  */
-public class MapValueImpl implements NodeMap {
+public class MapValueImpl extends AbstractMapValueImpl {
 
     private final HashMap<String, Node> delegate;
 
@@ -44,72 +41,11 @@ public class MapValueImpl implements NodeMap {
         this( new HashMap<>() );
     }
 
-    public Object getObject() {
-        java.util.Map<String, Object> result = new HashMap<>( size() );
-        delegate.forEach( ( s, value ) -> result.put( s, value.getObject() ) );
-        return result;
-    }
-
-    @Override
-    public Object getObject( String fieldName ) {
-        return get( fieldName ).getObject();
-    }
-
-    @Override
-    public Boolean getBoolean() {
-        throw new DataCoercionException( "Cannot cast map to boolean." );
-    }
-
-    @Override
-    public Byte getByte() {
-        throw new DataCoercionException( "Cannot cast map to byte." );
-    }
-
-    @Override
-    public Short getShort() {
-        throw new DataCoercionException( "Cannot cast map to short." );
-    }
-
-    @Override
-    public Integer getInt() {
-        throw new DataCoercionException( "Cannot cast map to integer." );
-    }
-
-    @Override
-    public Long getLong() {
-        throw new DataCoercionException( "Cannot cast map to long." );
-    }
-
-    @Override
-    public Float getFloat() {
-        throw new DataCoercionException( "Cannot cast map to float." );
-    }
-
-    @Override
-    public Double getDouble() {
-        throw new DataCoercionException( "Cannot cast map to double." );
-    }
-
-    @Override
-    public String getString() {
-        throw new DataCoercionException( "Cannot cast map to string." );
-    }
-
     @Override
     public MapValueImpl getMap() {
         return this;
     }
 
-    @Override
-    public NodeList getList() {
-        throw new DataCoercionException( "Cannot cast map to list." );
-    }
-
-    @Override
-    public boolean isNull() {
-        return false;
-    }
-
     @Override
     public int size() {
         return delegate.size();
@@ -120,6 +56,11 @@ public class MapValueImpl implements NodeMap {
         return delegate.isEmpty();
     }
 
+    @Override
+    protected Node find( Object key ) {
+        return delegate.get( key );
+    }
+
     @Override
     public Node get(Object key ) {
         return Node.of( delegate.get( key ) );
@@ -136,13 +77,6 @@ public class MapValueImpl implements NodeMap {
         return delegate.put( key, Node.of(node) );
     }
 
-    @Override
-    public void putAll( java.util.Map<? extends String, ? extends Node> m ) {
-        for ( NodeMap.Entry<? extends String, ? extends Node> e : m.entrySet() ) {
-            put( e.getKey(), e.getValue() );
-        }
-    }
-
     @Override
     public Node remove(Object key ) {
         return delegate.remove( key );
@@ -173,21 +107,6 @@ public class MapValueImpl implements NodeMap {
         return delegate.entrySet();
     }
 
-    @Override
-    public Node getOrDefault(Object key, Node defaultNode) {
-        Node result = get( key );
-        return result.isNull() ? Node.of(defaultNode) : result;
-    }
-
-    @Override
-    public Node putIfAbsent(String key, Node node) {
-        if ( !containsKey( key ) ) {
-            return put( key, Node.of(node) );
-        } else {
-            return get( key );
-        }
-    }
-
     @Override
     public boolean remove( Object key, Object value ) {
         return delegate.remove( key, Node.of( value ) );
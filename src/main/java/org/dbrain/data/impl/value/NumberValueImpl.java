@@ -16,9 +16,6 @@
 
 package org.dbrain.data.impl.value;
 
-import org.dbrain.data.DataCoercionException;
-import org.dbrain.data.tree.Node;
-
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Objects;
@@ -26,10 +23,12 @@ import java.util.Objects;
 /**
  * Wrap a number value;
  */
-public final class NumberValueImpl implements Node {
+public final class NumberValueImpl extends AbstractNumberValueImpl {
 
     private final BigDecimal value;
 
+    private int hash;
+
     public NumberValueImpl( Byte value ) {
         Objects.requireNonNull( value );
         this.value = new BigDecimal( value );
@@ -70,39 +69,34 @@ public final class NumberValueImpl implements Node {
         this.value = new BigDecimal( Double.toString( value ) ).stripTrailingZeros();
     }
 
-    public Object getObject() {
-        return value;
-    }
-
     @Override
-    public MapValueImpl getMap() {
-        throw new DataCoercionException( "Cannot cast number to Map." );
+    public BigDecimal getBigDecimal() {
+        return value;
     }
 
     @Override
-    public ListValueImpl getList() {
-        throw new DataCoercionException( "Cannot cast number to List." );
+    boolean isExactLong() {
+        return isExactLong( value );
     }
 
     @Override
-    public boolean isNull() {
-        return value == null;
+    long exactLongValue() {
+        return value.longValue();
     }
 
     @Override
-    public boolean equals( Object o ) {
-        if ( this == o ) return true;
-        if ( o == null || getClass() != o.getClass() ) return false;
-
-        NumberValueImpl that = (NumberValueImpl) o;
-        if ( value.compareTo( that.value ) != 0 ) return false;
-
-        return true;
+    double doubleValue() {
+        return value.doubleValue();
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        int h = hash;
+        if ( h == 0 ) {
+            h = super.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -0,0 +1,245 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.tree.Node;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Immutable implementation of the Value.List, based on a vector trie.
+ *
+ * Elements are stored in leaves of 32 elements under a tree of 32-way branches, the last leaf is kept apart as the
+ * tail. An update copies the path from the root to the modified leaf and shares every other branch with the previous
+ * version, appending usually only copies the tail.
+ */
+public final class PersistentListValueImpl extends AbstractListValueImpl {
+
+    private static final Object[] EMPTY_BRANCH = new Object[32];
+
+    public static final PersistentListValueImpl EMPTY = new PersistentListValueImpl( 0, 5, EMPTY_BRANCH, new Object[0] );
+
+    private final int size;
+
+    // Depth of the tree, in bits of the index.
+    private final int shift;
+
+    private final Object[] root;
+
+    private final Object[] tail;
+
+    private PersistentListValueImpl( int size, int shift, Object[] root, Object[] tail ) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * @return A frozen copy of the collection.
+     */
+    public static PersistentListValueImpl copyOf( Collection<? extends Node> c ) {
+        if ( c instanceof PersistentListValueImpl ) {
+            return (PersistentListValueImpl) c;
+        }
+        Object[] items = c.toArray();
+        for ( int i = 0; i < items.length; i++ ) {
+            items[i] = Node.of( (Node) items[i] ).freeze();
+        }
+        PersistentListValueImpl result = EMPTY;
+        for ( int i = 0; i < items.length; i += 32 ) {
+            result = result.pushTail( Arrays.copyOfRange( items, i, Math.min( items.length, i + 32 ) ) );
+        }
+        return result;
+    }
+
+    // Index of the first element of the tail.
+    private int tailOffset() {
+        return size < 32 ? 0 : ( ( size - 1 ) >>> 5 ) << 5;
+    }
+
+    // Leaf holding the element at the index.
+    private Object[] leafFor( int index ) {
+        if ( index >= tailOffset() ) {
+            return tail;
+        }
+        Object[] branch = root;
+        for ( int level = shift; level > 0; level -= 5 ) {
+            branch = (Object[]) branch[( index >>> level ) & 31];
+        }
+        return branch;
+    }
+
+    @Override
+    public Node get( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+        }
+        return (Node) leafFor( index )[index & 31];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PersistentListValueImpl freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public PersistentListValueImpl with( int index, Node node ) {
+        if ( index == size ) {
+            return plus( node );
+        } else if ( index < 0 || index > size ) {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+        }
+        Node value = Node.of( node ).freeze();
+        if ( index >= tailOffset() ) {
+            Object[] newTail = tail.clone();
+            newTail[index & 31] = value;
+            return new PersistentListValueImpl( size, shift, root, newTail );
+        } else {
+            return new PersistentListValueImpl( size, shift, with( shift, root, index, value ), tail );
+        }
+    }
+
+    private static Object[] with( int level, Object[] branch, int index, Node value ) {
+        Object[] result = branch.clone();
+        if ( level == 0 ) {
+            result[index & 31] = value;
+        } else {
+            int i = ( index >>> level ) & 31;
+            result[i] = with( level - 5, (Object[]) branch[i], index, value );
+        }
+        return result;
+    }
+
+    @Override
+    public PersistentListValueImpl plus( Node node ) {
+        Node value = Node.of( node ).freeze();
+        if ( size - tailOffset() < 32 ) {
+            Object[] newTail = Arrays.copyOf( tail, tail.length + 1 );
+            newTail[tail.length] = value;
+            return new PersistentListValueImpl( size + 1, shift, root, newTail );
+        } else {
+            return pushTail( new Object[]{ value } );
+        }
+    }
+
+    // Move the full tail into the tree and start a new tail. Only called when the tail is full or the list empty.
+    private PersistentListValueImpl pushTail( Object[] newTail ) {
+        if ( size == 0 ) {
+            return new PersistentListValueImpl( newTail.length, shift, root, newTail );
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ( ( size >>> 5 ) > ( 1 << shift ) ) {
+            // The tree is full, add a level.
+            newRoot = new Object[32];
+            newRoot[0] = root;
+            newRoot[1] = newPath( shift, tail );
+            newShift += 5;
+        } else {
+            newRoot = pushLeaf( shift, root, tail );
+        }
+        return new PersistentListValueImpl( size + newTail.length, newShift, newRoot, newTail );
+    }
+
+    private Object[] pushLeaf( int level, Object[] branch, Object[] leaf ) {
+        int i = ( ( size - 1 ) >>> level ) & 31;
+        Object[] result = branch.clone();
+        if ( level == 5 ) {
+            result[i] = leaf;
+        } else {
+            Object[] child = (Object[]) branch[i];
+            result[i] = child != null ? pushLeaf( level - 5, child, leaf ) : newPath( level - 5, leaf );
+        }
+        return result;
+    }
+
+    private static Object[] newPath( int level, Object[] leaf ) {
+        if ( level == 0 ) {
+            return leaf;
+        }
+        Object[] result = new Object[32];
+        result[0] = newPath( level - 5, leaf );
+        return result;
+    }
+
+    @Override
+    public void forEach( Consumer<? super Node> action ) {
+        for ( int i = 0; i < size; i += 32 ) {
+            Object[] leaf = leafFor( i );
+            for ( int j = 0; j < leaf.length && i + j < size; j++ ) {
+                action.accept( (Node) leaf[j] );
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<Node>() {
+
+            private int index = 0;
+
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Node next() {
+                if ( index >= size ) {
+                    throw new NoSuchElementException();
+                }
+                if ( ( index & 31 ) == 0 ) {
+                    leaf = leafFor( index );
+                }
+                return (Node) leaf[index++ & 31];
+            }
+        };
+    }
+
+    @Override
+    public Node set( int index, Node element ) {
+        throw new UnsupportedOperationException( "Frozen list cannot be modified." );
+    }
+
+    @Override
+    public void add( int index, Node element ) {
+        throw new UnsupportedOperationException( "Frozen list cannot be modified." );
+    }
+
+    @Override
+    public Node remove( int index ) {
+        throw new UnsupportedOperationException( "Frozen list cannot be modified." );
+    }
+
+}
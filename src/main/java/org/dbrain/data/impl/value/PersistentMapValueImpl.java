@@ -0,0 +1,423 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.impl.value;
+
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeMap;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable implementation of the Value.Map, based on a hash array mapped trie.
+ *
+ * Each trie node holds up to 32 entries indexed by 5 bits of the key hash. An update copies the path from the root to
+ * the modified entry and shares every other trie node with the previous version. Iteration follows the hash order.
+ */
+public final class PersistentMapValueImpl extends AbstractMapValueImpl {
+
+    public static final PersistentMapValueImpl EMPTY = new PersistentMapValueImpl( null, 0 );
+
+    private final TrieNode root;
+
+    private final int size;
+
+    private PersistentMapValueImpl( TrieNode root, int size ) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return A frozen copy of the map.
+     */
+    public static PersistentMapValueImpl copyOf( Map<String, ? extends Node> map ) {
+        if ( map instanceof PersistentMapValueImpl ) {
+            return (PersistentMapValueImpl) map;
+        }
+        PersistentMapValueImpl result = EMPTY;
+        for ( Map.Entry<String, ? extends Node> e : map.entrySet() ) {
+            result = result.with( e.getKey(), e.getValue() );
+        }
+        return result;
+    }
+
+    private static int hash( Object key ) {
+        int h = key.hashCode();
+        return h ^ ( h >>> 16 );
+    }
+
+    @Override
+    public PersistentMapValueImpl freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public PersistentMapValueImpl with( String key, Node node ) {
+        Objects.requireNonNull( key );
+        Node value = Node.of( node ).freeze();
+        int hash = hash( key );
+        boolean[] added = new boolean[1];
+        TrieNode newRoot = root != null ? root.put( key, hash, value, 0, added ) :
+                BitmapNode.EMPTY.put( key, hash, value, 0, added );
+        return newRoot == root ? this : new PersistentMapValueImpl( newRoot, added[0] ? size + 1 : size );
+    }
+
+    @Override
+    public PersistentMapValueImpl without( String key ) {
+        if ( root == null || key == null ) {
+            return this;
+        }
+        TrieNode newRoot = root.remove( key, hash( key ), 0 );
+        if ( newRoot == root ) {
+            return this;
+        }
+        return newRoot != null ? new PersistentMapValueImpl( newRoot, size - 1 ) : EMPTY;
+    }
+
+    @Override
+    protected Node find( Object key ) {
+        return key instanceof String && root != null ? root.find( key, hash( key ), 0 ) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Node put( String key, Node node ) {
+        throw new UnsupportedOperationException( "Frozen map cannot be modified." );
+    }
+
+    @Override
+    public Node remove( Object key ) {
+        throw new UnsupportedOperationException( "Frozen map cannot be modified." );
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException( "Frozen map cannot be modified." );
+    }
+
+    @Override
+    public void forEach( BiConsumer<? super String, ? super Node> action ) {
+        if ( root != null ) {
+            forEach( root.array(), action );
+        }
+    }
+
+    private static void forEach( Object[] array, BiConsumer<? super String, ? super Node> action ) {
+        for ( int i = 0; i < array.length; i += 2 ) {
+            if ( array[i] != null ) {
+                action.accept( (String) array[i], (Node) array[i + 1] );
+            } else {
+                forEach( ( (TrieNode) array[i + 1] ).array(), action );
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Node>> entrySet() {
+        return new AbstractSet<Entry<String, Node>>() {
+
+            @Override
+            public Iterator<Entry<String, Node>> iterator() {
+                return new TrieIterator( root );
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Node of the trie. The array holds key and value pairs, a null key denotes a sub node in place of the value.
+     */
+    private interface TrieNode {
+
+        Object[] array();
+
+        Node find( Object key, int hash, int shift );
+
+        TrieNode put( String key, int hash, Node value, int shift, boolean[] added );
+
+        TrieNode remove( Object key, int hash, int shift );
+
+    }
+
+    /**
+     * Trie node indexed by 5 bits of the hash. The bitmap tells which of the 32 positions are used.
+     */
+    private static final class BitmapNode implements TrieNode {
+
+        static final BitmapNode EMPTY = new BitmapNode( 0, new Object[0] );
+
+        private final int bitmap;
+
+        private final Object[] array;
+
+        BitmapNode( int bitmap, Object[] array ) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private static int bit( int hash, int shift ) {
+            return 1 << ( ( hash >>> shift ) & 31 );
+        }
+
+        private int indexOf( int bit ) {
+            return Integer.bitCount( bitmap & ( bit - 1 ) ) * 2;
+        }
+
+        @Override
+        public Object[] array() {
+            return array;
+        }
+
+        @Override
+        public Node find( Object key, int hash, int shift ) {
+            int bit = bit( hash, shift );
+            if ( ( bitmap & bit ) == 0 ) {
+                return null;
+            }
+            int i = indexOf( bit );
+            Object k = array[i];
+            if ( k == null ) {
+                return ( (TrieNode) array[i + 1] ).find( key, hash, shift + 5 );
+            }
+            return k.equals( key ) ? (Node) array[i + 1] : null;
+        }
+
+        @Override
+        public TrieNode put( String key, int hash, Node value, int shift, boolean[] added ) {
+            int bit = bit( hash, shift );
+            int i = indexOf( bit );
+            if ( ( bitmap & bit ) == 0 ) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy( array, 0, newArray, 0, i );
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy( array, i, newArray, i + 2, array.length - i );
+                added[0] = true;
+                return new BitmapNode( bitmap | bit, newArray );
+            }
+            Object k = array[i];
+            Object v = array[i + 1];
+            if ( k == null ) {
+                TrieNode child = ( (TrieNode) v ).put( key, hash, value, shift + 5, added );
+                return child == v ? this : replace( i + 1, null, child );
+            } else if ( k.equals( key ) ) {
+                return v == value ? this : replace( i + 1, k, value );
+            } else {
+                added[0] = true;
+                return replace( i + 1, null, split( shift + 5, (String) k, (Node) v, key, hash, value ) );
+            }
+        }
+
+        private BitmapNode replace( int valueIndex, Object key, Object value ) {
+            Object[] newArray = array.clone();
+            newArray[valueIndex - 1] = key;
+            newArray[valueIndex] = value;
+            return new BitmapNode( bitmap, newArray );
+        }
+
+        // Create the sub node holding two keys that share the same position at the upper level.
+        private static TrieNode split( int shift, String key1, Node value1, String key2, int hash2, Node value2 ) {
+            int hash1 = hash( key1 );
+            if ( hash1 == hash2 ) {
+                return new CollisionNode( hash1, new Object[]{ key1, value1, key2, value2 } );
+            }
+            boolean[] added = new boolean[1];
+            return EMPTY.put( key1, hash1, value1, shift, added ).put( key2, hash2, value2, shift, added );
+        }
+
+        @Override
+        public TrieNode remove( Object key, int hash, int shift ) {
+            int bit = bit( hash, shift );
+            if ( ( bitmap & bit ) == 0 ) {
+                return this;
+            }
+            int i = indexOf( bit );
+            Object k = array[i];
+            Object v = array[i + 1];
+            if ( k == null ) {
+                TrieNode child = ( (TrieNode) v ).remove( key, hash, shift + 5 );
+                if ( child == v ) {
+                    return this;
+                } else if ( child != null ) {
+                    return replace( i + 1, null, child );
+                }
+            } else if ( !k.equals( key ) ) {
+                return this;
+            }
+            if ( bitmap == bit ) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy( array, 0, newArray, 0, i );
+            System.arraycopy( array, i + 2, newArray, i, array.length - i - 2 );
+            return new BitmapNode( bitmap ^ bit, newArray );
+        }
+    }
+
+    /**
+     * Trie node holding keys having the exact same hash.
+     */
+    private static final class CollisionNode implements TrieNode {
+
+        private final int hash;
+
+        private final Object[] array;
+
+        CollisionNode( int hash, Object[] array ) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf( Object key ) {
+            for ( int i = 0; i < array.length; i += 2 ) {
+                if ( array[i].equals( key ) ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object[] array() {
+            return array;
+        }
+
+        @Override
+        public Node find( Object key, int hash, int shift ) {
+            int i = hash == this.hash ? indexOf( key ) : -1;
+            return i >= 0 ? (Node) array[i + 1] : null;
+        }
+
+        @Override
+        public TrieNode put( String key, int hash, Node value, int shift, boolean[] added ) {
+            if ( hash != this.hash ) {
+                // Push this node one level down, under a bitmap node.
+                BitmapNode parent = new BitmapNode( BitmapNode.bit( this.hash, shift ), new Object[]{ null, this } );
+                return parent.put( key, hash, value, shift, added );
+            }
+            int i = indexOf( key );
+            if ( i >= 0 ) {
+                if ( array[i + 1] == value ) {
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode( hash, newArray );
+            }
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy( array, 0, newArray, 0, array.length );
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode( hash, newArray );
+        }
+
+        @Override
+        public TrieNode remove( Object key, int hash, int shift ) {
+            int i = hash == this.hash ? indexOf( key ) : -1;
+            if ( i < 0 ) {
+                return this;
+            } else if ( array.length == 2 ) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy( array, 0, newArray, 0, i );
+            System.arraycopy( array, i + 2, newArray, i, array.length - i - 2 );
+            return new CollisionNode( hash, newArray );
+        }
+    }
+
+    /**
+     * Depth first iterator over the entries of the trie.
+     */
+    private static final class TrieIterator implements Iterator<Entry<String, Node>> {
+
+        // The trie is at most 7 levels deep, plus one for collision nodes.
+        private final Object[][] arrays    = new Object[8][];
+        private final int[]      positions = new int[8];
+        private       int        depth     = -1;
+
+        TrieIterator( TrieNode root ) {
+            if ( root != null ) {
+                push( root.array() );
+            }
+        }
+
+        private void push( Object[] array ) {
+            depth++;
+            arrays[depth] = array;
+            positions[depth] = 0;
+        }
+
+        // Move to the next key, descending in sub nodes and leaving exhausted nodes.
+        private boolean advance() {
+            while ( depth >= 0 ) {
+                Object[] array = arrays[depth];
+                int i = positions[depth];
+                if ( i >= array.length ) {
+                    arrays[depth--] = null;
+                } else if ( array[i] == null ) {
+                    positions[depth] = i + 2;
+                    push( ( (TrieNode) array[i + 1] ).array() );
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return advance();
+        }
+
+        @Override
+        public Entry<String, Node> next() {
+            if ( !advance() ) {
+                throw new NoSuchElementException();
+            }
+            Object[] array = arrays[depth];
+            int i = positions[depth];
+            positions[depth] = i + 2;
+            return new SimpleImmutableEntry<>( (String) array[i], (Node) array[i + 1] );
+        }
+    }
+
+}
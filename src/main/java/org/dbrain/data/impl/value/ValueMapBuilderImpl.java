@@ -24,7 +24,7 @@ import java.math.BigInteger;
 
 public class ValueMapBuilderImpl implements NodeMap.Builder {
 
-    private NodeMap building = NodeMap.newInstance();
+    private CompactMapValueImpl building = new CompactMapValueImpl();
 
     @Override
     public NodeMap.Builder putNull(String name ) {
@@ -101,6 +101,7 @@ public class ValueMapBuilderImpl implements NodeMap.Builder {
     @Override
     public NodeMap build() {
         try {
+            building.trimToSize();
             return building;
         } finally {
             building = null;
@@ -0,0 +1,71 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.impl.binary.BinaryEncoder;
+import org.dbrain.data.impl.binary.BinaryNodes;
+import org.dbrain.data.tree.Node;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reader and writer for Value to a compact binary format.
+ *
+ * Decoding does not build the tree: maps and lists are read-only views reading their content straight from the
+ * buffer, which can be a heap, direct or memory-mapped buffer. Documents are meant to be written once and read many
+ * times.
+ */
+public final class BinaryNodeSerializer {
+
+    private BinaryNodeSerializer() {
+    }
+
+    /**
+     * @return The binary document of the node.
+     */
+    public static byte[] encode( Node node ) {
+        return new BinaryEncoder().encode( node );
+    }
+
+    /**
+     * Write the binary document of the node to the stream.
+     */
+    public static void encode( Node node, OutputStream os ) {
+        try {
+            new BinaryEncoder().encode( node, os );
+        } catch ( Exception e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * @return A view of the document starting at the position of the buffer. The buffer must not be modified while
+     * the view is in use.
+     */
+    public static Node decode( ByteBuffer buffer ) {
+        return BinaryNodes.decode( buffer );
+    }
+
+    /**
+     * @return A view of the document.
+     */
+    public static Node decode( byte[] document ) {
+        return BinaryNodes.decode( ByteBuffer.wrap( document ) );
+    }
+
+}
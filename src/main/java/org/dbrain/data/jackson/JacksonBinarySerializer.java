@@ -0,0 +1,135 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.dbrain.data.BinarySerializer;
+import org.dbrain.data.ObjectConverter;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reader and writer for Value to a binary format, such as Smile or CBOR.
+ *
+ * Built by JacksonSerializer.Builder.buildBinary() from a binary factory. Only bytes are read and written, the format
+ * cannot go through chars.
+ */
+public class JacksonBinarySerializer implements BinarySerializer, ObjectConverter {
+
+    // Serializer owning the mapper of the binary factory, only its byte methods are used.
+    private final JacksonSerializer delegate;
+
+    private final String formatName;
+
+    JacksonBinarySerializer( JacksonSerializer delegate, String formatName ) {
+        this.delegate = delegate;
+        this.formatName = formatName;
+    }
+
+    /**
+     * @return The name of the format, for instance Smile or CBOR.
+     */
+    public String getFormatName() {
+        return formatName;
+    }
+
+    /**
+     * @return true if the Fqn and Path read are interned.
+     */
+    public boolean isInterning() {
+        return delegate.isInterning();
+    }
+
+    /**
+     * @return The policy used to read numbers into Values.
+     */
+    public NumberPolicy getNumberPolicy() {
+        return delegate.getNumberPolicy();
+    }
+
+    /**
+     * Read Object from parser.
+     */
+    public <T> T read( JsonParser r, Class<T> clazz ) {
+        return delegate.read( r, clazz );
+    }
+
+    @Override
+    public <T> T read( InputStream from, Class<T> clazz ) {
+        return delegate.read( from, clazz );
+    }
+
+    @Override
+    public <T> T read( byte[] from, Class<T> clazz ) {
+        return delegate.read( from, clazz );
+    }
+
+    @Override
+    public <T> T read( ByteBuffer from, Class<T> clazz ) {
+        return delegate.read( from, clazz );
+    }
+
+    /**
+     * Stream the elements of a top-level array, one Node at a time.
+     */
+    public NodeCursor streamArray( InputStream from ) {
+        return delegate.streamArray( from );
+    }
+
+    /**
+     * Stream a sequence of root values, one Node at a time.
+     */
+    public NodeCursor streamValues( InputStream from ) {
+        return delegate.streamValues( from );
+    }
+
+    /**
+     * Create a generator writing to the stream. Closing the generator flushes it, but does not close the stream.
+     */
+    public JsonGenerator createGenerator( OutputStream to ) {
+        return delegate.createGenerator( to );
+    }
+
+    /**
+     * Write the object as the next value of the generator. The generator is neither flushed nor closed.
+     */
+    public void write( JsonGenerator to, Object o ) {
+        delegate.write( to, o );
+    }
+
+    @Override
+    public void write( OutputStream to, Object o ) {
+        delegate.write( to, o );
+    }
+
+    @Override
+    public byte[] writeToBytes( Object o ) {
+        return delegate.writeToBytes( o );
+    }
+
+    /**
+     * Convert object to value.
+     */
+    @Override
+    public <T> T convert( Object o, Class<T> clazz ) {
+        return delegate.convert( o, clazz );
+    }
+
+}
@@ -16,26 +16,50 @@
 
 package org.dbrain.data.jackson;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
 import org.dbrain.data.ObjectConverter;
 import org.dbrain.data.TextSerializer;
+import org.dbrain.data.impl.tape.JsonTape;
 import org.dbrain.data.jackson.modules.StandardModule;
+import org.dbrain.data.jackson.serializers.JacksonSerializationUtils;
 import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 /**
  * Reader and writer for Value to JSON format.
+ *
+ * Binary formats, such as Smile or CBOR, are read and written by a JacksonBinarySerializer, see Builder.buildBinary().
  */
 public class JacksonSerializer implements TextSerializer, ObjectConverter {
 
@@ -45,6 +69,7 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
     public static Builder newBuilder() {
         Builder builder = new Builder();
         builder.withModule( new StandardModule() );
+        builder.withKeyTable( new KeyTable() );
         builder.withConfigurator( ( om ) -> om.configure( DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT,
                                                           true ) );
         return builder;
@@ -59,11 +84,104 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
 
     private final ObjectMapper objectMapper ;
 
+    private final boolean deferred;
+
+    private final KeyTable keyTable;
+
+    // Readers and writers by class, holding the resolved root deserializer and serializer, or null when the mapper
+    // was supplied from outside and may still be reconfigured. Writers do not flush after each value, so that values
+    // written to a generator stay buffered.
+    private final ClassValue<ObjectReader> readers;
+    private final ClassValue<ObjectWriter> writers;
+
     /**
-     * Constructor of the Jackson Serializer from an object mapper.
+     * Constructor of the Jackson Serializer from an object mapper. Readers and writers are built from the mapper on
+     * each call, so that later changes to its configuration are honored. The mapper must read and write a text format.
      */
     public JacksonSerializer( ObjectMapper objectMapper ) {
+        this( objectMapper, false, null, false );
+        if ( objectMapper.getFactory().canHandleBinaryNatively() ) {
+            throw new IllegalArgumentException( objectMapper.getFactory().getFormatName() +
+                                                " is a binary format, use a JacksonBinarySerializer." );
+        }
+    }
+
+    /**
+     * Constructor used by the builder, that owns the mapper. With cached, readers and writers are built once per
+     * class from the configuration of the mapper. A binary mapper is only used through the byte methods, by a
+     * JacksonBinarySerializer.
+     */
+    JacksonSerializer( ObjectMapper objectMapper, boolean deferred, KeyTable keyTable, boolean cached ) {
         this.objectMapper = objectMapper;
+        this.deferred = deferred;
+        this.keyTable = keyTable;
+        if ( cached ) {
+            this.readers = new ClassValue<ObjectReader>() {
+                @Override
+                protected ObjectReader computeValue( Class<?> type ) {
+                    return newReader( type );
+                }
+            };
+            this.writers = new ClassValue<ObjectWriter>() {
+                @Override
+                protected ObjectWriter computeValue( Class<?> type ) {
+                    return newWriter( type );
+                }
+            };
+        } else {
+            this.readers = null;
+            this.writers = null;
+        }
+    }
+
+    private ObjectReader newReader( Class<?> clazz ) {
+        return objectMapper.readerFor( clazz );
+    }
+
+    private ObjectWriter newWriter( Class<?> clazz ) {
+        ObjectWriter result = clazz != Void.class ? objectMapper.writerFor( clazz ) : objectMapper.writer();
+        return result.without( SerializationFeature.FLUSH_AFTER_WRITE_VALUE );
+    }
+
+    private ObjectReader reader( Class<?> clazz ) {
+        return readers != null ? readers.get( clazz ) : newReader( clazz );
+    }
+
+    private ObjectWriter writer( Object o ) {
+        Class<?> clazz = o != null ? o.getClass() : Void.class;
+        return writers != null ? writers.get( clazz ) : newWriter( clazz );
+    }
+
+    /**
+     * @return true if Node, NodeMap and NodeList are read with deferred parsing.
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * @return The table used to canonicalize map keys while reading deferred documents, or null if keys are not
+     * canonicalized.
+     */
+    public KeyTable getKeyTable() {
+        return keyTable;
+    }
+
+    /**
+     * @return true if the Fqn and Path read are interned.
+     */
+    public boolean isInterning() {
+        return Boolean.TRUE.equals( objectMapper.getDeserializationConfig().getAttributes().getAttribute(
+                JacksonSerializationUtils.INTERNING ) );
+    }
+
+    /**
+     * @return The policy used to read numbers into Values.
+     */
+    public NumberPolicy getNumberPolicy() {
+        NumberPolicy policy = (NumberPolicy) objectMapper.getDeserializationConfig().getAttributes().getAttribute(
+                NumberPolicy.class );
+        return policy != null ? policy : NumberPolicy.FAST;
     }
 
     /**
@@ -81,22 +199,105 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
      */
     public <T> T read( JsonParser r, Class<T> clazz ) {
         try {
-            return objectMapper.readValue( r, clazz );
+            return reader( clazz ).readValue( r );
         } catch ( Exception e ) {
             throw new ParseException( e );
         }
     }
 
+    private static boolean isNodeClass( Class<?> clazz ) {
+        return clazz == Node.class || clazz == NodeMap.class || clazz == NodeList.class;
+    }
+
+    /**
+     * Convert the root of a deferred document to the requested node class.
+     */
+    private static <T> T castDeferred( Node node, Class<T> clazz ) {
+        try {
+            if ( node == null || clazz == Node.class ) {
+                return clazz.cast( node );
+            } else if ( clazz == NodeMap.class ) {
+                return clazz.cast( node.getMap() );
+            } else {
+                return clazz.cast( node.getList() );
+            }
+        } catch ( RuntimeException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Read Json into a Node, deferring the decoding of maps and lists until they are accessed.
+     *
+     * The document is first scanned into a structural tape, the returned node decodes a level of the document when it
+     * is first accessed and keeps the result. A request that reads only a few fields of a large document does not pay
+     * for the rest. The buffer is kept, and must not be modified, while a map or list of the document is reachable.
+     * freeze() returns a copy that does not refer to the buffer.
+     *
+     * @return The root node, or null if the document is the null literal.
+     */
+    public Node readDeferred( char[] buffer, int length ) {
+        Node root = JsonTape.parse( buffer, length, getKeyTable(), getNumberPolicy() ).root();
+        return root.isNull() ? null : root;
+    }
+
+    /**
+     * Read Json into a Node, deferring the decoding of maps and lists until they are accessed. The string is copied
+     * into a char array first.
+     */
+    public Node readDeferred( String from ) {
+        return readDeferred( from.toCharArray(), from.length() );
+    }
+
+    /**
+     * Read Json into a Node, deferring the decoding of maps and lists until they are accessed. The whole input is
+     * read into a char array first.
+     */
+    public Node readDeferred( Reader from ) {
+        try {
+            char[] buffer = new char[8192];
+            int length = 0;
+            int n;
+            while ( ( n = from.read( buffer, length, buffer.length - length ) ) >= 0 ) {
+                length += n;
+                if ( length == buffer.length ) {
+                    buffer = Arrays.copyOf( buffer, buffer.length * 2 );
+                }
+            }
+            return readDeferred( buffer, length );
+        } catch ( IOException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Read Json into a Node from UTF-8 bytes, deferring the decoding of maps and lists until they are accessed. The
+     * bytes are decoded into a char array first.
+     */
+    public Node readDeferred( ByteBuffer from ) {
+        CharBuffer chars = StandardCharsets.UTF_8.decode( from.duplicate() );
+        return readDeferred( chars.array(), chars.limit() );
+    }
+
+    /**
+     * Read a whole document from the parser, checking that nothing follows.
+     */
+    private <T> T readDocument( JsonParser parser, Class<T> clazz ) throws IOException {
+        T value = read( parser, clazz );
+        checkEof( parser );
+        return value;
+    }
+
     /**
      * Read Json from parser.
      */
     @Override
     public <T> T read( String from, Class<T> clazz ) {
+        if ( deferred && isNodeClass( clazz ) ) {
+            return castDeferred( readDeferred( from ), clazz );
+        }
         try {
-            JsonParser parser = objectMapper.getFactory().createParser( from );
-            T value = read( parser, clazz );
-            checkEof( parser );
-            return value;
+            return readDocument( objectMapper.getFactory().createParser( from ), clazz );
         } catch ( Exception e ) {
             throw new ParseException( e );
         }
@@ -107,20 +308,239 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
      */
     @Override
     public <T> T read( Reader from, Class<T> clazz ) {
+        if ( deferred && isNodeClass( clazz ) ) {
+            return castDeferred( readDeferred( from ), clazz );
+        }
         try {
-            JsonParser parser = objectMapper.getFactory().createParser( from );
-            T value = read( parser, clazz );
-            checkEof( parser );
-            return value;
+            return readDocument( objectMapper.getFactory().createParser( from ), clazz );
+        } catch ( Exception e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Read Json from UTF-8 bytes, without decoding them to chars first.
+     */
+    @Override
+    public <T> T read( InputStream from, Class<T> clazz ) {
+        if ( deferred && isNodeClass( clazz ) ) {
+            return castDeferred( readDeferred( new InputStreamReader( from, StandardCharsets.UTF_8 ) ), clazz );
+        }
+        try {
+            return readDocument( objectMapper.getFactory().createParser( from ), clazz );
+        } catch ( Exception e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Read Json from UTF-8 bytes, without decoding them to chars first.
+     */
+    @Override
+    public <T> T read( byte[] from, Class<T> clazz ) {
+        return read( ByteBuffer.wrap( from ), clazz );
+    }
+
+    /**
+     * Read Json from the remaining UTF-8 bytes of the buffer, without decoding them to chars first. The position of
+     * the buffer is left untouched.
+     */
+    @Override
+    public <T> T read( ByteBuffer from, Class<T> clazz ) {
+        if ( deferred && isNodeClass( clazz ) ) {
+            return castDeferred( readDeferred( from ), clazz );
+        }
+        try {
+            JsonParser parser;
+            if ( from.hasArray() ) {
+                parser = objectMapper.getFactory().createParser( from.array(), from.arrayOffset() + from.position(),
+                                                                 from.remaining() );
+            } else {
+                byte[] bytes = new byte[from.remaining()];
+                from.duplicate().get( bytes );
+                parser = objectMapper.getFactory().createParser( bytes );
+            }
+            return readDocument( parser, clazz );
         } catch ( Exception e ) {
             throw new ParseException( e );
         }
     }
 
+    /**
+     * Read each of the Json documents.
+     */
+    public <T> List<T> readAll( Iterable<String> from, Class<T> clazz ) {
+        List<T> result = new ArrayList<>();
+        if ( deferred && isNodeClass( clazz ) ) {
+            for ( String s : from ) {
+                result.add( read( s, clazz ) );
+            }
+            return result;
+        }
+        ObjectReader reader = reader( clazz );
+        for ( String s : from ) {
+            try {
+                JsonParser parser = objectMapper.getFactory().createParser( s );
+                result.add( reader.readValue( parser ) );
+                checkEof( parser );
+            } catch ( Exception e ) {
+                throw new ParseException( e );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read a sequence of root Json values, such as NDJSON, lazily. Each value is read when the iterator reaches it,
+     * the iterator closes the reader at the end of the input or on error. Values are never read deferred.
+     */
+    public <T> Iterator<T> readValues( Reader from, Class<T> clazz ) {
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser( from );
+            return new ValueIterator<>( parser, reader( clazz ).readValues( parser ) );
+        } catch ( IOException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Stream the elements of a top-level JSON array, one Node at a time.
+     */
+    public NodeCursor streamArray( JsonParser parser ) {
+        return new NodeCursor( objectMapper, parser, true );
+    }
+
+    /**
+     * Stream the elements of a top-level JSON array, one Node at a time.
+     */
+    public NodeCursor streamArray( Reader from ) {
+        try {
+            return streamArray( objectMapper.getFactory().createParser( from ) );
+        } catch ( IOException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Stream the elements of a top-level JSON array from UTF-8 bytes, one Node at a time.
+     */
+    public NodeCursor streamArray( InputStream from ) {
+        try {
+            return streamArray( objectMapper.getFactory().createParser( from ) );
+        } catch ( IOException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Stream a sequence of root JSON values, such as NDJSON, one Node at a time.
+     */
+    public NodeCursor streamValues( JsonParser parser ) {
+        return new NodeCursor( objectMapper, parser, false );
+    }
+
+    /**
+     * Stream a sequence of root JSON values, such as NDJSON, one Node at a time.
+     */
+    public NodeCursor streamValues( Reader from ) {
+        try {
+            return streamValues( objectMapper.getFactory().createParser( from ) );
+        } catch ( IOException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Stream a sequence of root JSON values, such as NDJSON, from UTF-8 bytes, one Node at a time.
+     */
+    public NodeCursor streamValues( InputStream from ) {
+        try {
+            return streamValues( objectMapper.getFactory().createParser( from ) );
+        } catch ( IOException e ) {
+            throw new ParseException( e );
+        }
+    }
+
+    /**
+     * Read NDJSON from UTF-8 bytes, parsing chunks of lines in parallel on the common pool. Values are returned in
+     * input order.
+     */
+    public <T> NdjsonCursor<T> streamValuesParallel( InputStream from, Class<T> clazz ) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return streamValuesParallel( from, clazz, pool, NdjsonCursor.DEFAULT_CHUNK_SIZE, pool.getParallelism() * 2 );
+    }
+
+    /**
+     * Read NDJSON from UTF-8 bytes, parsing chunks of lines in parallel on the pool. Values are returned in input
+     * order, at most maxPending chunks of chunkSize bytes are read ahead of the consumer.
+     */
+    public <T> NdjsonCursor<T> streamValuesParallel( InputStream from, Class<T> clazz, ForkJoinPool pool,
+                                                     int chunkSize, int maxPending ) {
+        return new NdjsonCursor<>( objectMapper.getFactory(), reader( clazz ), from, pool, chunkSize, maxPending );
+    }
+
+    /**
+     * Create a generator writing UTF-8 to the stream. Closing the generator flushes it, but does not close the
+     * stream.
+     */
+    public JsonGenerator createGenerator( OutputStream to ) {
+        try {
+            return objectMapper.getFactory().createGenerator( to ).disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+        } catch ( IOException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Create a generator writing to the writer. Closing the generator flushes it, but does not close the writer.
+     */
+    public JsonGenerator createGenerator( Writer to ) {
+        try {
+            return objectMapper.getFactory().createGenerator( to ).disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+        } catch ( IOException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Write the object as the next value of the generator. The generator is neither flushed nor closed.
+     */
+    public void write( JsonGenerator to, Object o ) {
+        try {
+            writer( o ).writeValue( to, o );
+        } catch ( Exception e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
     @Override
     public void write( Writer to, Object o ) {
         try {
-            objectMapper.writeValue( to, o );
+            writer( o ).writeValue( to, o );
+        } catch ( Exception e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Write Json as UTF-8 bytes, without going through a Writer.
+     */
+    @Override
+    public void write( OutputStream to, Object o ) {
+        try {
+            writer( o ).writeValue( to, o );
+        } catch ( Exception e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Write Json as UTF-8 bytes, without going through a String.
+     */
+    @Override
+    public byte[] writeToBytes( Object o ) {
+        try {
+            return writer( o ).writeValueAsBytes( o );
         } catch ( Exception e ) {
             throw new IllegalStateException( e );
         }
@@ -129,7 +549,7 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
     @Override
     public String writeToString( Object o ) {
         try {
-            return objectMapper.writeValueAsString( o );
+            return writer( o ).writeValueAsString( o );
         } catch ( Exception e ) {
             throw new IllegalStateException( e );
         }
@@ -147,6 +567,59 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
         }
     }
 
+    /**
+     * Iterator over root values, reporting errors as ParseException and closing the parser at the end.
+     */
+    private static final class ValueIterator<T> implements Iterator<T>, Closeable {
+
+        private final JsonParser         parser;
+        private final MappingIterator<T>  values;
+
+        ValueIterator( JsonParser parser, MappingIterator<T> values ) {
+            this.parser = parser;
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if ( values.hasNextValue() ) {
+                    return true;
+                }
+                close();
+                return false;
+            } catch ( Exception e ) {
+                closeQuietly();
+                throw new ParseException( e );
+            }
+        }
+
+        @Override
+        public T next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return values.nextValue();
+            } catch ( Exception e ) {
+                closeQuietly();
+                throw new ParseException( e );
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+            } catch ( IOException ignored ) {
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
     /**
      * Created by epoitras on 10/16/15.
      */
@@ -155,6 +628,11 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
         private final List<Module>                 modules   = new ArrayList<>();
         private final List<Consumer<ObjectMapper>> omConfigs = new ArrayList<>();
         private TypeResolverBuilder<?> typing;
+        private KeyTable keyTable;
+        private NumberPolicy numberPolicy;
+        private boolean deferred;
+        private boolean interning;
+        private JsonFactory factory;
 
         Builder() {
         }
@@ -193,8 +671,92 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
             return this;
         }
 
+        /**
+         * Canonicalize the map keys of deferred documents using the table. Null disables canonicalization. Documents
+         * read through Jackson do not need it, the JsonFactory already canonicalizes field names.
+         */
+        public Builder withKeyTable( KeyTable keyTable ) {
+            this.keyTable = keyTable;
+            return this;
+        }
+
+        /**
+         * Canonicalize the map keys of deferred documents using a table of the specified capacity. Zero disables
+         * canonicalization.
+         */
+        public Builder withKeyTable( int capacity ) {
+            return withKeyTable( capacity > 0 ? new KeyTable( capacity ) : null );
+        }
+
+        /**
+         * Choose how numbers are read into Values. Null keeps the default, FAST.
+         */
+        public Builder withNumberPolicy( NumberPolicy numberPolicy ) {
+            this.numberPolicy = numberPolicy;
+            return this;
+        }
+
+        /**
+         * Intern the Fqn and Path read, so that repeated names share one instance and are parsed once.
+         */
+        public Builder withInterning( boolean interning ) {
+            this.interning = interning;
+            return this;
+        }
+
+        /**
+         * Read Node, NodeMap and NodeList through a structural tape, decoding maps and lists only when accessed.
+         * The documents must be strict JSON.
+         *
+         * The whole input is first copied into a char array: a String, a Reader, an InputStream or a ByteBuffer is
+         * read or decoded completely before the tape is built. Every map and list of the document, and any of their
+         * children, then keeps that array and the tape alive, even if only a small part of the document is kept.
+         * Call freeze() on the part to keep, it returns a persistent copy that no longer refers to the document.
+         */
+        public Builder withDeferredParsing( boolean deferred ) {
+            this.deferred = deferred;
+            return this;
+        }
+
+        /**
+         * Read and write the format of the factory. The factory must not be shared with another serializer. Null
+         * keeps JSON. A binary factory, for instance a SmileFactory or a CBORFactory, is built with buildBinary().
+         */
+        public Builder withFactory( JsonFactory factory ) {
+            this.factory = factory;
+            return this;
+        }
+
+        private boolean isBinary() {
+            return factory != null && factory.canHandleBinaryNatively();
+        }
+
+        /**
+         * Build a serializer of a text format.
+         */
         public JacksonSerializer build() {
-            ObjectMapper om = new ObjectMapper();
+            if ( isBinary() ) {
+                throw new IllegalStateException( factory.getFormatName() + " is a binary format, use buildBinary()." );
+            }
+            return new JacksonSerializer( newObjectMapper(), deferred, keyTable, true );
+        }
+
+        /**
+         * Build a serializer of the binary format of the factory. Deferred parsing requires a text format.
+         */
+        public JacksonBinarySerializer buildBinary() {
+            if ( !isBinary() ) {
+                throw new IllegalStateException( "A binary factory is required." );
+            }
+            if ( deferred ) {
+                throw new IllegalStateException( "Deferred parsing requires a text format." );
+            }
+            return new JacksonBinarySerializer( new JacksonSerializer( newObjectMapper(), false, null, true ),
+                                                factory.getFormatName() );
+        }
+
+        private ObjectMapper newObjectMapper() {
+            ObjectMapper om = factory != null ? new ObjectMapper( factory ) : new ObjectMapper();
 
             // Register Modules
             om.registerModules( modules );
@@ -204,12 +766,20 @@ public class JacksonSerializer implements TextSerializer, ObjectConverter {
                 om.setDefaultTyping( typing );
             }
 
+            if ( numberPolicy != null ) {
+                om.setConfig( om.getDeserializationConfig().withAttribute( NumberPolicy.class, numberPolicy ) );
+            }
+            if ( interning ) {
+                om.setConfig( om.getDeserializationConfig().withAttribute( JacksonSerializationUtils.INTERNING,
+                                                                           Boolean.TRUE ) );
+            }
+
             // Customize the Object Mapper
             for ( Consumer<ObjectMapper> omConfig : omConfigs ) {
                 omConfig.accept( om );
             }
 
-            return new JacksonSerializer( om );
+            return om;
         }
 
 
@@ -0,0 +1,155 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded symbol table of map keys, used while reading deferred documents so that identical field names share one
+ * String. Documents read through Jackson do not use it, the JsonFactory already canonicalizes field names.
+ *
+ * The table is a fixed array of slots, grouped in sets of two indexed by the hash of the key. A missing key goes in
+ * the first slot of its set, moving the previous key to the second one, so two hot keys sharing a set both stay
+ * resident. The table never grows past its capacity and a workload with a small set of field names stays resident.
+ * The table is thread safe and meant to be shared by all the reads of a serializer.
+ */
+public final class KeyTable {
+
+    /**
+     * Default capacity of the table.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<String> slots;
+
+    private final int mask;
+
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a table of the default capacity.
+     */
+    public KeyTable() {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Create a table. The capacity is rounded up to a power of two, of at least two slots.
+     */
+    public KeyTable( int capacity ) {
+        if ( capacity <= 0 ) {
+            throw new IllegalArgumentException( "Capacity must be positive: " + capacity );
+        }
+        int size = Math.max( Integer.highestOneBit( capacity ), 2 );
+        if ( size < capacity ) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>( size );
+        // Index of the first slot of a set.
+        this.mask = size - 2;
+    }
+
+    /**
+     * @return The instance of the key held by the table. The key is added if it is not present.
+     */
+    public String canonicalize( String key ) {
+        if ( key == null ) {
+            return null;
+        }
+        int h = key.hashCode();
+        int slot = ( h ^ ( h >>> 16 ) ) << 1 & mask;
+        for ( int way = slot; way < slot + 2; way++ ) {
+            String current = slots.get( way );
+            if ( current == key || ( current != null && current.equals( key ) ) ) {
+                hits.increment();
+                return current;
+            }
+        }
+        return add( slot, key );
+    }
+
+    /**
+     * @return The instance of the key held by the table, the key being the chars of the buffer in the range. A String
+     * is only created if the key is not present.
+     */
+    public String canonicalize( char[] buffer, int offset, int length ) {
+        int h = 0;
+        for ( int i = offset; i < offset + length; i++ ) {
+            h = 31 * h + buffer[i];
+        }
+        int slot = ( h ^ ( h >>> 16 ) ) << 1 & mask;
+        for ( int way = slot; way < slot + 2; way++ ) {
+            String current = slots.get( way );
+            if ( current != null && current.length() == length ) {
+                int i = 0;
+                while ( i < length && current.charAt( i ) == buffer[offset + i] ) {
+                    i++;
+                }
+                if ( i == length ) {
+                    hits.increment();
+                    return current;
+                }
+            }
+        }
+        return add( slot, new String( buffer, offset, length ) );
+    }
+
+    // Put the key first in its set, evicting the second key.
+    private String add( int slot, String key ) {
+        misses.increment();
+        slots.lazySet( slot + 1, slots.get( slot ) );
+        slots.lazySet( slot, key );
+        return key;
+    }
+
+    /**
+     * @return The number of slots of the table.
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return The number of lookups that found the key in the table.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that added the key to the table.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Reset the statistics.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "KeyTable{capacity=" + capacity() + ", hits=" + hits() + ", misses=" + misses() + "}";
+    }
+
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.dbrain.data.cursor.ForwardCursor;
+import org.dbrain.data.text.ParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only cursor reading NDJSON in parallel.
+ *
+ * The input is read in large chunks cut after the last newline, each chunk is parsed on a fork-join pool and the
+ * values come back in input order. The input is read by a task of the pool, so reading overlaps with the parsing and
+ * with the consumer. At most maxPending chunks are read ahead of the consumer: the reader stops when they are in
+ * flight and resumes when the consumer takes one, so a slow consumer holds back the reading and the memory stays
+ * bounded by maxPending chunks. A line longer than the chunk size is held in a single larger chunk.
+ *
+ * Reads of the input are declared to the pool as blocking, so that a slow input does not starve the parsing.
+ */
+public final class NdjsonCursor<T> implements ForwardCursor, Iterable<T>, Closeable {
+
+    /**
+     * Default size of the chunks.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final JsonFactory   factory;
+    private final ObjectReader  reader;
+    private final InputStream   input;
+    private final ForkJoinPool  pool;
+    private final int           chunkSize;
+    private final int           maxPending;
+
+    // Chunks in input order, followed by end once the input is read.
+    private final LinkedBlockingQueue<ForkJoinTask<Batch<T>>> pending = new LinkedBlockingQueue<>();
+    private final ForkJoinTask<Batch<T>> end = ForkJoinTask.adapt( () -> null );
+
+    // Chunks submitted and not yet taken by the consumer.
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Held by the reader task while it runs, and for good once the input is closed.
+    private final AtomicBoolean reading = new AtomicBoolean();
+
+    private volatile boolean     closed;
+    private volatile boolean     inputEof;
+    private volatile IOException inputError;
+
+    // Bytes following the last newline of the previous chunk, only used by the reader task.
+    private byte[] carry       = EMPTY;
+    private int    carryLength = 0;
+
+    private Batch<T> batch;
+    private int      position;
+    private long     lines;
+
+    private long    ordinal = -1;
+    private T       current;
+    private T       fetched;
+    private boolean lookahead;
+    private boolean eof;
+
+    NdjsonCursor( JsonFactory factory, ObjectReader reader, InputStream input, ForkJoinPool pool, int chunkSize,
+                  int maxPending ) {
+        if ( chunkSize <= 0 || maxPending <= 0 ) {
+            throw new IllegalArgumentException( "Chunk size and pending chunks must be positive." );
+        }
+        this.factory = factory;
+        this.reader = reader;
+        this.input = input;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Values of a chunk, and the error that stopped the parsing of the chunk, if any.
+     */
+    private static final class Batch<T> {
+
+        final List<T> values = new ArrayList<>();
+        int       lines;
+        Exception error;
+        int       errorLine;
+    }
+
+    /**
+     * Parse the chunk, on the pool.
+     */
+    private Batch<T> parse( byte[] chunk, int length ) {
+        Batch<T> result = new Batch<>();
+        for ( int i = 0; i < length; i++ ) {
+            if ( chunk[i] == '\n' ) {
+                result.lines++;
+            }
+        }
+        // Line of the value being read, errors are reported on the line where the value starts.
+        int line = 0;
+        try ( JsonParser parser = factory.createParser( chunk, 0, length ) ) {
+            MappingIterator<T> values = reader.readValues( parser );
+            while ( values.hasNextValue() ) {
+                line = parser.getTokenLocation().getLineNr();
+                result.values.add( values.nextValue() );
+                line = 0;
+            }
+        } catch ( Exception e ) {
+            JsonLocation location = e instanceof JsonProcessingException ?
+                    ( (JsonProcessingException) e ).getLocation() : null;
+            result.error = e;
+            result.errorLine = line > 0 ? line : location != null ? location.getLineNr() : 1;
+        }
+        return result;
+    }
+
+    /**
+     * Read from the input, letting the pool compensate for the blocked thread.
+     */
+    private int read( byte[] buffer, int offset, int length ) throws IOException {
+        int[] n = new int[1];
+        IOException[] error = new IOException[1];
+        try {
+            ForkJoinPool.managedBlock( new ForkJoinPool.ManagedBlocker() {
+
+                @Override
+                public boolean block() {
+                    try {
+                        n[0] = input.read( buffer, offset, length );
+                    } catch ( IOException e ) {
+                        error[0] = e;
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return false;
+                }
+            } );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if ( error[0] != null ) {
+            throw error[0];
+        }
+        return n[0];
+    }
+
+    /**
+     * Read the next chunk, ending after a newline unless it is the last one.
+     *
+     * @return The chunk, or null at the end of the input.
+     */
+    private byte[] readChunk( int[] length ) throws IOException {
+        byte[] buffer = Arrays.copyOf( carry, carryLength + chunkSize );
+        int filled = carryLength;
+        int searched = carryLength;
+        while ( true ) {
+            int n = read( buffer, filled, buffer.length - filled );
+            if ( n < 0 ) {
+                inputEof = true;
+                carry = EMPTY;
+                carryLength = 0;
+                length[0] = filled;
+                return filled > 0 ? buffer : null;
+            }
+            filled += n;
+            if ( filled == buffer.length ) {
+                for ( int i = filled - 1; i >= searched; i-- ) {
+                    if ( buffer[i] == '\n' ) {
+                        carryLength = filled - i - 1;
+                        carry = Arrays.copyOfRange( buffer, i + 1, filled );
+                        length[0] = i + 1;
+                        return buffer;
+                    }
+                }
+                // No newline yet, the line does not fit in a chunk.
+                searched = filled;
+                buffer = Arrays.copyOf( buffer, buffer.length + chunkSize );
+            }
+        }
+    }
+
+    /**
+     * Start the reader task, unless it is running or there is nothing to read.
+     */
+    private void startReader() {
+        if ( !inputEof && !closed && inFlight.get() < maxPending && reading.compareAndSet( false, true ) ) {
+            pool.execute( this::readChunks );
+        }
+    }
+
+    /**
+     * Reader task: read and submit chunks until maxPending are in flight or the input ends.
+     */
+    private void readChunks() {
+        try {
+            int[] length = new int[1];
+            while ( inFlight.get() < maxPending && !inputEof && !closed ) {
+                byte[] chunk = readChunk( length );
+                if ( chunk != null ) {
+                    int chunkLength = length[0];
+                    inFlight.incrementAndGet();
+                    pending.add( pool.submit( () -> parse( chunk, chunkLength ) ) );
+                }
+            }
+        } catch ( Throwable e ) {
+            // Reported to the consumer after the chunks already read.
+            inputError = e instanceof IOException ? (IOException) e : new IOException( e );
+            inputEof = true;
+        } finally {
+            if ( inputEof ) {
+                pending.add( end );
+            }
+            reading.set( false );
+        }
+        if ( closed ) {
+            closeInput();
+        } else {
+            // The consumer may have taken a chunk while the reader was stopping.
+            startReader();
+        }
+    }
+
+    /**
+     * Close the input once the reader task is stopped, from the consumer or the reader, whichever comes last.
+     */
+    private void closeInput() {
+        if ( reading.compareAndSet( false, true ) ) {
+            try {
+                input.close();
+            } catch ( IOException ignored ) {
+            }
+        }
+    }
+
+    /**
+     * Read the next value into fetched.
+     *
+     * @return false at the end of the input.
+     */
+    private boolean fetch() {
+        if ( eof ) {
+            return false;
+        }
+        try {
+            while ( batch == null || position >= batch.values.size() ) {
+                if ( batch != null ) {
+                    if ( batch.error != null ) {
+                        long line = lines + batch.errorLine;
+                        Exception error = batch.error;
+                        closeQuietly();
+                        throw new ParseException( "Malformed line #" + line + ": " + error.getMessage(), error );
+                    }
+                    lines += batch.lines;
+                    batch = null;
+                }
+                startReader();
+                ForkJoinTask<Batch<T>> task = pending.take();
+                if ( task == end ) {
+                    IOException error = inputError;
+                    closeQuietly();
+                    if ( error != null ) {
+                        throw error;
+                    }
+                    return false;
+                }
+                inFlight.decrementAndGet();
+                startReader();
+                batch = task.join();
+                position = 0;
+            }
+            fetched = batch.values.get( position++ );
+            return true;
+        } catch ( IOException e ) {
+            closeQuietly();
+            throw new ParseException( e );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            closeQuietly();
+            throw new ParseException( e );
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch ( IOException ignored ) {
+        }
+    }
+
+    @Override
+    public boolean bof() {
+        return ordinal < 0;
+    }
+
+    @Override
+    public boolean eof() {
+        return eof && !lookahead;
+    }
+
+    @Override
+    public boolean next() {
+        boolean found = lookahead || fetch();
+        lookahead = false;
+        current = found ? fetched : null;
+        fetched = null;
+        if ( found ) {
+            ordinal++;
+        }
+        return found;
+    }
+
+    /**
+     * @return The current value.
+     */
+    public T get() {
+        if ( bof() || eof() ) {
+            throw new IllegalStateException( bof() ? "Cursor is before the first element." : "Cursor is at end of file." );
+        }
+        return current;
+    }
+
+    /**
+     * @return The zero-based ordinal of the current value, -1 before the first value.
+     */
+    public long getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * @return An iterator over the remaining values, moving this cursor along.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                if ( !lookahead ) {
+                    lookahead = fetch();
+                }
+                return lookahead;
+            }
+
+            @Override
+            public T next() {
+                if ( !NdjsonCursor.this.next() ) {
+                    throw new NoSuchElementException();
+                }
+                return current;
+            }
+        };
+    }
+
+    /**
+     * @return An ordered, sequential spliterator over the remaining values.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize( iterator(), Spliterator.ORDERED );
+    }
+
+    /**
+     * @return A sequential stream over the remaining values. Closing the stream closes the cursor.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream( spliterator(), false ).onClose( this::closeQuietly );
+    }
+
+    /**
+     * Cancel the chunks in flight and close the input. If the reader task is running, it closes the input when its
+     * current read returns.
+     */
+    @Override
+    public void close() throws IOException {
+        eof = true;
+        batch = null;
+        closed = true;
+        for ( ForkJoinTask<Batch<T>> task : pending ) {
+            task.cancel( false );
+        }
+        pending.clear();
+        closeInput();
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import org.dbrain.data.cursor.ForwardCursor;
+import org.dbrain.data.jackson.serializers.JacksonSerializationUtils;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only cursor reading a stream of JSON values one at a time: the elements of a top-level array, or a sequence
+ * of root values such as NDJSON. Only the current element is held in memory.
+ *
+ * The cursor can be used either through next() and get(), or through its iterator, both consuming the same input. It
+ * closes the parser once the end of the input is reached or an element is malformed.
+ */
+public final class NodeCursor implements ForwardCursor, Iterable<Node>, Closeable {
+
+    private final DeserializationContext ctxt;
+    private final JsonParser             parser;
+    private final boolean                array;
+
+    private long    ordinal = -1;
+    private Node    current;
+    private Node    lookahead;
+    private boolean eof;
+
+    NodeCursor( ObjectMapper objectMapper, JsonParser parser, boolean array ) {
+        this.ctxt = ( (DefaultDeserializationContext) objectMapper.getDeserializationContext() ).createInstance(
+                objectMapper.getDeserializationConfig(), parser, objectMapper.getInjectableValues() );
+        this.parser = parser;
+        this.array = array;
+    }
+
+    /**
+     * Read the next element, or null at the end of the input.
+     */
+    private Node fetch() {
+        if ( eof ) {
+            return null;
+        }
+        long index = ordinal + 1;
+        try {
+            JsonToken token = parser.nextToken();
+            if ( array && index == 0 ) {
+                if ( token != JsonToken.START_ARRAY ) {
+                    throw new ParseException( "Expected a JSON array, found: " + token );
+                }
+                token = parser.nextToken();
+            }
+            if ( token == null && !array || token == JsonToken.END_ARRAY && array ) {
+                if ( array && parser.nextToken() != null ) {
+                    throw new ParseException( "Unexpected json token after array: " + parser.getCurrentToken() );
+                }
+                close();
+                return null;
+            } else if ( token == null ) {
+                throw new ParseException( "Unexpected end of input." );
+            }
+            return JacksonSerializationUtils.parseValue( parser, ctxt );
+        } catch ( Exception e ) {
+            closeQuietly();
+            throw new ParseException( "Malformed element #" + index + ": " + e.getMessage(), e );
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch ( IOException ignored ) {
+        }
+    }
+
+    @Override
+    public boolean bof() {
+        return ordinal < 0;
+    }
+
+    @Override
+    public boolean eof() {
+        return eof && lookahead == null;
+    }
+
+    @Override
+    public boolean next() {
+        Node node = lookahead != null ? lookahead : fetch();
+        lookahead = null;
+        current = node;
+        if ( node != null ) {
+            ordinal++;
+        }
+        return node != null;
+    }
+
+    /**
+     * @return The current element.
+     */
+    public Node get() {
+        if ( current == null ) {
+            throw new IllegalStateException( bof() ? "Cursor is before the first element." : "Cursor is at end of file." );
+        }
+        return current;
+    }
+
+    /**
+     * @return The zero-based ordinal of the current element, -1 before the first element.
+     */
+    public long getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * @return An iterator over the remaining elements, moving this cursor along.
+     */
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<Node>() {
+
+            @Override
+            public boolean hasNext() {
+                if ( lookahead == null ) {
+                    lookahead = fetch();
+                }
+                return lookahead != null;
+            }
+
+            @Override
+            public Node next() {
+                if ( !NodeCursor.this.next() ) {
+                    throw new NoSuchElementException();
+                }
+                return current;
+            }
+        };
+    }
+
+    /**
+     * @return An ordered, sequential spliterator over the remaining elements.
+     */
+    @Override
+    public Spliterator<Node> spliterator() {
+        return Spliterators.spliteratorUnknownSize( iterator(), Spliterator.ORDERED | Spliterator.NONNULL );
+    }
+
+    /**
+     * @return A sequential stream over the remaining elements. Closing the stream closes the cursor.
+     */
+    public Stream<Node> stream() {
+        return StreamSupport.stream( spliterator(), false ).onClose( this::closeQuietly );
+    }
+
+    @Override
+    public void close() throws IOException {
+        eof = true;
+        current = null;
+        lookahead = null;
+        parser.close();
+    }
+
+}
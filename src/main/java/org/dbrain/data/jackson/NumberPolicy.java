@@ -0,0 +1,40 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+/**
+ * How numbers are turned into Nodes while reading Values.
+ */
+public enum NumberPolicy {
+
+    /**
+     * Integers are read as long when the parser reports they fit, decimals as double. This is the default.
+     */
+    FAST,
+
+    /**
+     * Integers are read as in FAST, decimals as BigDecimal so no digit is lost.
+     */
+    EXACT,
+
+    /**
+     * The literal text is kept and only parsed when the value is first requested. Decimals are then exact, as in
+     * EXACT. Best when most numbers of a document are never read.
+     */
+    LAZY
+
+}
@@ -25,11 +25,14 @@ import org.dbrain.data.Path;
 import org.dbrain.data.tree.Node;
 import org.dbrain.data.tree.NodeList;
 import org.dbrain.data.tree.NodeMap;
+import org.dbrain.data.tree.Patch;
 import org.dbrain.data.jackson.serializers.FqnDeserializer;
 import org.dbrain.data.jackson.serializers.FqnSerializer;
 import org.dbrain.data.jackson.serializers.JsonBigDecimalSerializer;
 import org.dbrain.data.jackson.serializers.JsonBigIntegerSerializer;
 import org.dbrain.data.jackson.serializers.JsonLongSerializer;
+import org.dbrain.data.jackson.serializers.JsonPatchDeserializer;
+import org.dbrain.data.jackson.serializers.JsonPatchSerializer;
 import org.dbrain.data.jackson.serializers.JsonValueDeserializer;
 import org.dbrain.data.jackson.serializers.JsonValueListDeserializer;
 import org.dbrain.data.jackson.serializers.JsonValueMapDeserializer;
@@ -69,6 +72,7 @@ public class StandardModule extends Module {
         serializers.addSerializer( Path.class, new PathSerializer() );
         serializers.addSerializer( Fqn.class, new FqnSerializer() );
         serializers.addSerializer( Node.class, new JsonValueSerializer() );
+        serializers.addSerializer( Patch.class, new JsonPatchSerializer() );
         context.addSerializers( serializers );
 
         SimpleDeserializers deserializers = new SimpleDeserializers();
@@ -77,6 +81,7 @@ public class StandardModule extends Module {
         deserializers.addDeserializer( NodeList.class, new JsonValueListDeserializer() );
         deserializers.addDeserializer( Path.class, new PathDeserializer() );
         deserializers.addDeserializer( Fqn.class, new FqnDeserializer() );
+        deserializers.addDeserializer( Patch.class, new JsonPatchDeserializer() );
         context.addDeserializers( deserializers );
 
     }
@@ -20,7 +20,9 @@ public class FqnDeserializer extends JsonDeserializer<Fqn> {
         if ( t == JsonToken.VALUE_NULL ) {
             return null;
         } else if ( t == JsonToken.VALUE_STRING ) {
-            return Fqn.of( jsonParser.getText() );
+            String text = jsonParser.getText();
+            return JacksonSerializationUtils.isInterning( deserializationContext ) ? Fqn.ofInterned( text ) :
+                    Fqn.of( text );
         } else {
             throw deserializationContext.wrongTokenException( jsonParser, JsonToken.VALUE_STRING, "" );
         }
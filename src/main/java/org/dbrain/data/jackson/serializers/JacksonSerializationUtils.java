@@ -19,9 +19,12 @@ package org.dbrain.data.jackson.serializers;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import org.dbrain.data.jackson.NumberPolicy;
 import org.dbrain.data.tree.Node;
 import org.dbrain.data.tree.NodeList;
-import org.dbrain.data.tree.NodeMap;
+import org.dbrain.data.impl.value.CompactMapValueImpl;
+import org.dbrain.data.impl.value.LazyNumberValueImpl;
+import org.dbrain.data.impl.value.LongValueImpl;
 import org.dbrain.data.impl.value.NullValueImpl;
 
 import java.io.IOException;
@@ -31,6 +34,11 @@ import java.io.IOException;
  */
 public class JacksonSerializationUtils {
 
+    /**
+     * Deserialization attribute, Boolean.TRUE if the Fqn and Path read are interned.
+     */
+    public static final String INTERNING = "org.dbrain.data.interning";
+
     /**
      * Helper method to ensure to get the current token.
      */
@@ -38,7 +46,48 @@ public class JacksonSerializationUtils {
         return parser.hasCurrentToken() ? parser.getCurrentToken() : parser.nextToken();
     }
 
+    /**
+     * @return true if the Fqn and Path read are interned.
+     */
+    public static boolean isInterning( DeserializationContext ctxt ) {
+        return ctxt != null && Boolean.TRUE.equals( ctxt.getAttribute( INTERNING ) );
+    }
+
+    /**
+     * @return The number policy configured on the context, FAST if none.
+     */
+    public static NumberPolicy getNumberPolicy( DeserializationContext ctxt ) {
+        NumberPolicy policy = ctxt != null ? (NumberPolicy) ctxt.getAttribute( NumberPolicy.class ) : null;
+        return policy != null ? policy : NumberPolicy.FAST;
+    }
+
     public static Node parseValue(JsonParser parser, DeserializationContext ctxt  ) throws IOException {
+        return parseValue( parser, ctxt, getNumberPolicy( ctxt ) );
+    }
+
+    /**
+     * Read the current number token according to the policy.
+     */
+    public static Node parseNumber( JsonParser parser, NumberPolicy numbers ) throws IOException {
+        boolean integral = parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT;
+        if ( numbers == NumberPolicy.LAZY ) {
+            return new LazyNumberValueImpl( parser.getText(), integral );
+        } else if ( integral ) {
+            JsonParser.NumberType type = parser.getNumberType();
+            if ( type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG ) {
+                return new LongValueImpl( parser.getLongValue() );
+            } else {
+                return Node.of( parser.getBigIntegerValue() );
+            }
+        } else if ( numbers == NumberPolicy.EXACT ) {
+            return Node.of( parser.getDecimalValue() );
+        } else {
+            return Node.of( parser.getDoubleValue() );
+        }
+    }
+
+    private static Node parseValue( JsonParser parser, DeserializationContext ctxt, NumberPolicy numbers )
+            throws IOException {
         JsonToken token = getToken( parser );
         if ( token != null ) {
             Node result;
@@ -47,10 +96,8 @@ public class JacksonSerializationUtils {
                     result = Node.of( parser.getValueAsString() );
                     break;
                 case VALUE_NUMBER_FLOAT:
-                    result = Node.of( parser.getDoubleValue() );
-                    break;
                 case VALUE_NUMBER_INT:
-                    result = Node.of( parser.getBigIntegerValue() );
+                    result = parseNumber( parser, numbers );
                     break;
                 case VALUE_NULL:
                     result = NullValueImpl.NULL;
@@ -62,11 +109,12 @@ public class JacksonSerializationUtils {
                     result = Node.of( Boolean.FALSE );
                     break;
                 case START_OBJECT: {
-                    NodeMap values = NodeMap.newInstance();
+                    CompactMapValueImpl values = new CompactMapValueImpl();
                     while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+                        // The JsonFactory already canonicalizes field names.
                         String key = parser.getCurrentName();
                         parser.nextToken();
-                        Node v = parseValue( parser, ctxt );
+                        Node v = parseValue( parser, ctxt, numbers );
                         if ( v == null ) {
                             throw ctxt.wrongTokenException( parser, JsonToken.START_OBJECT, "Expected Value" );
                         }
@@ -77,13 +125,14 @@ public class JacksonSerializationUtils {
                     } else {
                         throw ctxt.wrongTokenException( parser, JsonToken.END_OBJECT, null );
                     }
+                    values.trimToSize();
                     result = values;
                 }
                 break;
                 case START_ARRAY: {
                     NodeList values = NodeList.newInstance();
                     while ( parser.nextToken() != JsonToken.END_ARRAY ) {
-                        Node v = parseValue( parser, ctxt );
+                        Node v = parseValue( parser, ctxt, numbers );
                         if ( v == null ) {
                             throw ctxt.wrongTokenException( parser, JsonToken.START_OBJECT, "Expected Value" );
                         }
@@ -29,19 +29,26 @@ import java.math.BigInteger;
  */
 public class JsonBigDecimalSerializer extends JsonSerializer<BigDecimal> {
 
-    private BigInteger MAX_VALUE = new BigInteger( "999999999999999" );
-    private BigInteger MIN_VALUE = new BigInteger( "-999999999999999" );
+    private static final BigInteger MAX_VALUE = new BigInteger( "999999999999999" );
+    private static final BigInteger MIN_VALUE = new BigInteger( "-999999999999999" );
+
+    /**
+     * Write a non-null value, as a number if it has at most 15 significant digits.
+     */
+    static void write( BigDecimal value, JsonGenerator jgen ) throws IOException {
+        // Does it have more that 15 significant digits ?
+        BigInteger unscaled = value.unscaledValue();
+        if ( unscaled.compareTo( MIN_VALUE ) >= 0 && unscaled.compareTo( MAX_VALUE ) <= 0 ) {
+            jgen.writeNumber( value );
+        } else {
+            jgen.writeString( value.toString() );
+        }
+    }
 
     @Override
     public void serialize( BigDecimal value, JsonGenerator jgen, SerializerProvider provider ) throws IOException {
         if ( value != null ) {
-            // Does it have more that 15 significant digits ?
-            BigInteger unscaled = value.unscaledValue();
-            if ( unscaled.compareTo( MIN_VALUE ) >= 0 && unscaled.compareTo( MAX_VALUE ) <= 0 ) {
-                jgen.writeNumber( value );
-            } else {
-                jgen.writeString( value.toString() );
-            }
+            write( value, jgen );
         } else {
             jgen.writeNull();
         }
@@ -29,18 +29,24 @@ import java.io.IOException;
  */
 public class JsonLongSerializer extends JsonSerializer<Number> {
 
-    private long MAX_VALUE = 999999999999999l;
-    private long MIN_VALUE = -999999999999999l;
+    static final long MAX_VALUE = 999999999999999l;
+    static final long MIN_VALUE = -999999999999999l;
+
+    /**
+     * Write a value, as a number if it has at most 15 digits.
+     */
+    static void write( long value, JsonGenerator jgen ) throws IOException {
+        if ( value >= MIN_VALUE && value <= MAX_VALUE ) {
+            jgen.writeNumber( value );
+        } else {
+            jgen.writeString( Long.toString( value ) );
+        }
+    }
 
     @Override
     public void serialize( Number value, JsonGenerator jgen, SerializerProvider provider ) throws IOException {
         if ( value != null ) {
-            long longValue = value.longValue();
-            if ( longValue >= MIN_VALUE && longValue <= MAX_VALUE ) {
-                jgen.writeNumber( longValue );
-            } else {
-                jgen.writeString( value.toString() );
-            }
+            write( value.longValue(), jgen );
         } else {
             jgen.writeNull();
         }
@@ -0,0 +1,114 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson.serializers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.dbrain.data.Path;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.Patch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read a Patch from a JSON Patch (RFC 6902) document. The test and copy operations are not supported.
+ */
+public class JsonPatchDeserializer extends JsonDeserializer<Patch> {
+
+    @Override
+    public Patch deserialize( JsonParser parser, DeserializationContext ctxt ) throws IOException, JsonProcessingException {
+        if ( JacksonSerializationUtils.getToken( parser ) != JsonToken.START_ARRAY ) {
+            throw ctxt.wrongTokenException( parser, Patch.class, JsonToken.START_ARRAY, "Expected JSON Patch" );
+        }
+        List<Patch.Operation> operations = new ArrayList<>();
+        while ( parser.nextToken() == JsonToken.START_OBJECT ) {
+            operations.add( readOperation( parser, ctxt ) );
+        }
+        if ( JacksonSerializationUtils.getToken( parser ) != JsonToken.END_ARRAY ) {
+            throw ctxt.wrongTokenException( parser, Patch.class, JsonToken.END_ARRAY, null );
+        }
+        return Patch.of( operations );
+    }
+
+    private Path readPath( JsonParser parser, DeserializationContext ctxt ) throws IOException {
+        if ( parser.nextToken() != JsonToken.VALUE_STRING ) {
+            throw ctxt.wrongTokenException( parser, Path.class, JsonToken.VALUE_STRING, "Expected JSON Pointer" );
+        }
+        try {
+            return JsonPointers.toPath( parser.getText() );
+        } catch ( IllegalArgumentException e ) {
+            throw JsonMappingException.from( parser, e.getMessage(), e );
+        }
+    }
+
+    private Patch.Operation readOperation( JsonParser parser, DeserializationContext ctxt ) throws IOException {
+        String op = null;
+        Path path = null;
+        Path from = null;
+        Node value = null;
+        while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+            String field = parser.getCurrentName();
+            switch ( field ) {
+                case "op":
+                    parser.nextToken();
+                    op = parser.getValueAsString();
+                    break;
+                case "path":
+                    path = readPath( parser, ctxt );
+                    break;
+                case "from":
+                    from = readPath( parser, ctxt );
+                    break;
+                case "value":
+                    parser.nextToken();
+                    value = JacksonSerializationUtils.parseValue( parser, ctxt );
+                    break;
+                default:
+                    parser.nextToken();
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if ( op == null || path == null ) {
+            throw JsonMappingException.from( parser, "Patch operation requires op and path." );
+        }
+        switch ( op ) {
+            case "add":
+            case "replace":
+                // A null literal is a value, only a missing member is rejected.
+                if ( value == null ) {
+                    throw JsonMappingException.from( parser, "Patch operation " + op + " requires value." );
+                }
+                return op.equals( "add" ) ? Patch.add( path, value ) : Patch.replace( path, value );
+            case "remove":
+                return Patch.remove( path );
+            case "move":
+                if ( from == null ) {
+                    throw JsonMappingException.from( parser, "Move operation requires from." );
+                }
+                return Patch.move( from, path );
+            default:
+                throw JsonMappingException.from( parser, "Unsupported patch operation: " + op );
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.dbrain.data.tree.Patch;
+
+import java.io.IOException;
+
+/**
+ * Write a Patch as a JSON Patch (RFC 6902) document.
+ */
+public class JsonPatchSerializer extends JsonSerializer<Patch> {
+
+    private final JsonValueSerializer valueSerializer = new JsonValueSerializer();
+
+    @Override
+    public void serialize( Patch patch,
+                           JsonGenerator w,
+                           SerializerProvider provider ) throws IOException, JsonProcessingException {
+        w.writeStartArray();
+        for ( Patch.Operation op : patch.getOperations() ) {
+            w.writeStartObject();
+            w.writeStringField( "op", op.getType().name().toLowerCase() );
+            if ( op.getFrom() != null ) {
+                w.writeStringField( "from", JsonPointers.toPointer( op.getFrom() ) );
+            }
+            w.writeStringField( "path", JsonPointers.toPointer( op.getPath() ) );
+            if ( op.getValue() != null ) {
+                w.writeFieldName( "value" );
+                valueSerializer.writeValue( op.getValue(), w );
+            }
+            w.writeEndObject();
+        }
+        w.writeEndArray();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson.serializers;
+
+import org.dbrain.data.Path;
+
+/**
+ * Conversion between Path and JSON Pointer (RFC 6901).
+ */
+final class JsonPointers {
+
+    private JsonPointers() {
+    }
+
+    /**
+     * @return The JSON Pointer of the path.
+     */
+    static String toPointer( Path path ) {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < path.size(); i++ ) {
+            sb.append( '/' );
+            if ( path.nodeType( i ) == Path.NodeType.INDEX ) {
+                sb.append( path.index( i ) );
+            } else {
+                String attr = path.attr( i );
+                for ( int j = 0; j < attr.length(); j++ ) {
+                    char c = attr.charAt( j );
+                    if ( c == '~' ) {
+                        sb.append( "~0" );
+                    } else if ( c == '/' ) {
+                        sb.append( "~1" );
+                    } else {
+                        sb.append( c );
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return The path of the JSON Pointer. Tokens made of digits become indexes.
+     * @throws IllegalArgumentException if the pointer is not empty and does not start with '/'.
+     */
+    static Path toPath( String pointer ) {
+        if ( pointer.isEmpty() ) {
+            return Path.empty();
+        } else if ( pointer.charAt( 0 ) != '/' ) {
+            throw new IllegalArgumentException( "Invalid JSON Pointer: " + pointer );
+        }
+        Path.Builder builder = Path.newBuilder();
+        int start = 1;
+        while ( true ) {
+            int end = pointer.indexOf( '/', start );
+            String token = pointer.substring( start, end < 0 ? pointer.length() : end );
+            if ( isIndex( token ) ) {
+                builder.index( Long.parseLong( token ) );
+            } else {
+                builder.attr( token.replace( "~1", "/" ).replace( "~0", "~" ) );
+            }
+            if ( end < 0 ) {
+                break;
+            }
+            start = end + 1;
+        }
+        return builder.build();
+    }
+
+    // Array index without leading zeros, as defined by the RFC.
+    private static boolean isIndex( String token ) {
+        if ( token.isEmpty() || token.length() > 18 || ( token.length() > 1 && token.charAt( 0 ) == '0' ) ) {
+            return false;
+        }
+        for ( int i = 0; i < token.length(); i++ ) {
+            char c = token.charAt( i );
+            if ( c < '0' || c > '9' ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -18,27 +18,72 @@ package org.dbrain.data.jackson.serializers;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import org.dbrain.data.impl.value.AbstractNumberValueImpl;
+import org.dbrain.data.impl.value.BoolValueImpl;
+import org.dbrain.data.impl.value.DoubleValueImpl;
+import org.dbrain.data.impl.value.LazyNumberValueImpl;
+import org.dbrain.data.impl.value.LongValueImpl;
+import org.dbrain.data.impl.value.StringValueImpl;
 import org.dbrain.data.tree.Node;
 import org.dbrain.data.tree.NodeList;
 import org.dbrain.data.tree.NodeMap;
 
 import java.io.IOException;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Created by epoitras on 08/01/15.
+ *
+ * Scalars are written with the generator methods matching their implementation, no serializer is looked up. Numbers
+ * follow the rules of JsonLongSerializer and JsonBigDecimalSerializer, a lazy number already in that form is written
+ * from its literal. Field names are written from a bounded table of SerializedString, grouped in sets of two like the
+ * KeyTable, so repeated keys are only encoded once.
  */
 public class JsonValueSerializer extends JsonSerializer<Node> {
 
+    private static final int FIELD_NAMES_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<SerializedString> fieldNames =
+            new AtomicReferenceArray<>( FIELD_NAMES_CAPACITY );
+
+    /**
+     * @return The encoded field name. A missing name goes first in its set, evicting the second one.
+     */
+    private SerializedString fieldName( String key ) {
+        int h = key.hashCode();
+        int slot = ( h ^ ( h >>> 16 ) ) << 1 & ( FIELD_NAMES_CAPACITY - 2 );
+        for ( int way = slot; way < slot + 2; way++ ) {
+            SerializedString current = fieldNames.get( way );
+            if ( current != null ) {
+                String value = current.getValue();
+                if ( value == key || value.equals( key ) ) {
+                    return current;
+                }
+            }
+        }
+        SerializedString result = new SerializedString( key );
+        fieldNames.lazySet( slot + 1, fieldNames.get( slot ) );
+        fieldNames.lazySet( slot, result );
+        return result;
+    }
+
     private void writeMap(NodeMap value, JsonGenerator w ) throws IOException {
         w.writeStartObject();
         try {
-            for ( Map.Entry<String, Node> e : value.entrySet() ) {
-                w.writeFieldName( e.getKey() );
-                writeValue( e.getValue(), w );
-            }
+            value.forEach( ( key, node ) -> {
+                try {
+                    w.writeFieldName( fieldName( key ) );
+                    writeValue( node, w );
+                } catch ( IOException e ) {
+                    throw new UncheckedIOException( e );
+                }
+            } );
+        } catch ( UncheckedIOException e ) {
+            throw e.getCause();
         } finally {
             w.writeEndObject();
         }
@@ -51,7 +96,88 @@ public class JsonValueSerializer extends JsonSerializer<Node> {
                 writeValue( e, w );
             }
         } finally {
-            w.writeEndObject();
+            w.writeEndArray();
+        }
+    }
+
+    /**
+     * Write a double, as its BigDecimal form would be written.
+     */
+    private static void writeDouble( DoubleValueImpl node, JsonGenerator w ) throws IOException {
+        double value = node.doubleValue();
+        double abs = Math.abs( value );
+        if ( abs <= JsonLongSerializer.MAX_VALUE && value == (long) value && (long) value % 10 != 0 ) {
+            // Integer without trailing zero, written the same as a long.
+            w.writeNumber( (long) value );
+        } else if ( abs >= 1e-3 && abs < 1e7 && value != (long) value && w.canWriteFormattedNumbers() ) {
+            // In this range, Double.toString and BigDecimal agree on the plain notation. Binary formats cannot write
+            // a number literal, they go through the BigDecimal.
+            String s = Double.toString( value );
+            if ( significantDigits( s ) <= 15 ) {
+                w.writeNumber( s );
+            } else {
+                w.writeString( s );
+            }
+        } else {
+            JsonBigDecimalSerializer.write( node.getBigDecimal(), w );
+        }
+    }
+
+    // Number of significant digits of a plain decimal literal.
+    private static int significantDigits( String s ) {
+        int count = 0;
+        boolean leading = true;
+        for ( int i = 0; i < s.length(); i++ ) {
+            char c = s.charAt( i );
+            if ( c >= '1' && c <= '9' || c == '0' && !leading ) {
+                leading = false;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return true if the literal is written the same by the BigDecimal or long path: at most 15 significant digits,
+     * no exponent, no trailing zero in the fraction and no scientific notation of a small decimal.
+     */
+    static boolean isCanonical( String literal ) {
+        int length = literal.length();
+        int i = literal.startsWith( "-" ) ? 1 : 0;
+        int digits = 0;
+        int zeros = 0;
+        boolean leading = true;
+        boolean fraction = false;
+        for ( ; i < length; i++ ) {
+            char c = literal.charAt( i );
+            if ( c == '.' ) {
+                fraction = true;
+            } else if ( c < '0' || c > '9' ) {
+                return false;
+            } else if ( c != '0' || !leading ) {
+                leading = false;
+                digits++;
+            } else if ( fraction ) {
+                zeros++;
+            }
+        }
+        if ( digits > 15 ) {
+            return false;
+        } else if ( fraction ) {
+            // 0.0000001 is written 1E-7.
+            return literal.charAt( length - 1 ) != '0' && zeros <= 5;
+        } else {
+            // -0 is written 0.
+            return digits > 0 || literal.length() == 1;
+        }
+    }
+
+    private static void writeLazy( LazyNumberValueImpl node, JsonGenerator w ) throws IOException {
+        String literal = node.getLiteral();
+        if ( w.canWriteFormattedNumbers() && isCanonical( literal ) ) {
+            w.writeNumber( literal );
+        } else {
+            JsonBigDecimalSerializer.write( node.getBigDecimal(), w );
         }
     }
 
@@ -65,6 +191,18 @@ public class JsonValueSerializer extends JsonSerializer<Node> {
             writeMap( (NodeMap) node, w );
         } else if ( node instanceof NodeList) {
             writeList( (NodeList) node, w );
+        } else if ( node instanceof StringValueImpl ) {
+            w.writeString( node.getString() );
+        } else if ( node instanceof LongValueImpl ) {
+            JsonLongSerializer.write( ( (LongValueImpl) node ).longValue(), w );
+        } else if ( node instanceof DoubleValueImpl ) {
+            writeDouble( (DoubleValueImpl) node, w );
+        } else if ( node instanceof BoolValueImpl ) {
+            w.writeBoolean( node.getBoolean() );
+        } else if ( node instanceof LazyNumberValueImpl ) {
+            writeLazy( (LazyNumberValueImpl) node, w );
+        } else if ( node instanceof AbstractNumberValueImpl ) {
+            JsonBigDecimalSerializer.write( ( (AbstractNumberValueImpl) node ).getBigDecimal(), w );
         } else {
             w.writeObject( node.getObject() );
         }
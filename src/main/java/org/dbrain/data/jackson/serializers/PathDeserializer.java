@@ -20,7 +20,9 @@ public class PathDeserializer extends JsonDeserializer<Path> {
         if ( t == JsonToken.VALUE_NULL ) {
             return null;
         } else if ( t == JsonToken.VALUE_STRING ) {
-            return Path.of( jsonParser.getText() );
+            String text = jsonParser.getText();
+            return JacksonSerializationUtils.isInterning( deserializationContext ) ? Path.ofInterned( text ) :
+                    Path.of( text );
         } else {
             throw deserializationContext.wrongTokenException( jsonParser, JsonToken.VALUE_STRING, "" );
         }
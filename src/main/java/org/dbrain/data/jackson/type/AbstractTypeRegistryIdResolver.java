@@ -7,6 +7,11 @@ import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.dbrain.data.TypeRegistry;
 
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Abstract class to implement concrete custom type id resolver.
  *
@@ -19,6 +24,54 @@ public abstract class AbstractTypeRegistryIdResolver implements TypeIdResolver {
 
 	protected abstract TypeRegistry getTypeRegistry();
 
+	// Java types by id, one table per type factory. TypeFactory does not override equals, so the weak map is keyed on
+	// identity, and does not keep the factories of discarded mappers.
+	private final Map<TypeFactory, TypeTable> typeTables = new WeakHashMap<>();
+
+	// Table of the last type factory used, read without locking.
+	private volatile TypeTable lastTypeTable;
+
+	/**
+	 * Java types of all the registered ids, for one type factory.
+	 */
+	private static final class TypeTable {
+
+		private final WeakReference<TypeFactory> typeFactory;
+		private final Map<String, JavaType>      types = new HashMap<>();
+
+		TypeTable( TypeFactory typeFactory, TypeRegistry<?> registry ) {
+			this.typeFactory = new WeakReference<>( typeFactory );
+			for ( Class<?> type : registry.getTypes() ) {
+				types.put( registry.getNameByType( type ), typeFactory.constructType( type ) );
+			}
+		}
+	}
+
+	/**
+	 * @return The table of Java types built with the type factory.
+	 */
+	private TypeTable getTypeTable( TypeFactory typeFactory ) {
+		TypeTable result = lastTypeTable;
+		if ( result == null || result.typeFactory.get() != typeFactory ) {
+			synchronized ( typeTables ) {
+				result = typeTables.get( typeFactory );
+				if ( result == null ) {
+					result = new TypeTable( typeFactory, getTypeRegistry() );
+					typeTables.put( typeFactory, result );
+				}
+			}
+			lastTypeTable = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Build the Java types of all the registered ids ahead of the first read, with the type factory of the mapper.
+	 */
+	public void warmUp( TypeFactory typeFactory ) {
+		getTypeTable( typeFactory );
+	}
+
 
 	@Override
 	public void init( JavaType baseType ) {
@@ -57,11 +110,11 @@ public abstract class AbstractTypeRegistryIdResolver implements TypeIdResolver {
 
 	@Override
 	public JavaType typeFromId( DatabindContext context, String id ) {
-		Class<?> result = getTypeRegistry().getTypeByName( id );
+		JavaType result = getTypeTable( context.getTypeFactory() ).types.get( id );
 		if ( result == null ) {
 			throw new IllegalStateException( id + " not registred in type registry." );
 		}
-		return context.getTypeFactory().constructType( getTypeRegistry().getTypeByName( id ) );
+		return result;
 	}
 
 }
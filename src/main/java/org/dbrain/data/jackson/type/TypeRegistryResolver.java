@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.jsontype.*;
 import com.fasterxml.jackson.databind.jsontype.impl.*;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.dbrain.data.TypeRegistry;
 
 import java.util.ArrayList;
@@ -34,15 +35,44 @@ public class TypeRegistryResolver implements TypeResolverBuilder<TypeRegistryRes
   }
 
 
+  // Marks classes not covered by any registry.
+  private static final Entry NO_ENTRY = new Entry(null, null, null, false);
+
   private final TypeResolverBuilder delegate;
   private final List<Entry> entries;
 
+  // Most specific entry of each class, computed once per class.
+  private final ClassValue<Entry> entryByClass = new ClassValue<Entry>() {
+    @Override
+    protected Entry computeValue(Class<?> clazz) {
+      Entry result = findRegistry(clazz);
+      return result != null ? result : NO_ENTRY;
+    }
+  };
+
 
   private TypeRegistryResolver(TypeResolverBuilder delegate, List<Entry> entries) {
     this.delegate = delegate;
     this.entries = entries;
   }
 
+  /**
+   * Resolve the entries of all the registered types and build their id tables, so that the first serialization does
+   * not pay for it. The tables are built with the type factory, which must be the one of the mapper, such as
+   * objectMapper.getTypeFactory().
+   */
+  public TypeRegistryResolver warmUp(TypeFactory typeFactory) {
+    for (Entry entry : entries) {
+      TypeRegistry<?> registry = entry.getRegistry();
+      lookupRegistry(registry.getBaseClass());
+      for (Class<?> type : registry.getTypes()) {
+        lookupRegistry(type);
+      }
+      entry.getIdResolver().warmUp(typeFactory);
+    }
+    return this;
+  }
+
   @Override
   public Class<?> getDefaultImpl() {
     return delegate.getDefaultImpl();
@@ -52,21 +82,7 @@ public class TypeRegistryResolver implements TypeResolverBuilder<TypeRegistryRes
   public TypeSerializer buildTypeSerializer(SerializationConfig config, JavaType baseType, Collection<NamedType> subtypes) {
     Entry entry = lookupRegistry(baseType.getRawClass());
     if (entry != null) {
-      TypeRegistryIdResolver idRes = new TypeRegistryIdResolver(entry.getRegistry());
-      switch (entry.getInsertAs()) {
-        case WRAPPER_ARRAY:
-          return new AsArrayTypeSerializer(idRes, null);
-        case PROPERTY:
-          return new AsPropertyTypeSerializer(idRes, null, entry.getName());
-        case WRAPPER_OBJECT:
-          return new AsWrapperTypeSerializer(idRes, null);
-        case EXTERNAL_PROPERTY:
-          return new AsExternalTypeSerializer(idRes, null, entry.getName());
-        case EXISTING_PROPERTY:
-          return new AsExistingPropertyTypeSerializer(idRes, null, entry.getName());
-        default:
-          throw new IllegalStateException();
-      }
+      return entry.getTypeSerializer();
     } else {
       return delegate.buildTypeSerializer(config, baseType, subtypes);
     }
@@ -76,7 +92,7 @@ public class TypeRegistryResolver implements TypeResolverBuilder<TypeRegistryRes
   public TypeDeserializer buildTypeDeserializer(DeserializationConfig config, JavaType baseType, Collection<NamedType> subtypes) {
     Entry entry = lookupRegistry(baseType.getRawClass());
     if (entry != null) {
-      TypeRegistryIdResolver idRes = new TypeRegistryIdResolver(entry.getRegistry());
+      TypeRegistryIdResolver idRes = entry.getIdResolver();
       JavaType defaultImplJavaType = getDefaultImpl() !=  null ? config.getTypeFactory().constructType(getDefaultImpl()) : null;
       // First, method for converting type info to type id:
       switch (entry.getInsertAs()) {
@@ -128,7 +144,15 @@ public class TypeRegistryResolver implements TypeResolverBuilder<TypeRegistryRes
   }
 
 
+  /**
+   * @return The entry of the most specific registry covering the class, or null if none.
+   */
   public Entry lookupRegistry(Class clazz) {
+    Entry result = entryByClass.get(clazz);
+    return result != NO_ENTRY ? result : null;
+  }
+
+  private Entry findRegistry(Class<?> clazz) {
     Entry result = null;
     for (Entry r : entries) {
       if (r.getRegistry().getBaseClass().isAssignableFrom(clazz)) {
@@ -158,11 +182,50 @@ public class TypeRegistryResolver implements TypeResolverBuilder<TypeRegistryRes
 
     private boolean visible;
 
+    private TypeRegistryIdResolver idResolver;
+
+    private TypeSerializer typeSerializer;
+
     public Entry(TypeRegistry registry, JsonTypeInfo.As insertAs, String name, boolean visible) {
       this.registry = registry;
       this.insertAs = insertAs;
       this.name = name;
       this.visible = visible;
+      if (registry != null) {
+        this.idResolver = new TypeRegistryIdResolver(registry);
+        this.typeSerializer = buildTypeSerializer(idResolver, insertAs, name);
+      }
+    }
+
+    private static TypeSerializer buildTypeSerializer(TypeRegistryIdResolver idRes, JsonTypeInfo.As insertAs, String name) {
+      switch (insertAs) {
+        case WRAPPER_ARRAY:
+          return new AsArrayTypeSerializer(idRes, null);
+        case PROPERTY:
+          return new AsPropertyTypeSerializer(idRes, null, name);
+        case WRAPPER_OBJECT:
+          return new AsWrapperTypeSerializer(idRes, null);
+        case EXTERNAL_PROPERTY:
+          return new AsExternalTypeSerializer(idRes, null, name);
+        case EXISTING_PROPERTY:
+          return new AsExistingPropertyTypeSerializer(idRes, null, name);
+        default:
+          throw new IllegalStateException();
+      }
+    }
+
+    /**
+     * @return The id resolver of the registry, shared by all the base types of the entry.
+     */
+    public TypeRegistryIdResolver getIdResolver() {
+      return idResolver;
+    }
+
+    /**
+     * @return The type serializer, shared by all the base types of the entry. It is immutable.
+     */
+    public TypeSerializer getTypeSerializer() {
+      return typeSerializer;
     }
 
     public TypeRegistry getRegistry() {
@@ -211,7 +274,7 @@ public class TypeRegistryResolver implements TypeResolverBuilder<TypeRegistryRes
 
     public TypeRegistryResolver build() {
       TypeResolverBuilder finalDelegate = delegate != null ? delegate : StdTypeResolverBuilder.noTypeInfoBuilder();
-      return new TypeRegistryResolver(finalDelegate, entries);
+      return new TypeRegistryResolver(finalDelegate, new ArrayList<>(entries));
     }
 
   }
@@ -13,9 +13,13 @@ import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Simple body writer that stream the element to the entity,
+ *
+ * With a JacksonSerializer built with deferred parsing, the body is scanned once and its maps and lists are only
+ * decoded when the resource accesses them.
  */
 @javax.ws.rs.ext.Provider
 public class NodeBodyReader implements MessageBodyReader<Node> {
@@ -31,7 +35,7 @@ public class NodeBodyReader implements MessageBodyReader<Node> {
      */
     private static final Charset getCharset(MediaType m) {
         String name = (m == null) ? null : m.getParameters().get("charset");
-        return (name == null) ? Charset.forName("UTF-8") : Charset.forName(name);
+        return (name == null) ? StandardCharsets.UTF_8 : Charset.forName(name);
     }
 
     @Override
@@ -41,7 +45,12 @@ public class NodeBodyReader implements MessageBodyReader<Node> {
 
     @Override
     public Node readFrom(Class<Node> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream ) throws IOException, WebApplicationException {
-        InputStreamReader isr = new InputStreamReader( entityStream, getCharset( mediaType ) );
+        Charset charset = getCharset( mediaType );
+        if ( StandardCharsets.UTF_8.equals( charset ) ) {
+            // Let the serializer decode the bytes itself.
+            return serializer.read( entityStream, Node.class );
+        }
+        InputStreamReader isr = new InputStreamReader( entityStream, charset );
         return serializer.read( isr, Node.class );
     }
 
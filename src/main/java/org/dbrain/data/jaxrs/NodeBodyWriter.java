@@ -0,0 +1,66 @@
+package org.dbrain.data.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.tree.Node;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Body writer that streams a Node, including NodeMap and NodeList, to the entity through a JsonGenerator. The document
+ * is never held as a String. Only the JSON media types are written, as with the NodeStreamBodyWriter.
+ */
+@javax.ws.rs.ext.Provider
+public class NodeBodyWriter implements MessageBodyWriter<Node> {
+
+    final JacksonSerializer serializer;
+
+    public NodeBodyWriter( JacksonSerializer serializer ) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * Return the charset from the mediatype. If none, default to UTF-8.
+     */
+    private static final Charset getCharset(MediaType m) {
+        String name = (m == null) ? null : m.getParameters().get("charset");
+        return (name == null) ? StandardCharsets.UTF_8 : Charset.forName(name);
+    }
+
+    @Override
+    public boolean isWriteable( Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType ) {
+        return NodeStreamBodyWriter.isJson( mediaType ) && Node.class.isAssignableFrom( type );
+    }
+
+    @Override
+    public long getSize( Node node, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType ) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo( Node node, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream ) throws IOException, WebApplicationException {
+        Charset charset = getCharset( mediaType );
+        if ( StandardCharsets.UTF_8.equals( charset ) ) {
+            try ( JsonGenerator generator = serializer.createGenerator( entityStream ) ) {
+                serializer.write( generator, node );
+            }
+        } else {
+            Writer writer = new OutputStreamWriter( entityStream, charset );
+            try ( JsonGenerator generator = serializer.createGenerator( writer ) ) {
+                serializer.write( generator, node );
+            }
+        }
+    }
+
+}
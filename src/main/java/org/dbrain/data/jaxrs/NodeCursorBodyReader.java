@@ -0,0 +1,77 @@
+package org.dbrain.data.jaxrs;
+
+import org.dbrain.data.cursor.ForwardCursor;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.jackson.NodeCursor;
+import org.dbrain.data.tree.Node;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Body reader that injects a NodeCursor, a ForwardCursor or an Iterator&lt;Node&gt; over the elements of the top-level
+ * JSON array of the body.
+ *
+ * Elements are parsed on demand while the resource consumes them, so the memory used by a request is bounded by the
+ * size of an element instead of the size of the body. The body must be consumed before the resource method returns.
+ */
+@javax.ws.rs.ext.Provider
+public class NodeCursorBodyReader implements MessageBodyReader<Object> {
+
+    final JacksonSerializer serializer;
+
+    public NodeCursorBodyReader( JacksonSerializer serializer ) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * Return the charset from the mediatype. If none, default to UTF-8.
+     */
+    private static final Charset getCharset(MediaType m) {
+        String name = (m == null) ? null : m.getParameters().get("charset");
+        return (name == null) ? StandardCharsets.UTF_8 : Charset.forName(name);
+    }
+
+    /**
+     * @return true if the type is an iterator of Node, or a raw iterator.
+     */
+    private static boolean isNodeIterator( Class<?> type, Type genericType ) {
+        if ( type != Iterator.class ) {
+            return false;
+        } else if ( genericType instanceof ParameterizedType ) {
+            Type element = ( (ParameterizedType) genericType ).getActualTypeArguments()[0];
+            return element == Node.class;
+        } else {
+            return true;
+        }
+    }
+
+    @Override
+    public boolean isReadable( Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType ) {
+        return type == NodeCursor.class || type == ForwardCursor.class || isNodeIterator( type, genericType );
+    }
+
+    @Override
+    public Object readFrom( Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream ) throws IOException, WebApplicationException {
+        Charset charset = getCharset( mediaType );
+        NodeCursor cursor;
+        if ( StandardCharsets.UTF_8.equals( charset ) ) {
+            cursor = serializer.streamArray( entityStream );
+        } else {
+            cursor = serializer.streamArray( new InputStreamReader( entityStream, charset ) );
+        }
+        return Iterator.class.equals( type ) ? cursor.iterator() : cursor;
+    }
+
+}
@@ -14,6 +14,7 @@ import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Simple body writer that stream the element to the entity,
@@ -32,7 +33,7 @@ public class NodeListBodyReader implements MessageBodyReader<NodeList> {
      */
     private static final Charset getCharset(MediaType m) {
         String name = (m == null) ? null : m.getParameters().get("charset");
-        return (name == null) ? Charset.forName("UTF-8") : Charset.forName(name);
+        return (name == null) ? StandardCharsets.UTF_8 : Charset.forName(name);
     }
 
     @Override
@@ -42,7 +43,12 @@ public class NodeListBodyReader implements MessageBodyReader<NodeList> {
 
     @Override
     public NodeList readFrom(Class<NodeList> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream ) throws IOException, WebApplicationException {
-        InputStreamReader isr = new InputStreamReader( entityStream, getCharset( mediaType ) );
+        Charset charset = getCharset( mediaType );
+        if ( StandardCharsets.UTF_8.equals( charset ) ) {
+            // Let the serializer decode the bytes itself.
+            return serializer.read( entityStream, NodeList.class );
+        }
+        InputStreamReader isr = new InputStreamReader( entityStream, charset );
         return serializer.read( isr, NodeList.class );
     }
 
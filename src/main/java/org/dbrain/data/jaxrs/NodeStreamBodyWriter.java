@@ -0,0 +1,153 @@
+package org.dbrain.data.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.dbrain.data.cursor.ForwardCursor;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.tree.Node;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Body writer that streams the elements of an Iterator, a Stream, or a NodeCursor or NdjsonCursor, one at a time.
+ *
+ * Elements are written as a JSON array, or as NDJSON when the media type is application/x-ndjson. The entity is
+ * written while the elements are produced, so the result set is never buffered in memory; the container sends it
+ * chunked. The source is closed once written, if it is closeable.
+ *
+ * Only sources declared with Node elements, or with elements of an unknown type, are written.
+ */
+@javax.ws.rs.ext.Provider
+public class NodeStreamBodyWriter implements MessageBodyWriter<Object> {
+
+    /**
+     * The NDJSON media type, one JSON value per line.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    public static final MediaType APPLICATION_NDJSON_TYPE = new MediaType( "application", "x-ndjson" );
+
+    final JacksonSerializer serializer;
+
+    public NodeStreamBodyWriter( JacksonSerializer serializer ) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * Return the charset from the mediatype. If none, default to UTF-8.
+     */
+    private static final Charset getCharset(MediaType m) {
+        String name = (m == null) ? null : m.getParameters().get("charset");
+        return (name == null) ? StandardCharsets.UTF_8 : Charset.forName(name);
+    }
+
+    /**
+     * Only application/json, the +json types and NDJSON are written. Null means the type is not known yet.
+     */
+    static boolean isJson( MediaType m ) {
+        if ( m == null ) {
+            return true;
+        }
+        String subtype = m.getSubtype().toLowerCase( Locale.ROOT );
+        return "application".equalsIgnoreCase( m.getType() ) &&
+               ( subtype.equals( "json" ) || subtype.endsWith( "+json" ) || subtype.equals( "x-ndjson" ) );
+    }
+
+    /**
+     * @return true if the element type is Node, a subtype of Node, Object, or not known.
+     */
+    private static boolean isNodeElement( Type element ) {
+        if ( element instanceof Class ) {
+            return element == Object.class || Node.class.isAssignableFrom( (Class<?>) element );
+        } else if ( element instanceof WildcardType ) {
+            return isNodeElement( ( (WildcardType) element ).getUpperBounds()[0] );
+        } else if ( element instanceof ParameterizedType ) {
+            return isNodeElement( ( (ParameterizedType) element ).getRawType() );
+        } else {
+            return element instanceof TypeVariable;
+        }
+    }
+
+    /**
+     * @return true if the declared elements are nodes. A raw type, or a type with other parameters, is accepted.
+     */
+    private static boolean isNodeSource( Type genericType ) {
+        if ( genericType instanceof ParameterizedType ) {
+            Type[] arguments = ( (ParameterizedType) genericType ).getActualTypeArguments();
+            return arguments.length != 1 || isNodeElement( arguments[0] );
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isWriteable( Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType ) {
+        return isJson( mediaType ) && isNodeSource( genericType ) &&
+               ( Iterator.class.isAssignableFrom( type ) || Stream.class.isAssignableFrom( type ) ||
+                 ForwardCursor.class.isAssignableFrom( type ) && Iterable.class.isAssignableFrom( type ) );
+    }
+
+    @Override
+    public long getSize( Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType ) {
+        return -1;
+    }
+
+    private static Iterator<?> iterator( Object o ) {
+        if ( o instanceof Iterator ) {
+            return (Iterator<?>) o;
+        } else if ( o instanceof Stream ) {
+            return ( (Stream<?>) o ).iterator();
+        } else {
+            return ( (Iterable<?>) o ).iterator();
+        }
+    }
+
+    @Override
+    public void writeTo( Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream ) throws IOException, WebApplicationException {
+        boolean ndjson = mediaType != null && mediaType.isCompatible( APPLICATION_NDJSON_TYPE );
+        Charset charset = getCharset( mediaType );
+        try {
+            try ( JsonGenerator generator = StandardCharsets.UTF_8.equals( charset ) ?
+                    serializer.createGenerator( entityStream ) :
+                    serializer.createGenerator( new OutputStreamWriter( entityStream, charset ) ) ) {
+                Iterator<?> elements = iterator( o );
+                if ( ndjson ) {
+                    generator.setRootValueSeparator( null );
+                    while ( elements.hasNext() ) {
+                        serializer.write( generator, elements.next() );
+                        generator.writeRaw( '\n' );
+                    }
+                } else {
+                    generator.writeStartArray();
+                    while ( elements.hasNext() ) {
+                        serializer.write( generator, elements.next() );
+                    }
+                    generator.writeEndArray();
+                }
+            } finally {
+                if ( o instanceof AutoCloseable ) {
+                    ( (AutoCloseable) o ).close();
+                }
+            }
+        } catch ( IOException | RuntimeException e ) {
+            throw e;
+        } catch ( Exception e ) {
+            throw new IOException( e );
+        }
+    }
+
+}
@@ -17,8 +17,11 @@
 package org.dbrain.data.tree;
 
 import org.dbrain.data.DataCoercionException;
+import org.dbrain.data.Path;
 import org.dbrain.data.tabular.FieldAccessors;
 import org.dbrain.data.impl.value.BoolValueImpl;
+import org.dbrain.data.impl.value.DoubleValueImpl;
+import org.dbrain.data.impl.value.LongValueImpl;
 import org.dbrain.data.impl.value.NullValueImpl;
 import org.dbrain.data.impl.value.NumberValueImpl;
 import org.dbrain.data.impl.value.StringValueImpl;
@@ -46,23 +49,27 @@ public interface Node extends FieldAccessors {
     }
 
     static Node of(Byte b ) {
-        return b != null ? new NumberValueImpl( b ) : nullValue();
+        return b != null ? new LongValueImpl( b ) : nullValue();
     }
 
     static Node of(Short s ) {
-        return s != null ? new NumberValueImpl( s ) : nullValue();
+        return s != null ? new LongValueImpl( s ) : nullValue();
     }
 
     static Node of(Integer i ) {
-        return i != null ? new NumberValueImpl( i ) : nullValue();
+        return i != null ? new LongValueImpl( i ) : nullValue();
     }
 
     static Node of(Long l ) {
-        return l != null ? new NumberValueImpl( l ) : nullValue();
+        return l != null ? new LongValueImpl( l ) : nullValue();
     }
 
     static Node of(BigInteger bi ) {
-        return bi != null ? new NumberValueImpl( bi ) : nullValue();
+        if ( bi != null ) {
+            return bi.bitLength() < 64 ? new LongValueImpl( bi.longValue() ) : new NumberValueImpl( bi );
+        } else {
+            return nullValue();
+        }
     }
 
     static Node of(BigDecimal bd ) {
@@ -90,7 +97,7 @@ public interface Node extends FieldAccessors {
             if ( Double.isNaN( doubleValue ) ) {
                 return nullValue();
             } else if ( Double.isFinite( doubleValue ) ) {
-                return new NumberValueImpl( doubleValue );
+                return new DoubleValueImpl( doubleValue );
             } else {
                 throw new DataCoercionException( "Value cannot contain infinity." );
             }
@@ -165,10 +172,49 @@ public interface Node extends FieldAccessors {
         }
     }
 
+    /**
+     * @return A read-only Java view of this node: a Map or a List for containers, the same object as getObject() for
+     * scalars. Unlike getObject(), nothing is copied, children are unwrapped on access.
+     */
+    default Object asJavaView() {
+        return getObject();
+    }
+
     NodeMap getMap();
 
     NodeList getList();
 
     boolean isNull();
 
+    /**
+     * @return The node at the path, or a null value if missing. Use a PathAccessor to access the same path many times.
+     */
+    default Node get( Path path ) {
+        return PathAccessor.of( path ).get( this );
+    }
+
+    /**
+     * Set the node at the path, creating the missing maps and lists along the path.
+     *
+     * @return The previous node at the path, or null if there was none.
+     */
+    default Node set( Path path, Node node ) {
+        return PathAccessor.of( path ).set( this, node );
+    }
+
+    /**
+     * @return An immutable version of this node, that can be shared between threads without copy. Scalar nodes are
+     * immutable and return themselves.
+     */
+    default Node freeze() {
+        return this;
+    }
+
+    /**
+     * @return true if this node cannot be modified.
+     */
+    default boolean isFrozen() {
+        return true;
+    }
+
 }
@@ -17,7 +17,9 @@
 package org.dbrain.data.tree;
 
 import org.dbrain.data.tabular.IndexedFieldAccessors;
+import org.dbrain.data.impl.value.ListJavaView;
 import org.dbrain.data.impl.value.ListValueImpl;
+import org.dbrain.data.impl.value.PersistentListValueImpl;
 import org.dbrain.data.impl.value.ValueListBuilderImpl;
 
 import java.math.BigDecimal;
@@ -79,6 +81,46 @@ public interface NodeList extends Node, java.util.List<Node>, IndexedFieldAccess
         }
     }
 
+    /**
+     * @return A read-only view of this list, unwrapping its elements on access. Changes to the list are visible
+     * through the view.
+     */
+    @Override
+    default java.util.List<Object> asJavaView() {
+        return new ListJavaView( this );
+    }
+
+    /**
+     * @return An immutable copy of this list, with all its values frozen. Return this list if it is already frozen.
+     */
+    @Override
+    default NodeList freeze() {
+        return PersistentListValueImpl.copyOf( this );
+    }
+
+    /**
+     * @return true if this list cannot be modified. Lists are mutable unless they say otherwise.
+     */
+    @Override
+    default boolean isFrozen() {
+        return false;
+    }
+
+    /**
+     * @return A frozen list having the node at the index. An index equal to the size appends the node. This list is
+     * left untouched.
+     */
+    default NodeList with( int index, Node node ) {
+        return freeze().with( index, node );
+    }
+
+    /**
+     * @return A frozen list having the node appended. This list is left untouched.
+     */
+    default NodeList plus( Node node ) {
+        return freeze().plus( node );
+    }
+
     /**
      * Fluid builder interface for list.
      */
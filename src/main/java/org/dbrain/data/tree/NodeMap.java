@@ -18,7 +18,9 @@ package org.dbrain.data.tree;
 
 import org.dbrain.data.DataCoercionException;
 import org.dbrain.data.tabular.NamedFieldAccessors;
+import org.dbrain.data.impl.value.MapJavaView;
 import org.dbrain.data.impl.value.MapValueImpl;
+import org.dbrain.data.impl.value.PersistentMapValueImpl;
 import org.dbrain.data.impl.value.ValueMapBuilderImpl;
 
 import java.math.BigDecimal;
@@ -71,6 +73,45 @@ public interface NodeMap extends Node, java.util.Map<String, Node>, NamedFieldAc
         return new ValueMapBuilderImpl();
     }
 
+    /**
+     * @return A read-only view of this map, unwrapping its values on access. Changes to the map are visible through
+     * the view.
+     */
+    @Override
+    default Map<String, Object> asJavaView() {
+        return new MapJavaView( this );
+    }
+
+    /**
+     * @return An immutable copy of this map, with all its values frozen. Return this map if it is already frozen.
+     */
+    @Override
+    default NodeMap freeze() {
+        return PersistentMapValueImpl.copyOf( this );
+    }
+
+    /**
+     * @return true if this map cannot be modified. Maps are mutable unless they say otherwise.
+     */
+    @Override
+    default boolean isFrozen() {
+        return false;
+    }
+
+    /**
+     * @return A frozen map having the key set to the node. This map is left untouched.
+     */
+    default NodeMap with( String key, Node node ) {
+        return freeze().with( key, node );
+    }
+
+    /**
+     * @return A frozen map without the key. This map is left untouched.
+     */
+    default NodeMap without( String key ) {
+        return freeze().without( key );
+    }
+
     /**
      * Fluid builder interface for map.
      */
@@ -0,0 +1,140 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.impl.patch.NodeDiff;
+import org.dbrain.data.impl.patch.PatchImpl;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An ordered list of operations transforming a Node document into another. Patches serialize as JSON Patch.
+ *
+ * Within a patch, a path index applied to a map is taken as the key of the same digits, and the attribute "-" applied
+ * to a list denotes the end of the list, as in a JSON Pointer.
+ */
+public interface Patch {
+
+    /**
+     * @return The patch transforming from into to. Subtrees that are the same instance, or frozen with different
+     * hash codes, are resolved without walking them.
+     */
+    static Patch diff( Node from, Node to ) {
+        return NodeDiff.diff( from, to );
+    }
+
+    /**
+     * @return A patch made of the operations.
+     */
+    static Patch of( List<Operation> operations ) {
+        return new PatchImpl( operations );
+    }
+
+    /**
+     * @return A patch made of the operations.
+     */
+    static Patch of( Operation... operations ) {
+        return of( Arrays.asList( operations ) );
+    }
+
+    /**
+     * @return An operation adding a node. Within a list, the node is inserted at the index.
+     */
+    static Operation add( Path path, Node value ) {
+        return new PatchImpl.OperationImpl( Type.ADD, path, null, value );
+    }
+
+    /**
+     * @return An operation removing a node.
+     */
+    static Operation remove( Path path ) {
+        return new PatchImpl.OperationImpl( Type.REMOVE, path, null, null );
+    }
+
+    /**
+     * @return An operation replacing an existing node.
+     */
+    static Operation replace( Path path, Node value ) {
+        return new PatchImpl.OperationImpl( Type.REPLACE, path, null, value );
+    }
+
+    /**
+     * @return An operation moving a node to another path.
+     */
+    static Operation move( Path from, Path path ) {
+        return new PatchImpl.OperationImpl( Type.MOVE, path, from, null );
+    }
+
+    /**
+     * @return The operations of this patch.
+     */
+    List<Operation> getOperations();
+
+    /**
+     * @return true if the patch has no operation.
+     */
+    boolean isEmpty();
+
+    /**
+     * Apply the patch to a document. Mutable maps and lists are modified in place, frozen ones are rebuilt.
+     * Values of the patch are frozen: they are inserted as is into frozen containers, and as mutable copies into
+     * mutable ones. The patch is applied entirely or not at all: if an operation fails, the changes already made in
+     * place are undone and a mutable document is left unchanged. Only the nodes along the paths of the patch are
+     * visited, applying a patch does not copy the document.
+     *
+     * @return The patched document, which is a new instance if the root was replaced or frozen.
+     * @throws IllegalArgumentException if a path of the patch does not exist in the document.
+     */
+    Node apply( Node document );
+
+    /**
+     * Type of operation.
+     */
+    enum Type {
+        ADD,
+        REMOVE,
+        REPLACE,
+        MOVE
+    }
+
+    /**
+     * A single operation of a patch.
+     */
+    interface Operation {
+
+        Type getType();
+
+        /**
+         * @return The path of the node added, removed, replaced or moved to.
+         */
+        Path getPath();
+
+        /**
+         * @return The path of the node moved, null for other operations.
+         */
+        Path getFrom();
+
+        /**
+         * @return The frozen node added or replaced, null for other operations.
+         */
+        Node getValue();
+
+    }
+
+}
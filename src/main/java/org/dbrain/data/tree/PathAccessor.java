@@ -0,0 +1,63 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.impl.path.PathAccessorImpl;
+
+/**
+ * Access the node at a path within a Node tree. The path is compiled once, the accessor can then be reused and
+ * shared between threads.
+ */
+public interface PathAccessor {
+
+    /**
+     * @return A new accessor for the path.
+     */
+    static PathAccessor of( Path path ) {
+        return new PathAccessorImpl( path );
+    }
+
+    /**
+     * @return A new accessor for the path string.
+     */
+    static PathAccessor of( String path ) {
+        return of( Path.of( path ) );
+    }
+
+    /**
+     * @return The path accessed.
+     */
+    Path getPath();
+
+    /**
+     * @return The node at the path, or a null value if an attribute or index along the path is missing.
+     * @throws org.dbrain.data.DataCoercionException if a node along the path is not a map or list as expected.
+     */
+    Node get( Node root );
+
+    /**
+     * Set the node at the path. Missing maps and lists along the path are created.
+     *
+     * @return The previous node at the path, or null if there was none.
+     * @throws org.dbrain.data.DataCoercionException if a node along the path is not a map or list as expected.
+     * @throws IndexOutOfBoundsException if an index is past the end of its list.
+     * @throws IllegalArgumentException if the path is empty.
+     */
+    Node set( Node root, Node node );
+
+}
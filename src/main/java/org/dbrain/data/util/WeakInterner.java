@@ -0,0 +1,97 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe table of canonical instances, indexed by a String key, usually their string form.
+ *
+ * Instances are weakly referenced: an instance only used through the table is reclaimed by the garbage collector and
+ * its entry is removed on a later call to intern.
+ */
+public final class WeakInterner<T> {
+
+    private final ConcurrentHashMap<String, Ref<T>> table = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    /**
+     * @return The canonical instance for the key, or null if there is none.
+     */
+    public T get( String key ) {
+        Ref<T> ref = key != null ? table.get( key ) : null;
+        return ref != null ? ref.get() : null;
+    }
+
+    /**
+     * @return The canonical instance for the key. The value becomes the canonical instance if there is none.
+     */
+    public T intern( String key, T value ) {
+        Objects.requireNonNull( key );
+        Objects.requireNonNull( value );
+        purge();
+        while ( true ) {
+            Ref<T> ref = table.get( key );
+            if ( ref == null ) {
+                if ( table.putIfAbsent( key, new Ref<>( key, value, queue ) ) == null ) {
+                    return value;
+                }
+            } else {
+                T current = ref.get();
+                if ( current != null ) {
+                    return current;
+                } else if ( table.replace( key, ref, new Ref<>( key, value, queue ) ) ) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries of the table, including those reclaimed but not removed yet.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    // Remove the entries of the reclaimed instances.
+    @SuppressWarnings( "unchecked" )
+    private void purge() {
+        Ref<T> ref;
+        while ( ( ref = (Ref<T>) queue.poll() ) != null ) {
+            table.remove( ref.key, ref );
+        }
+    }
+
+    /**
+     * Weak reference remembering its key, to remove the entry once the instance is reclaimed.
+     */
+    private static final class Ref<T> extends WeakReference<T> {
+
+        private final String key;
+
+        Ref( String key, T value, ReferenceQueue<T> queue ) {
+            super( value, queue );
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test the FqnPatternSet.
+ */
+public class FqnPatternSet_Test {
+
+    @Test
+    public void testMatch() throws Exception {
+        FqnPatternSet<String> set = FqnPatternSet.<String>newBuilder()
+                .add( "root.table", "exact" )
+                .add( "root.*", "one" )
+                .add( "root.**", "any" )
+                .add( "other.**", "other" )
+                .add( "**.table", "suffix" )
+                .build();
+        Assert.assertEquals( 5, set.size() );
+
+        List<FqnPatternSet.Match<String>> matches = set.match( Fqn.of( "root.table" ) );
+        Assert.assertEquals( 4, matches.size() );
+        Assert.assertEquals( "exact", matches.get( 0 ).getValue() );
+        Assert.assertEquals( 0, matches.get( 0 ).partCount() );
+        Assert.assertEquals( "one", matches.get( 1 ).getValue() );
+        Assert.assertEquals( Fqn.of( "table" ), matches.get( 1 ).getPart( 0 ) );
+        Assert.assertEquals( "any", matches.get( 2 ).getValue() );
+        Assert.assertEquals( Fqn.of( "table" ), matches.get( 2 ).getPart( 0 ) );
+        Assert.assertEquals( "suffix", matches.get( 3 ).getValue() );
+        Assert.assertEquals( Fqn.of( "root" ), matches.get( 3 ).getPart( 0 ) );
+        Assert.assertEquals( FqnPattern.of( "**.table" ).toString(), matches.get( 3 ).getPattern().toString() );
+        Assert.assertTrue( matches.get( 3 ).matched() );
+
+        matches = set.match( Fqn.of( "root" ) );
+        Assert.assertEquals( 1, matches.size() );
+        Assert.assertEquals( "any", matches.get( 0 ).getValue() );
+        Assert.assertEquals( Fqn.empty(), matches.get( 0 ).getPart( 0 ) );
+
+        Assert.assertTrue( set.match( Fqn.of( "unknown.name" ) ).isEmpty() );
+        Assert.assertTrue( set.match( null ).isEmpty() );
+    }
+
+    @Test
+    public void testEmptyPattern() throws Exception {
+        FqnPatternSet<Integer> set = FqnPatternSet.<Integer>newBuilder().add( "", 1 ).add( "**", 2 ).build();
+        Assert.assertEquals( 2, set.match( Fqn.empty() ).size() );
+        Assert.assertEquals( 2, set.match( null ).size() );
+        Assert.assertEquals( 1, set.match( Fqn.of( "test" ) ).size() );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void testPartOutOfBound() throws Exception {
+        FqnPatternSet.<String>newBuilder().add( "test.*", "one" ).build().match( Fqn.of( "test.a" ) ).get( 0 ).getPart( 1 );
+    }
+
+    /**
+     * The set must give the same result as matching each pattern in turn.
+     */
+    @Test
+    public void testSameAsPatterns() throws Exception {
+        String[] tokens = { "a", "b", "*", "**" };
+        Random random = new Random( 42 );
+        List<FqnPattern> patterns = new ArrayList<>();
+        FqnPatternSet.Builder<Integer> builder = FqnPatternSet.newBuilder();
+        for ( int i = 0; i < 300; i++ ) {
+            FqnPattern.Builder pattern = FqnPattern.newBuilder();
+            int length = random.nextInt( 5 );
+            for ( int j = 0; j < length; j++ ) {
+                String token = tokens[random.nextInt( tokens.length )];
+                if ( token.equals( "*" ) ) {
+                    pattern.one();
+                } else if ( token.equals( "**" ) ) {
+                    pattern.any();
+                } else {
+                    pattern.segment( token );
+                }
+            }
+            patterns.add( pattern.build() );
+            builder.add( patterns.get( i ), i );
+        }
+        FqnPatternSet<Integer> set = builder.build();
+
+        for ( int i = 0; i < 300; i++ ) {
+            Fqn.Builder name = Fqn.newBuilder();
+            int length = random.nextInt( 6 );
+            for ( int j = 0; j < length; j++ ) {
+                name.segment( random.nextBoolean() ? "a" : "b" );
+            }
+            Fqn fqn = name.build();
+
+            List<FqnPatternSet.Match<Integer>> matches = set.match( fqn );
+            int m = 0;
+            for ( int p = 0; p < patterns.size(); p++ ) {
+                FqnPattern.MatchResult expected = patterns.get( p ).match( fqn );
+                if ( expected.matched() ) {
+                    FqnPatternSet.Match<Integer> match = matches.get( m++ );
+                    Assert.assertEquals( p, (int) match.getValue() );
+                    Assert.assertEquals( expected.partCount(), match.partCount() );
+                    for ( int part = 0; part < expected.partCount(); part++ ) {
+                        Assert.assertEquals( patterns.get( p ) + " on " + fqn, expected.getPart( part ),
+                                             match.getPart( part ) );
+                    }
+                }
+            }
+            Assert.assertEquals( m, matches.size() );
+        }
+    }
+
+}
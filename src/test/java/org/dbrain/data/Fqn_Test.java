@@ -21,6 +21,8 @@ import org.dbrain.data.text.ReaderCursor;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 /**
  * Test Fully Qualified Names.
  */
@@ -200,5 +202,42 @@ public class Fqn_Test {
 
     }
 
+    @Test
+    public void testIntern() throws Exception {
+        Fqn fqn = Fqn.of( "schema.table" ).intern();
+        Assert.assertSame( fqn, Fqn.of( "schema.table" ).intern() );
+        Assert.assertSame( fqn, fqn.intern() );
+        Assert.assertSame( fqn, Fqn.ofInterned( "schema.table" ) );
+        Assert.assertSame( fqn, Fqn.ofInterned( "'schema'.table" ) );
+        Assert.assertSame( fqn, Fqn.of( "db.schema.table" ).tailFrom( 1 ).intern() );
+        Assert.assertSame( Fqn.empty(), Fqn.of( "" ).intern() );
+        Assert.assertSame( Fqn.empty(), Fqn.ofInterned( null ) );
+
+        // Interned names are still equal to the others.
+        Assert.assertEquals( Fqn.of( "schema.table" ), fqn );
+        Assert.assertEquals( fqn, Fqn.of( "schema.table" ) );
+        Assert.assertNotEquals( fqn, Fqn.of( "schema.view" ).intern() );
+    }
+
+    @Test
+    public void testSlices() throws Exception {
+        Fqn fqn = Fqn.of( "a.b.c.d" );
+        Fqn tail = fqn.tailFrom( 1 );
+        Fqn head = fqn.head( 3 );
+
+        // Slices are equal to the same name built from scratch.
+        Assert.assertEquals( Fqn.of( "b.c.d" ), tail );
+        Assert.assertEquals( Fqn.of( "b.c.d" ).hashCode(), tail.hashCode() );
+        Assert.assertEquals( "b.c.d", tail.toString() );
+        Assert.assertEquals( Fqn.of( "a.b.c" ), head );
+        Assert.assertEquals( Fqn.of( "a.b.c" ).hashCode(), head.hashCode() );
+        Assert.assertEquals( Fqn.of( "c" ), tail.tailFrom( 1 ).head( 1 ) );
+        Assert.assertEquals( fqn, Fqn.from( head ).append( tail.tail( 1 ) ).build() );
+
+        Assert.assertEquals( Arrays.asList( "a", "b", "c", "d" ).hashCode(), fqn.hashCode() );
+        Assert.assertSame( fqn, fqn.head( fqn.size() ) );
+        Assert.assertSame( fqn.toString(), fqn.toString() );
+    }
+
 
 }
@@ -16,10 +16,17 @@
 
 package org.dbrain.data;
 
+import org.dbrain.data.jackson.JacksonSerializer;
 import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeMap;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Test the PathPattern.
  */
@@ -311,4 +318,86 @@ public class PathPattern_Test {
 
     }
 
-}
\ No newline at end of file
+    private static List<String> selectPaths( String pattern, Node root ) {
+        return PathPattern.of( pattern ).selectStream( root ).map( s -> s.getPath().toString() ).collect(
+                Collectors.toList() );
+    }
+
+    @Test
+    public void testSelect() throws Exception {
+        NodeMap doc = JacksonSerializer.newBuilder().build().read(
+                "{ \"a\": { \"b\": [ { \"c\": 1 }, { \"c\": 2, \"d\": 3 } ], \"c\": 4 }, \"c\": 5 }",
+                NodeMap.class );
+
+        Assert.assertEquals( Arrays.asList( "" ), selectPaths( "", doc ) );
+        Assert.assertEquals( Arrays.asList( "a.b[1].d" ), selectPaths( "a.b[1].d", doc ) );
+        Assert.assertEquals( Arrays.asList(), selectPaths( "a.x", doc ) );
+        Assert.assertEquals( Arrays.asList( "a.b[0].c", "a.b[1].c" ), selectPaths( "a.b.*.c", doc ) );
+        Assert.assertEquals( Arrays.asList( "a.b[0].c", "a.b[1].c", "a.c", "c" ), selectPaths( "**.c", doc ) );
+        Assert.assertEquals( Arrays.asList( "a", "a.b", "a.b[0]", "a.b[0].c", "a.b[1]", "a.b[1].c", "a.b[1].d", "a.c" ),
+                             selectPaths( "a.**", doc ) );
+
+        List<PathPattern.Selection> selection = PathPattern.of( "a.**.c" ).select( doc );
+        Assert.assertEquals( 3, selection.size() );
+        Assert.assertEquals( Path.of( "b[1]" ), selection.get( 1 ).getPart( 0 ) );
+        Assert.assertEquals( Node.of( 2 ), selection.get( 1 ).getNode() );
+        Assert.assertTrue( selection.get( 2 ).matched() );
+        Assert.assertEquals( Path.empty(), selection.get( 2 ).getPart( 0 ) );
+
+        // Selection agrees with matching each path.
+        PathPattern pattern = PathPattern.of( "*.b.*.*" );
+        for ( PathPattern.Selection s : pattern.select( doc ) ) {
+            Assert.assertTrue( pattern.match( s.getPath() ).matched() );
+            Assert.assertEquals( s.getNode(), doc.get( s.getPath() ) );
+        }
+        Assert.assertEquals( 3, pattern.select( doc ).size() );
+    }
+
+    @Test
+    public void testSelectOtherImplementation() throws Exception {
+        NodeMap doc = JacksonSerializer.newBuilder().build().read(
+                "{ \"a\": { \"b\": [ { \"c\": 1 }, { \"c\": 2, \"d\": 3 } ], \"c\": 4 }, \"c\": 5 }",
+                NodeMap.class );
+
+        // A pattern implemented outside of the library only provides match, select walks the whole tree.
+        for ( String p : Arrays.asList( "", "a.b[1].d", "a.x", "**.c", "a.**.c", "*.b.*.*" ) ) {
+            PathPattern pattern = PathPattern.of( p );
+            PathPattern other = new PathPattern() {
+                @Override
+                public MatchResult match( Path path ) {
+                    return pattern.match( path );
+                }
+
+                @Override
+                public Specs getSpecs() {
+                    return pattern.getSpecs();
+                }
+            };
+            Assert.assertEquals( selectPaths( p, doc ), other.selectStream( doc ).map( s -> s.getPath().toString() )
+                                                             .collect( Collectors.toList() ) );
+        }
+    }
+
+    @Test
+    public void testSelectLongPattern() throws Exception {
+        // A chain of 70 maps, selected by a pattern of 70 nodes.
+        NodeMap doc = NodeMap.newInstance();
+        NodeMap current = doc;
+        StringBuilder pattern = new StringBuilder( "a" );
+        for ( int i = 1; i < 70; i++ ) {
+            NodeMap child = NodeMap.newInstance();
+            current.put( "a", child );
+            current = child;
+            pattern.append( i % 2 == 0 ? ".a" : ".*" );
+        }
+        current.put( "a", Node.of( 1 ) );
+
+        List<PathPattern.Selection> selection = PathPattern.of( pattern.toString() ).select( doc );
+        Assert.assertEquals( 1, selection.size() );
+        Assert.assertEquals( 70, selection.get( 0 ).getPath().size() );
+        Assert.assertEquals( Node.of( 1 ), selection.get( 0 ).getNode() );
+        Assert.assertEquals( 70, PathPattern.of( "**.a" ).select( doc ).size() );
+        Assert.assertEquals( 1, PathPattern.of( pattern + ".**" ).select( doc ).size() );
+    }
+
+}
@@ -21,6 +21,8 @@ import org.dbrain.data.text.ReaderCursor;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 /**
  * Test path.
  */
@@ -221,6 +223,51 @@ public class Path_Test {
 
     }
 
+    @Test
+    public void testStartsWith_index() throws Exception {
+        Assert.assertTrue( Path.of( "test[1].a" ).startsWith( Path.of( "test[1]" ) ) );
+        Assert.assertFalse( Path.of( "test[1].a" ).startsWith( Path.of( "test[2]" ) ) );
+        Assert.assertFalse( Path.of( "test[1].a" ).startsWith( Path.of( "test.a" ) ) );
+        Assert.assertFalse( Path.of( "test.a" ).startsWith( Path.of( "test[1]" ) ) );
+    }
+
+    @Test
+    public void testIntern() throws Exception {
+        Path path = Path.of( "a[1].b" ).intern();
+        Assert.assertSame( path, Path.of( "a[1].b" ).intern() );
+        Assert.assertSame( path, path.intern() );
+        Assert.assertSame( path, Path.ofInterned( "a[1].b" ) );
+        Assert.assertSame( path, Path.of( "x.a[1].b" ).tailFrom( 1 ).intern() );
+        Assert.assertSame( Path.empty(), Path.of( "" ).intern() );
+
+        // Interned paths are still equal to the others.
+        Assert.assertEquals( Path.of( "a[1].b" ), path );
+        Assert.assertEquals( path, Path.of( "a[1].b" ) );
+        Assert.assertNotEquals( path, Path.of( "a[2].b" ).intern() );
+    }
+
+    @Test
+    public void testSlices() throws Exception {
+        Path path = Path.of( "a[1].b.c[2]" );
+        Path tail = path.tailFrom( 1 );
+        Path head = path.head( 3 );
+
+        // Slices are equal to the same path built from scratch.
+        Assert.assertEquals( Path.of( "[1].b.c[2]" ), tail );
+        Assert.assertEquals( Path.of( "[1].b.c[2]" ).hashCode(), tail.hashCode() );
+        Assert.assertEquals( "[1].b.c[2]", tail.toString() );
+        Assert.assertEquals( Path.of( "a[1].b" ), head );
+        Assert.assertEquals( Path.of( "a[1].b" ).hashCode(), head.hashCode() );
+        Assert.assertEquals( "a[1].b", head.toString() );
+        Assert.assertEquals( Path.of( "b" ), tail.tailFrom( 1 ).head( 1 ) );
+        Assert.assertEquals( 2, tail.index( 3 ) );
+
+        // Same hash code as the list of nodes.
+        Assert.assertEquals( Arrays.asList( "a", 1L, "b", "c", 2L ).hashCode(), path.hashCode() );
+        Assert.assertSame( path, path.head( path.size() ) );
+        Assert.assertSame( path.toString(), path.toString() );
+    }
+
     @Test
     public void testAppend() throws Exception {
 
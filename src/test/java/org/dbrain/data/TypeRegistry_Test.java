@@ -49,6 +49,27 @@ public class TypeRegistry_Test {
         Assert.assertNull( r.getNameByType( String.class ) );
     }
 
+    @Test
+    public void testGetNameOfSubtype() throws Exception {
+        TypeRegistry<Object> h = TypeRegistry.from( Object.class, c -> c.getSimpleName() )
+                                             .registerType( java.util.AbstractList.class )
+                                             .registerType( java.util.RandomAccess.class )
+                                             .registerType( Comparable.class )
+                                             .build();
+
+        // Nearest superclass first, then interfaces.
+        Assert.assertEquals( "AbstractList", h.getNameByType( java.util.ArrayList.class ) );
+        Assert.assertEquals( "AbstractList", h.getNameByType( new java.util.ArrayList<Object>() {}.getClass() ) );
+        Assert.assertEquals( "AbstractList", h.getNameByType( java.util.AbstractList.class ) );
+        Assert.assertEquals( "Comparable", h.getNameByType( String.class ) );
+        Assert.assertNull( h.getNameByType( java.util.HashMap.class ) );
+        Assert.assertNull( h.getNameByType( java.util.HashMap.class ) );
+
+        Assert.assertEquals( "Long", n.getNameByType( Long.class ) );
+        Assert.assertNull( n.getNameByType( Integer.class ) );
+        Assert.assertNull( n.getNameByType( String.class ) );
+    }
+
     @Test
     public void testBaseClass() throws Exception {
         Assert.assertEquals( r.getBaseClass(), Object.class );
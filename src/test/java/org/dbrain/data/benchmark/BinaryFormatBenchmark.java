@@ -0,0 +1,142 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.dbrain.data.jackson.JacksonBinarySerializer;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Encoding and decoding an array of records with JSON, Smile and CBOR. The encode benchmark also reports the bytes
+ * written, as the encodedBytes secondary result: run in throughput mode, its score divided by the encode score is the
+ * size of the encoded document.
+ *
+ * Build with mvn -Pbenchmark clean test-compile, then run the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BinaryFormatBenchmark {
+
+    @Param( { "json", "smile", "cbor" } )
+    public String format;
+
+    @Param( { "1000" } )
+    public int size;
+
+    // Byte methods of the serializer of the format, JSON being a text format.
+    private Function<Object, byte[]>   encoder;
+    private Function<byte[], NodeList> decoder;
+
+    private NodeList document;
+
+    private byte[] encoded;
+
+    private void serializer( String format ) {
+        JsonFactory factory;
+        switch ( format ) {
+            case "smile":
+                factory = new SmileFactory();
+                break;
+            case "cbor":
+                factory = new CBORFactory();
+                break;
+            default:
+                JacksonSerializer json = JacksonSerializer.newBuilder().build();
+                encoder = json::writeToBytes;
+                decoder = bytes -> json.read( bytes, NodeList.class );
+                return;
+        }
+        JacksonBinarySerializer binary = JacksonSerializer.newBuilder().withFactory( factory ).buildBinary();
+        encoder = binary::writeToBytes;
+        decoder = bytes -> binary.read( bytes, NodeList.class );
+    }
+
+    private static NodeList document( int size ) {
+        NodeList document = NodeList.newInstance();
+        for ( int i = 0; i < size; i++ ) {
+            document.add( NodeMap.newBuilder().put( "id", i ).put( "name", "item" + i ).put( "price", i * 1.25d )
+                                 .put( "active", i % 2 == 0 ).put( "quantity", i * 7L )
+                                 .put( "tags", NodeList.asList( "red", "large", "item" + ( i % 10 ) ) ).build() );
+        }
+        return document;
+    }
+
+    @Setup
+    public void setup() {
+        serializer( format );
+        document = document( size );
+        encoded = encoder.apply( document );
+    }
+
+    /**
+     * Bytes encoded, reported by JMH next to the timings.
+     */
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.OPERATIONS )
+    public static class Counters {
+
+        public long encodedBytes;
+
+        @Setup( Level.Iteration )
+        public void reset() {
+            encodedBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public int encode( Counters counters ) {
+        int length = encoder.apply( document ).length;
+        counters.encodedBytes += length;
+        return length;
+    }
+
+    @Benchmark
+    public NodeList decode() {
+        return decoder.apply( encoded );
+    }
+
+    public static void main( String[] args ) throws Exception {
+        new Runner( new OptionsBuilder().include( BinaryFormatBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.benchmark;
+
+import org.dbrain.data.Fqn;
+import org.dbrain.data.FqnPattern;
+import org.dbrain.data.FqnPatternSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of matching a name against many patterns of the form schema.table.*, schema.**, **.column, one at a time
+ * and through a FqnPatternSet.
+ *
+ * Build with mvn -Pbenchmark clean test-compile, then run the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FqnPatternSetBenchmark {
+
+    @Param( { "100", "5000" } )
+    public int size;
+
+    private List<FqnPattern> patterns;
+
+    private FqnPatternSet<Integer> set;
+
+    private Fqn name;
+
+    @Setup
+    public void setup() {
+        patterns = new ArrayList<>();
+        FqnPatternSet.Builder<Integer> builder = FqnPatternSet.newBuilder();
+        for ( int i = 0; i < size; i++ ) {
+            FqnPattern pattern;
+            switch ( i % 3 ) {
+                case 0:
+                    pattern = FqnPattern.of( "schema" + i / 3 + ".table" + i + ".*" );
+                    break;
+                case 1:
+                    pattern = FqnPattern.of( "schema" + i / 3 + ".**" );
+                    break;
+                default:
+                    pattern = FqnPattern.of( "**.column" + i );
+                    break;
+            }
+            patterns.add( pattern );
+            builder.add( pattern, i );
+        }
+        set = builder.build();
+        name = Fqn.of( "schema" + size / 6 + ".table" + ( size / 6 ) * 3 + ".column" );
+    }
+
+    @Benchmark
+    public int matchEach() {
+        int count = 0;
+        for ( FqnPattern pattern : patterns ) {
+            if ( pattern.match( name ).matched() ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchSet() {
+        return set.match( name ).size();
+    }
+
+    public static void main( String[] args ) throws Exception {
+        new Runner( new OptionsBuilder().include( FqnPatternSetBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.benchmark;
+
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.jackson.NdjsonCursor;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reading NDJSON records sequentially with streamValues and in parallel with streamValuesParallel, on a pool of the
+ * given parallelism. The input can simulate a slow source, sleeping on each read of a chunk, and the consumer can spend
+ * some work on each value, to measure how much of the reading overlaps with the parsing and the consumer.
+ *
+ * The speedup of the parallel reader over the cores has not been measured, the benchmark was only run on a single
+ * core.
+ *
+ * Build with mvn -Pbenchmark clean test-compile, then run the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NdjsonReadBenchmark {
+
+    @Param( { "100000" } )
+    public int size;
+
+    @Param( { "1", "2", "4" } )
+    public int parallelism;
+
+    // Sleep on each read of the input, in microseconds.
+    @Param( { "0", "2000" } )
+    public int readDelay;
+
+    // Work spent by the consumer on each value, in JMH tokens.
+    @Param( { "0", "1000" } )
+    public int work;
+
+    private ForkJoinPool pool;
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    private byte[] ndjson;
+
+    @Setup
+    public void setup() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        for ( int i = 0; i < size; i++ ) {
+            Node record = NodeMap.newBuilder().put( "id", i ).put( "name", "item" + i ).put( "price", i * 1.25d )
+                                 .put( "active", i % 2 == 0 ).put( "tags", NodeList.asList( "red", "large" ) )
+                                 .build();
+            serializer.write( os, record );
+            os.write( '\n' );
+        }
+        ndjson = os.toByteArray();
+        pool = new ForkJoinPool( parallelism );
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private InputStream input() {
+        return new ByteArrayInputStream( ndjson ) {
+
+            @Override
+            public synchronized int read( byte[] b, int off, int len ) {
+                if ( readDelay > 0 ) {
+                    LockSupport.parkNanos( readDelay * 1000L );
+                }
+                // Reads of a chunk, as from a file or a socket.
+                return super.read( b, off, Math.min( len, 64 * 1024 ) );
+            }
+        };
+    }
+
+    private void consume( Node value, Blackhole blackhole ) {
+        Blackhole.consumeCPU( work );
+        blackhole.consume( value );
+    }
+
+    @Benchmark
+    public void readSequential( Blackhole blackhole ) {
+        serializer.streamValues( input() ).stream().forEach( v -> consume( v, blackhole ) );
+    }
+
+    @Benchmark
+    public void readParallel( Blackhole blackhole ) {
+        serializer.streamValuesParallel( input(), Node.class, pool, NdjsonCursor.DEFAULT_CHUNK_SIZE, parallelism * 2 )
+                  .stream().forEach( v -> consume( v, blackhole ) );
+    }
+
+    public static void main( String[] args ) throws Exception {
+        new Runner( new OptionsBuilder().include( NdjsonReadBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
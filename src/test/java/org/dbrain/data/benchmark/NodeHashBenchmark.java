@@ -0,0 +1,122 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.benchmark;
+
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up a large document in a HashSet. Mutable documents compute their hash on every lookup, frozen
+ * documents use their cached hash. A hit still compares the whole trees, a miss is rejected on the hash.
+ *
+ * Build with mvn -Pbenchmark clean test-compile, then run the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NodeHashBenchmark {
+
+    @Param( { "100", "10000" } )
+    public int size;
+
+    private NodeMap mutable;
+    private NodeMap mutableCopy;
+    private NodeMap mutableOther;
+    private NodeMap frozen;
+    private NodeMap frozenCopy;
+    private NodeMap frozenOther;
+
+    private Set<Node> mutableSet;
+    private Set<Node> frozenSet;
+
+    private static NodeMap document( int size, int seed ) {
+        NodeList items = NodeList.newInstance();
+        for ( int i = 0; i < size; i++ ) {
+            items.add( NodeMap.newBuilder().put( "id", i ).put( "name", "item" + i ).put( "price", i * 1.5d + seed )
+                              .build() );
+        }
+        NodeMap doc = NodeMap.newInstance();
+        doc.put( "items", items );
+        doc.put( "seed", Node.of( seed ) );
+        return doc;
+    }
+
+    @Setup
+    public void setup() {
+        mutable = document( size, 0 );
+        mutableCopy = document( size, 0 );
+        frozen = mutable.freeze();
+        frozenCopy = mutableCopy.freeze();
+        mutableOther = document( size, 1 );
+        frozenOther = mutableOther.freeze();
+
+        mutableSet = new HashSet<>();
+        mutableSet.add( mutable );
+        frozenSet = new HashSet<>();
+        frozenSet.add( frozen );
+
+        // Compute the cached hashes.
+        frozenCopy.hashCode();
+        frozenOther.hashCode();
+    }
+
+    @Benchmark
+    public boolean lookupHitMutable() {
+        return mutableSet.contains( mutableCopy );
+    }
+
+    @Benchmark
+    public boolean lookupHitFrozen() {
+        return frozenSet.contains( frozenCopy );
+    }
+
+    @Benchmark
+    public boolean lookupMissMutable() {
+        return mutableSet.contains( mutableOther );
+    }
+
+    @Benchmark
+    public boolean lookupMissFrozen() {
+        return frozenSet.contains( frozenOther );
+    }
+
+    public static void main( String[] args ) throws Exception {
+        new Runner( new OptionsBuilder().include( NodeHashBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
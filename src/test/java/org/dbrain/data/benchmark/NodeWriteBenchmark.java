@@ -0,0 +1,120 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dbrain.data.jackson.modules.StandardModule;
+import org.dbrain.data.jackson.serializers.JsonValueSerializer;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing an array of records to JSON, with JsonValueSerializer and with the generic writer it replaced, that
+ * wrote scalars through writeObject( node.getObject() ).
+ *
+ * Build with mvn -Pbenchmark clean test-compile, then run the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NodeWriteBenchmark {
+
+    @Param( { "1000" } )
+    public int size;
+
+    private final ObjectMapper        objectMapper = new ObjectMapper().registerModule( new StandardModule() );
+    private final JsonValueSerializer serializer   = new JsonValueSerializer();
+    private final CharArrayWriter     writer       = new CharArrayWriter( 1 << 20 );
+
+    private NodeList document;
+
+    @Setup
+    public void setup() {
+        document = NodeList.newInstance();
+        for ( int i = 0; i < size; i++ ) {
+            document.add( NodeMap.newBuilder().put( "id", i ).put( "name", "item" + i ).put( "price", i * 1.25d )
+                                 .put( "active", i % 2 == 0 ).put( "quantity", i * 7L ).build() );
+        }
+    }
+
+    private static void writeGeneric( Node node, JsonGenerator w ) throws IOException {
+        if ( node == null || node.isNull() ) {
+            w.writeNull();
+        } else if ( node instanceof NodeMap ) {
+            w.writeStartObject();
+            for ( Map.Entry<String, Node> e : ( (NodeMap) node ).entrySet() ) {
+                w.writeFieldName( e.getKey() );
+                writeGeneric( e.getValue(), w );
+            }
+            w.writeEndObject();
+        } else if ( node instanceof NodeList ) {
+            w.writeStartArray();
+            for ( Node e : (NodeList) node ) {
+                writeGeneric( e, w );
+            }
+            w.writeEndArray();
+        } else {
+            w.writeObject( node.getObject() );
+        }
+    }
+
+    @Benchmark
+    public int writeSpecialized() throws IOException {
+        writer.reset();
+        try ( JsonGenerator generator = objectMapper.getFactory().createGenerator( writer ) ) {
+            serializer.writeValue( document, generator );
+        }
+        return writer.size();
+    }
+
+    @Benchmark
+    public int writeGeneric() throws IOException {
+        writer.reset();
+        try ( JsonGenerator generator = objectMapper.getFactory().createGenerator( writer ) ) {
+            writeGeneric( document, generator );
+        }
+        return writer.size();
+    }
+
+    public static void main( String[] args ) throws Exception {
+        new Runner( new OptionsBuilder().include( NodeWriteBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+
+package org.dbrain.data.impl.value;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MapShape_Test {
+
+    @Test
+    public void testShared() throws Exception {
+        MapShape shape = MapShape.EMPTY.with( "shared_a" ).with( "shared_b" );
+        Assert.assertSame( shape, MapShape.EMPTY.with( "shared_a" ).with( "shared_b" ) );
+        Assert.assertSame( MapShape.EMPTY.with( "shared_a" ), shape.parent() );
+        Assert.assertEquals( 1, shape.slotOf( "shared_b" ) );
+        Assert.assertEquals( -1, shape.slotOf( "other" ) );
+    }
+
+    @Test
+    public void testTransitionLimitIsLocal() throws Exception {
+        // Fill the children of one shape with live shapes.
+        MapShape full = MapShape.EMPTY.with( "local_full" );
+        List<MapShape> live = new ArrayList<>();
+        for ( int i = 0; i < MapShape.MAX_TRANSITIONS; i++ ) {
+            live.add( full.with( "id" + i ) );
+        }
+        Assert.assertNull( full.with( "more" ) );
+        Assert.assertSame( live.get( 0 ), full.with( "id0" ) );
+
+        // Other shapes still grow.
+        MapShape other = MapShape.EMPTY.with( "local_other" ).with( "id" ).with( "name" );
+        Assert.assertNotNull( other );
+        Assert.assertSame( other, MapShape.EMPTY.with( "local_other" ).with( "id" ).with( "name" ) );
+    }
+
+    @Test
+    public void testReclaimed() throws Exception {
+        MapShape full = MapShape.EMPTY.with( "reclaimed_full" );
+        for ( int i = 0; i < MapShape.MAX_TRANSITIONS; i++ ) {
+            full.with( "id" + i );
+        }
+
+        // The children are not used by any map, once reclaimed the shape grows again.
+        MapShape more = null;
+        for ( int i = 0; i < 20 && more == null; i++ ) {
+            System.gc();
+            Thread.sleep( 10 );
+            more = full.with( "more" );
+        }
+        Assume.assumeNotNull( more );
+        Assert.assertEquals( "more", more.key( 1 ) );
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.TextSerializer;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryNodeSerializer_Test {
+
+    private TextSerializer textSerializer = JacksonSerializer.newBuilder().build();
+
+    private NodeMap sample() {
+        return textSerializer.read( "{ \"name\": \"héllo 世界\", \"long\": -1234567890123, \"double\": 123.4, " +
+                                    "\"big\": 123456789012345678901234567890.5, \"t\": true, \"f\": false, \"n\": null, " +
+                                    "\"list\": [ 1, \"two\", [], {} ], \"map\": { \"z\": 1, \"a\": { \"b\": [ null ] } } }",
+                                    NodeMap.class );
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        NodeMap map = sample();
+        Node decoded = BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( map ) );
+        Assert.assertEquals( map, decoded );
+        Assert.assertEquals( decoded, map );
+        Assert.assertEquals( map.hashCode(), decoded.hashCode() );
+        Assert.assertEquals( textSerializer.writeToString( map ), textSerializer.writeToString( decoded ) );
+
+        // Insertion order is kept.
+        Assert.assertEquals( new ArrayList<>( map.keySet() ), new ArrayList<>( decoded.getMap().keySet() ) );
+    }
+
+    @Test
+    public void testScalars() throws Exception {
+        for ( Node n : Arrays.asList( Node.nullValue(), Node.of( true ), Node.of( "" ), Node.of( Long.MIN_VALUE ),
+                                      Node.of( 1e300 ), Node.of( new BigDecimal( "-0.000001" ) ),
+                                      Node.of( new BigInteger( "123456789012345678901234567890" ) ) ) ) {
+            Assert.assertEquals( n, BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( n ) ) );
+        }
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        NodeMap.Builder builder = NodeMap.newBuilder();
+        for ( int i = 0; i < 1000; i++ ) {
+            builder.put( "key" + i, i );
+        }
+        NodeMap decoded = BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( builder.build() ) ).getMap();
+        Assert.assertEquals( 1000, decoded.size() );
+        for ( int i = 0; i < 1000; i++ ) {
+            Assert.assertEquals( Integer.valueOf( i ), decoded.getInt( "key" + i ) );
+        }
+        Assert.assertFalse( decoded.containsKey( "key1000" ) );
+        Assert.assertFalse( decoded.containsKey( "" ) );
+        Assert.assertTrue( decoded.get( "missing" ).isNull() );
+    }
+
+    @Test
+    public void testLookupUnicode() throws Exception {
+        // Keys are sorted by their UTF-8 bytes, lookups encode the key while comparing.
+        List<String> keys = Arrays.asList( "a", "ab", "é", "éa", "\u07ff", "\u0800", "世界", "\uffff", "\ud83d\ude00",
+                                           "\ud83d\ude00a", "z\ud800", "\u007f", "" );
+        NodeMap.Builder builder = NodeMap.newBuilder();
+        for ( int i = 0; i < keys.size(); i++ ) {
+            builder.put( keys.get( i ), i );
+        }
+        NodeMap decoded = BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( builder.build() ) ).getMap();
+        for ( int i = 0; i < keys.size(); i++ ) {
+            Assert.assertEquals( Integer.valueOf( i ), decoded.getInt( keys.get( i ) ) );
+        }
+        for ( String missing : Arrays.asList( "b", "e", "é\u0000", "世", "\ud83d\ude01", "\ud83d", "aa" ) ) {
+            Assert.assertFalse( missing, decoded.containsKey( missing ) );
+        }
+    }
+
+    @Test
+    public void testDirectBuffer() throws Exception {
+        NodeMap map = sample();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        os.write( 42 );
+        BinaryNodeSerializer.encode( map, os );
+        byte[] bytes = os.toByteArray();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect( bytes.length );
+        buffer.put( bytes );
+        buffer.position( 1 );
+        Node decoded = BinaryNodeSerializer.decode( buffer );
+        Assert.assertEquals( map, decoded );
+        Assert.assertEquals( "héllo 世界", decoded.getMap().getString( "name" ) );
+    }
+
+    @Test
+    public void testFrozen() throws Exception {
+        NodeMap decoded = BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( sample() ) ).getMap();
+        Assert.assertTrue( decoded.isFrozen() );
+        Assert.assertSame( decoded, decoded.freeze() );
+
+        NodeMap changed = decoded.with( "name", Node.of( "x" ) );
+        Assert.assertEquals( "x", changed.getString( "name" ) );
+        Assert.assertEquals( decoded.get( "list" ), changed.get( "list" ) );
+
+        NodeList list = decoded.get( "list" ).getList();
+        Assert.assertEquals( 5, list.plus( Node.of( 5 ) ).size() );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testReadOnly() throws Exception {
+        BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( sample() ) ).getMap().put( "a", Node.of( 1 ) );
+    }
+
+    @Test( expected = ParseException.class )
+    public void testBadDocument() throws Exception {
+        BinaryNodeSerializer.decode( "{}".getBytes() );
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.dbrain.data.jackson.artifacts.Person;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class JacksonSerializer_Batch_Test {
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    @Test
+    public void testReadAll() throws Exception {
+        List<NodeMap> maps = serializer.readAll( Arrays.asList( "{\"a\":1}", "{}", "{\"b\":[true]}" ), NodeMap.class );
+        Assert.assertEquals( 3, maps.size() );
+        Assert.assertEquals( Node.of( 1 ), maps.get( 0 ).get( "a" ) );
+        Assert.assertTrue( maps.get( 1 ).isEmpty() );
+        Assert.assertEquals( NodeList.asList( true ), maps.get( 2 ).get( "b" ) );
+
+        List<Person> persons = serializer.readAll( Arrays.asList( "{\"name\":\"John\"}", "{\"name\":\"Jane\"}" ),
+                                                   Person.class );
+        Assert.assertEquals( "John", persons.get( 0 ).getName() );
+        Assert.assertEquals( "Jane", persons.get( 1 ).getName() );
+
+        List<Node> deferred = JacksonSerializer.newBuilder().withDeferredParsing( true ).build().readAll(
+                Arrays.asList( "[1]", "2" ), Node.class );
+        Assert.assertEquals( Arrays.asList( NodeList.asList( 1 ), Node.of( 2 ) ), deferred );
+    }
+
+    @Test( expected = ParseException.class )
+    public void testReadAllTrailing() throws Exception {
+        serializer.readAll( Arrays.asList( "{}", "{} {}" ), NodeMap.class );
+    }
+
+    @Test
+    public void testReadValues() throws Exception {
+        Iterator<Person> persons = serializer.readValues( new StringReader(
+                "{\"name\":\"John\"}\n{\"name\":\"Jane\"}\n" ), Person.class );
+        Assert.assertTrue( persons.hasNext() );
+        Assert.assertEquals( "John", persons.next().getName() );
+        Assert.assertEquals( "Jane", persons.next().getName() );
+        Assert.assertFalse( persons.hasNext() );
+
+        // Root arrays are values, not unwrapped.
+        Iterator<Node> nodes = serializer.readValues( new StringReader( "[1,2] {\"a\":null} 3" ), Node.class );
+        Assert.assertEquals( NodeList.asList( 1, 2 ), nodes.next() );
+        Assert.assertEquals( NodeMap.newBuilder().putNull( "a" ).build(), nodes.next() );
+        Assert.assertEquals( Node.of( 3 ), nodes.next() );
+        Assert.assertFalse( nodes.hasNext() );
+    }
+
+    @Test
+    public void testReadValuesLazy() throws Exception {
+        Iterator<NodeMap> maps = serializer.readValues( new StringReader( "{\"a\":1}\n{\"a\":" ), NodeMap.class );
+        Assert.assertEquals( Node.of( 1 ), maps.next().get( "a" ) );
+        try {
+            maps.next();
+            Assert.fail();
+        } catch ( ParseException e ) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testExternalMapperReconfigured() throws Exception {
+        ObjectMapper om = new ObjectMapper();
+        JacksonSerializer external = new JacksonSerializer( om );
+        Assert.assertEquals( "{\"a\":1}", external.writeToString( Collections.singletonMap( "a", 1 ) ) );
+
+        // The serializer does not keep a snapshot of the configuration of a mapper it does not own.
+        om.enable( SerializationFeature.INDENT_OUTPUT );
+        Assert.assertNotEquals( "{\"a\":1}", external.writeToString( Collections.singletonMap( "a", 1 ) ) );
+    }
+
+}
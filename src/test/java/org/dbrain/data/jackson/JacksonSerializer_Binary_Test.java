@@ -0,0 +1,132 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.dbrain.data.Fqn;
+import org.dbrain.data.Path;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class JacksonSerializer_Binary_Test {
+
+    private static final String JSON = "{\"name\":\"héllo ☃ 😀\",\"id\":12345678901234567,\"price\":1.25," +
+                                       "\"list\":[1,2.5,true,null,{\"a\":[]}],\"empty\":{}}";
+
+    private final JacksonSerializer json = JacksonSerializer.newBuilder().build();
+
+    private static JacksonBinarySerializer binary( JsonFactory factory ) {
+        return JacksonSerializer.newBuilder().withFactory( factory ).buildBinary();
+    }
+
+    private void assertRoundTrip( JacksonBinarySerializer s ) throws Exception {
+        // Long numbers are written as strings by the standard module, as in JSON.
+        NodeMap expected = json.read( json.writeToString( json.read( JSON, NodeMap.class ) ), NodeMap.class );
+
+        byte[] bytes = s.writeToBytes( expected );
+        Assert.assertEquals( expected, s.read( bytes, NodeMap.class ) );
+        Assert.assertEquals( expected, s.read( new ByteArrayInputStream( bytes ), Node.class ) );
+        Assert.assertEquals( expected, s.read( ByteBuffer.wrap( bytes ), NodeMap.class ) );
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        s.write( os, expected );
+        Assert.assertArrayEquals( bytes, os.toByteArray() );
+
+        // Same values as through JSON.
+        Assert.assertEquals( json.writeToString( expected ), json.writeToString( s.read( bytes, Node.class ) ) );
+
+        NodeList list = NodeList.asList( 1L, "a", 2.5d, new BigDecimal( "1234.5678" ), null );
+        Assert.assertEquals( list, s.read( s.writeToBytes( list ), NodeList.class ) );
+
+        Fqn fqn = Fqn.of( "a123.a45" );
+        Assert.assertEquals( fqn, s.read( s.writeToBytes( fqn ), Fqn.class ) );
+        Path path = Path.of( "a123[45]" );
+        Assert.assertEquals( path, s.read( s.writeToBytes( path ), Path.class ) );
+        Assert.assertNull( s.read( s.writeToBytes( null ), Path.class ) );
+    }
+
+    @Test
+    public void testSmile() throws Exception {
+        JacksonBinarySerializer s = binary( new SmileFactory() );
+        Assert.assertEquals( "Smile", s.getFormatName() );
+        assertRoundTrip( s );
+    }
+
+    @Test
+    public void testCbor() throws Exception {
+        JacksonBinarySerializer s = binary( new CBORFactory() );
+        Assert.assertEquals( "CBOR", s.getFormatName() );
+        assertRoundTrip( s );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testJsonIsText() throws Exception {
+        binary( new JsonFactory() );
+    }
+
+    @Test
+    public void testStreamValues() throws Exception {
+        // CBOR values can be concatenated, Smile values each start with a header.
+        JacksonBinarySerializer s = binary( new CBORFactory() );
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        os.write( s.writeToBytes( Node.of( 1 ) ) );
+        os.write( s.writeToBytes( NodeList.asList( "a" ) ) );
+        try ( NodeCursor cursor = s.streamValues( new ByteArrayInputStream( os.toByteArray() ) ) ) {
+            Assert.assertTrue( cursor.next() );
+            Assert.assertEquals( Node.of( 1 ), cursor.get() );
+            Assert.assertTrue( cursor.next() );
+            Assert.assertEquals( NodeList.asList( "a" ), cursor.get() );
+            Assert.assertFalse( cursor.next() );
+        }
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testNoText() throws Exception {
+        JacksonSerializer.newBuilder().withFactory( new SmileFactory() ).build();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testNoTextMapper() throws Exception {
+        new JacksonSerializer( new ObjectMapper( new CBORFactory() ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testNoDeferred() throws Exception {
+        JacksonSerializer.newBuilder().withFactory( new SmileFactory() ).withDeferredParsing( true ).buildBinary();
+    }
+
+    @Test
+    public void testSmaller() throws Exception {
+        NodeMap document = json.read( JSON, NodeMap.class );
+        int size = json.writeToString( document ).getBytes( StandardCharsets.UTF_8 ).length;
+        Assert.assertTrue( binary( new SmileFactory() ).writeToBytes( document ).length < size );
+        Assert.assertTrue( binary( new CBORFactory() ).writeToBytes( document ).length < size );
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.TextSerializer;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class JacksonSerializer_Bytes_Test {
+
+    private static final String JSON = "{\"name\":\"héllo ☃ 😀\",\"list\":[1,2.5,true,null]}";
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    private void assertBytes( TextSerializer s ) {
+        byte[] bytes = JSON.getBytes( StandardCharsets.UTF_8 );
+        NodeMap expected = serializer.read( JSON, NodeMap.class );
+
+        Assert.assertEquals( expected, s.read( bytes, NodeMap.class ) );
+        Assert.assertEquals( expected, s.read( new ByteArrayInputStream( bytes ), Node.class ) );
+
+        ByteBuffer buffer = ByteBuffer.allocate( bytes.length + 4 );
+        buffer.put( (byte) ' ' ).put( (byte) ' ' ).put( bytes ).flip();
+        buffer.position( 2 );
+        Assert.assertEquals( expected, s.read( buffer.slice(), NodeMap.class ) );
+        Assert.assertEquals( 2, buffer.position() );
+        ByteBuffer direct = ByteBuffer.allocateDirect( bytes.length );
+        direct.put( bytes ).flip();
+        Assert.assertEquals( expected, s.read( direct, NodeMap.class ) );
+
+        // Characters outside of the BMP may be escaped.
+        Assert.assertEquals( expected, s.read( s.writeToBytes( expected ), NodeMap.class ) );
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        s.write( os, expected );
+        Assert.assertEquals( expected, s.read( os.toByteArray(), NodeMap.class ) );
+        Assert.assertEquals( "[\"☃\"]", new String( s.writeToBytes( NodeList.asList( "☃" ) ), StandardCharsets.UTF_8 ) );
+    }
+
+    @Test
+    public void testJackson() throws Exception {
+        assertBytes( serializer );
+        assertBytes( JacksonSerializer.newBuilder().withDeferredParsing( true ).build() );
+    }
+
+    @Test
+    public void testDefaults() throws Exception {
+        // Only the char methods, the byte methods come from the interface.
+        assertBytes( new TextSerializer() {
+
+            @Override
+            public <T> T read( String from, Class<T> clazz ) {
+                return serializer.read( from, clazz );
+            }
+
+            @Override
+            public <T> T read( Reader from, Class<T> clazz ) {
+                return serializer.read( from, clazz );
+            }
+
+            @Override
+            public void write( Writer to, Object o ) {
+                serializer.write( to, o );
+            }
+
+            @Override
+            public String writeToString( Object o ) {
+                return serializer.writeToString( o );
+            }
+        } );
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        byte[] ndjson = "{\"a\":1}\n{\"a\":2}\n".getBytes( StandardCharsets.UTF_8 );
+        Assert.assertEquals( 2, serializer.streamValues( new ByteArrayInputStream( ndjson ) ).stream().count() );
+        byte[] array = "[1,2,3]".getBytes( StandardCharsets.UTF_8 );
+        Assert.assertEquals( 3, serializer.streamArray( new ByteArrayInputStream( array ) ).stream().count() );
+    }
+
+    @Test( expected = ParseException.class )
+    public void testTrailing() throws Exception {
+        serializer.read( "[1] 2".getBytes( StandardCharsets.UTF_8 ), NodeList.class );
+    }
+
+}
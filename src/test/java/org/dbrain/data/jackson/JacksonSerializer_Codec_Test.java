@@ -39,7 +39,7 @@ public class JacksonSerializer_Codec_Test {
     public void testWrite() throws Exception {
         StringWriter sw = new StringWriter();
 
-        standardSerializer.write( sw, new Long( 10 ) );
+        standardSerializer.write( sw, Long.valueOf( 10 ) );
         Assert.assertEquals( "10", sw.toString() );
 
     }
@@ -58,11 +58,11 @@ public class JacksonSerializer_Codec_Test {
 
     @Test
     public void testLongSpecialEncoding() throws Exception {
-        String s1 = standardSerializer.writeToString( new Long( 10 ) );
-        String s2 = standardSerializer.writeToString( new Long( 999999999999999l ) );
-        String s3 = standardSerializer.writeToString( new Long( 1000000000000000l ) );
-        String s4 = standardSerializer.writeToString( new Long( -999999999999999l ) );
-        String s5 = standardSerializer.writeToString( new Long( -1000000000000000l ) );
+        String s1 = standardSerializer.writeToString( Long.valueOf( 10 ) );
+        String s2 = standardSerializer.writeToString( Long.valueOf( 999999999999999l ) );
+        String s3 = standardSerializer.writeToString( Long.valueOf( 1000000000000000l ) );
+        String s4 = standardSerializer.writeToString( Long.valueOf( -999999999999999l ) );
+        String s5 = standardSerializer.writeToString( Long.valueOf( -1000000000000000l ) );
 
         Assert.assertEquals( "10", s1 );
         Assert.assertEquals( "999999999999999", s2 );
@@ -119,7 +119,7 @@ public class JacksonSerializer_Codec_Test {
 
     @Test
     public void testSerializeInteger() throws Exception {
-        String s = standardSerializer.writeToString( new Integer( 10 ) );
+        String s = standardSerializer.writeToString( Integer.valueOf( 10 ) );
         Assert.assertEquals( "10", s );
     }
 
@@ -0,0 +1,210 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.impl.tape.TapeListValueImpl;
+import org.dbrain.data.impl.tape.TapeMapValueImpl;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class JacksonSerializer_Deferred_Test {
+
+    private static final String JSON = "{ \"id\": 12, \"name\": \"caf\\u00e9 \\\"\\n\\\\/\", \"ok\": true, \"no\": false, " +
+                                       "\"none\": null, \"big\": 123456789012345678901234, \"pi\": -3.25e-1, " +
+                                       "\"items\": [ { \"a\": [ [], {} ] }, 1, \"x\" ], \"empty\": \"\" }";
+
+    private final JacksonSerializer eager    = JacksonSerializer.newBuilder().build();
+    private final JacksonSerializer deferred = JacksonSerializer.newBuilder().withDeferredParsing( true ).build();
+
+    @Test
+    public void testSameAsEager() throws Exception {
+        Assert.assertTrue( deferred.isDeferred() );
+        Node expected = eager.read( JSON, Node.class );
+        Assert.assertEquals( expected, deferred.read( JSON, Node.class ) );
+        Assert.assertEquals( expected, deferred.read( new StringReader( JSON ), NodeMap.class ) );
+        Assert.assertEquals( expected.hashCode(), deferred.read( JSON, Node.class ).hashCode() );
+        Assert.assertEquals( eager.writeToString( expected ), deferred.writeToString( deferred.read( JSON, Node.class ) ) );
+
+        String list = "[1, [2, [3, []]], {\"k\": {\"k\": {}}}]";
+        Assert.assertEquals( eager.read( list, NodeList.class ), deferred.read( list, NodeList.class ) );
+        Assert.assertNull( deferred.read( " null ", Node.class ) );
+        Assert.assertEquals( Node.of( "s" ), deferred.read( "\"s\"", Node.class ) );
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        StringBuilder sb = new StringBuilder( "{ \"head\": { \"v\": 1 }, \"rows\": [" );
+        for ( int i = 0; i < 1000; i++ ) {
+            sb.append( i > 0 ? "," : "" ).append( "{ \"i\": " ).append( i ).append( ", \"s\": \"row\" }" );
+        }
+        sb.append( "] }" );
+        NodeMap root = deferred.read( sb.toString(), NodeMap.class );
+        Assert.assertTrue( root instanceof TapeMapValueImpl );
+        Assert.assertEquals( Long.valueOf( 1 ), root.get( "head" ).getMap().getLong( "v" ) );
+
+        NodeList rows = root.get( "rows" ).getList();
+        Assert.assertTrue( rows instanceof TapeListValueImpl );
+        Assert.assertEquals( 1000, rows.size() );
+        Assert.assertSame( rows, root.get( "rows" ) );
+        Assert.assertEquals( Long.valueOf( 500 ), rows.get( 500 ).getMap().getLong( "i" ) );
+        Assert.assertSame( rows.get( 500 ), rows.get( 500 ) );
+        Assert.assertFalse( ( (TapeListValueImpl) rows ).isMaterialized() );
+    }
+
+    @Test
+    public void testModify() throws Exception {
+        NodeMap root = deferred.read( JSON, NodeMap.class );
+        NodeList items = root.get( "items" ).getList();
+        items.add( Node.of( 4 ) );
+        items.remove( 1 );
+        Assert.assertTrue( ( (TapeListValueImpl) items ).isMaterialized() );
+        Assert.assertEquals( 3, items.size() );
+        Assert.assertEquals( Node.of( 4 ), items.get( 2 ) );
+
+        root.put( "id", Node.of( 13 ) );
+        root.remove( "none" );
+        Assert.assertTrue( ( (TapeMapValueImpl) root ).isMaterialized() );
+        Assert.assertEquals( Long.valueOf( 13 ), root.getLong( "id" ) );
+        Assert.assertFalse( root.containsKey( "none" ) );
+        Assert.assertSame( items, root.get( "items" ) );
+
+        NodeMap map = deferred.read( "{ \"a\": 1, \"b\": 2 }", NodeMap.class );
+        map.entrySet().removeIf( e -> e.getKey().equals( "a" ) );
+        Assert.assertEquals( NodeMap.of( java.util.Collections.singletonMap( "b", 2 ) ), map );
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        StringBuilder json = new StringBuilder( "[" );
+        for ( int i = 0; i < 200; i++ ) {
+            json.append( i > 0 ? "," : "" ).append( "{ \"id\": " ).append( i ).append( ", \"k1\": 1, \"k2\": 2, " +
+                    "\"k3\": 3, \"k4\": 4, \"k5\": 5, \"k6\": 6, \"k7\": 7, \"k8\": 8, \"tags\": [ \"a\", \"b\" ] }" );
+        }
+        String text = json.append( "]" ).toString();
+        NodeList expected = eager.read( text, NodeList.class );
+
+        for ( int round = 0; round < 20; round++ ) {
+            NodeList list = deferred.read( text, NodeList.class );
+            List<Callable<List<Node>>> readers = new ArrayList<>();
+            for ( int t = 0; t < 4; t++ ) {
+                readers.add( () -> {
+                    List<Node> tags = new ArrayList<>();
+                    for ( int i = 0; i < list.size(); i++ ) {
+                        NodeMap row = list.get( i ).getMap();
+                        Assert.assertEquals( expected.get( i ), row );
+                        tags.add( row.get( "tags" ) );
+                    }
+                    return tags;
+                } );
+            }
+            ExecutorService executor = Executors.newFixedThreadPool( 4 );
+            try {
+                List<Future<List<Node>>> results = executor.invokeAll( readers );
+                List<Node> first = results.get( 0 ).get();
+                for ( Future<List<Node>> result : results ) {
+                    List<Node> tags = result.get();
+                    for ( int i = 0; i < tags.size(); i++ ) {
+                        // Every thread sees the same decoded instance.
+                        Assert.assertSame( first.get( i ), tags.get( i ) );
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicateKeys() throws Exception {
+        String json = "{ \"a\": 1, \"b\": 2, \"a\": 3 }";
+        NodeMap map = deferred.read( json, NodeMap.class );
+        Assert.assertEquals( eager.read( json, NodeMap.class ), map );
+        Assert.assertEquals( 2, map.size() );
+    }
+
+    @Test
+    public void testKeyTable() throws Exception {
+        NodeList list = deferred.read( "[ { \"name\": 1 }, { \"name\": 2 } ]", NodeList.class );
+        String k1 = list.get( 0 ).getMap().keySet().iterator().next();
+        String k2 = list.get( 1 ).getMap().keySet().iterator().next();
+        Assert.assertSame( k1, k2 );
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        String[] documents = { "", "{", "[1,]", "{\"a\" 1}", "{a: 1}", "[01]", "[1.]", "[-]", "\"abc", "\"\\x\"",
+                               "\"\\u12g4\"", "tru", "nul", "[1] 2", "[1 2]", "{\"a\":1,}", "\"a\tb\"" };
+        for ( String document : documents ) {
+            try {
+                deferred.read( document, Node.class );
+                Assert.fail( document );
+            } catch ( ParseException e ) {
+                // Expected.
+            }
+        }
+    }
+
+    private static void assertDetached( Node node ) {
+        Assert.assertFalse( node instanceof TapeMapValueImpl || node instanceof TapeListValueImpl );
+        if ( node instanceof NodeMap ) {
+            ( (NodeMap) node ).values().forEach( JacksonSerializer_Deferred_Test::assertDetached );
+        } else if ( node instanceof NodeList ) {
+            ( (NodeList) node ).forEach( JacksonSerializer_Deferred_Test::assertDetached );
+        }
+    }
+
+    @Test
+    public void testFreezeReleasesBuffer() throws Exception {
+        char[] buffer = JSON.toCharArray();
+        Node items = deferred.readDeferred( buffer, buffer.length ).getMap().get( "items" );
+        WeakReference<char[]> ref = new WeakReference<>( buffer );
+        buffer = null;
+
+        Node frozen = items.freeze();
+        Assert.assertEquals( items, frozen );
+        assertDetached( frozen );
+
+        // Once the deferred nodes are dropped, only the frozen copy remains.
+        items = null;
+        for ( int i = 0; i < 20 && ref.get() != null; i++ ) {
+            System.gc();
+            Thread.sleep( 10 );
+        }
+        Assume.assumeTrue( ref.get() == null );
+        Assert.assertEquals( eager.read( JSON, NodeMap.class ).get( "items" ), frozen );
+    }
+
+    @Test( expected = ParseException.class )
+    public void testWrongClass() throws Exception {
+        deferred.read( "[1]", NodeMap.class );
+    }
+
+}
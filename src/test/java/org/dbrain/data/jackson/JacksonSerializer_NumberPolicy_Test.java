@@ -0,0 +1,103 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.impl.value.DoubleValueImpl;
+import org.dbrain.data.impl.value.LazyNumberValueImpl;
+import org.dbrain.data.impl.value.LongValueImpl;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class JacksonSerializer_NumberPolicy_Test {
+
+    private static final String JSON = "[ 1, -42, 9223372036854775807, 123456789012345678901234567890, " +
+                                       "0.1, 3.141592653589793238462643383279, 1e3, -2.5E-3 ]";
+
+    private NodeList read( NumberPolicy policy ) {
+        JacksonSerializer serializer = JacksonSerializer.newBuilder().withNumberPolicy( policy ).build();
+        Assert.assertEquals( policy != null ? policy : NumberPolicy.FAST, serializer.getNumberPolicy() );
+        return serializer.read( JSON, NodeList.class );
+    }
+
+    @Test
+    public void testFast() throws Exception {
+        NodeList list = read( null );
+        Assert.assertTrue( list.get( 0 ) instanceof LongValueImpl );
+        Assert.assertTrue( list.get( 2 ) instanceof LongValueImpl );
+        Assert.assertEquals( new BigInteger( "123456789012345678901234567890" ),
+                             ( (BigDecimal) list.get( 3 ).getObject() ).toBigInteger() );
+        Assert.assertTrue( list.get( 4 ) instanceof DoubleValueImpl );
+        Assert.assertEquals( 3.141592653589793, list.get( 5 ).getDouble(), 0 );
+        Assert.assertEquals( Long.valueOf( 1000 ), list.get( 6 ).getLong() );
+    }
+
+    @Test
+    public void testExact() throws Exception {
+        NodeList list = read( NumberPolicy.EXACT );
+        Assert.assertTrue( list.get( 1 ) instanceof LongValueImpl );
+        Assert.assertEquals( new BigDecimal( "3.141592653589793238462643383279" ), list.get( 5 ).getObject() );
+        Assert.assertEquals( Node.of( 0.1 ), list.get( 4 ) );
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        NodeList lazy = read( NumberPolicy.LAZY );
+        NodeList exact = read( NumberPolicy.EXACT );
+        for ( Node node : lazy ) {
+            Assert.assertFalse( ( (LazyNumberValueImpl) node ).isParsed() );
+        }
+        Assert.assertEquals( "-2.5E-3", ( (LazyNumberValueImpl) lazy.get( 7 ) ).getLiteral() );
+        Assert.assertEquals( -0.0025, lazy.get( 7 ).getDouble(), 0 );
+        Assert.assertFalse( ( (LazyNumberValueImpl) lazy.get( 7 ) ).isParsed() );
+
+        Assert.assertEquals( Long.valueOf( -42 ), lazy.get( 1 ).getLong() );
+        Assert.assertTrue( ( (LazyNumberValueImpl) lazy.get( 1 ) ).isParsed() );
+
+        Assert.assertEquals( exact, lazy );
+        Assert.assertEquals( exact.hashCode(), lazy.hashCode() );
+        for ( int i = 0; i < exact.size(); i++ ) {
+            Assert.assertEquals( exact.get( i ).getString(), lazy.get( i ).getString() );
+        }
+    }
+
+    @Test
+    public void testLazyNormalized() throws Exception {
+        String json = "[ 1.50, 2.0, 100.0, -0.250, 1.5e1 ]";
+        JacksonSerializer fast = JacksonSerializer.newBuilder().build();
+        JacksonSerializer lazy = JacksonSerializer.newBuilder().withNumberPolicy( NumberPolicy.LAZY ).build();
+        NodeList f = fast.read( json, NodeList.class );
+        NodeList l = lazy.read( json, NodeList.class );
+        Assert.assertEquals( f, l );
+        Assert.assertEquals( fast.writeToString( f ), lazy.writeToString( l ) );
+        for ( int i = 0; i < f.size(); i++ ) {
+            Assert.assertEquals( f.get( i ).getString(), l.get( i ).getString() );
+            Assert.assertEquals( f.get( i ).getObject(), l.get( i ).getObject() );
+        }
+        Assert.assertEquals( "1.5", l.get( 0 ).getString() );
+
+        // The double of a decimal is parsed once.
+        Node n = lazy.read( "[ 0.125 ]", NodeList.class ).get( 0 );
+        Assert.assertSame( n.getDouble(), n.getDouble() );
+        Assert.assertFalse( ( (LazyNumberValueImpl) n ).isParsed() );
+    }
+
+}
@@ -62,6 +62,14 @@ public class JacksonSerializer_Test {
         Assert.assertEquals( new HashMap<>(), map.getObject( "object" ) );
     }
 
+    @Test
+    public void test_write_array() throws Exception {
+        NodeMap map = textSerializer.read( "{ \"list\": [ 1, [ \"a\", {} ] ], \"empty\": [] }", NodeMap.class );
+        String json = textSerializer.writeToString( map );
+        Assert.assertEquals( map, textSerializer.read( json, NodeMap.class ) );
+        Assert.assertEquals( "[1,[\"a\",{}]]", textSerializer.writeToString( map.get( "list" ) ) );
+    }
+
     @Test
     public void test_array_1() throws Exception {
         NodeList list = textSerializer.read( "[]", NodeList.class );
@@ -131,6 +139,21 @@ public class JacksonSerializer_Test {
         Assert.assertEquals( p1, p2 );
     }
 
+    @Test
+    public void testInterning() throws Exception {
+        JacksonSerializer serializer = JacksonSerializer.newBuilder().withInterning( true ).build();
+        Assert.assertTrue( serializer.isInterning() );
+        Assert.assertFalse( JacksonSerializer.newBuilder().build().isInterning() );
+
+        Fqn[] names = serializer.read( "[ \"schema.table\", \"schema.table\" ]", Fqn[].class );
+        Assert.assertSame( names[0], names[1] );
+        Assert.assertSame( Fqn.of( "schema.table" ).intern(), names[0] );
+
+        Path[] paths = serializer.read( "[ \"a[1].b\", \"a[1].b\" ]", Path[].class );
+        Assert.assertSame( paths[0], paths[1] );
+        Assert.assertSame( Path.of( "a[1].b" ).intern(), paths[0] );
+    }
+
     @Test
     public void testFqnSerializerNull() throws Exception {
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+public class JsonValueSerializer_Test {
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    /**
+     * Scalars must be written as their getObject() value would be.
+     */
+    private void assertSameAsObject( Node node ) {
+        Assert.assertEquals( node.toString(), serializer.writeToString( node.getObject() ),
+                             serializer.writeToString( node ) );
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        double[] doubles = { 0, -0d, 1, -1, 10, 100, 123, 0.1, 0.2 + 0.1, 1.5, -2.25, 1e-3, 9.99e-4, 1234567.5, 1e7,
+                             1e7 + 0.5, 999999999999999d, 1e15, 1e20, 1.23e-10, Math.PI, Double.MAX_VALUE,
+                             Double.MIN_VALUE };
+        for ( double d : doubles ) {
+            assertSameAsObject( Node.of( d ) );
+            assertSameAsObject( Node.of( -d ) );
+        }
+        Random random = new Random( 0 );
+        for ( int i = 0; i < 10000; i++ ) {
+            assertSameAsObject( Node.of( random.nextDouble() * Math.pow( 10, random.nextInt( 20 ) - 5 ) ) );
+            assertSameAsObject( Node.of( (double) random.nextInt( 100000 ) ) );
+            assertSameAsObject( Node.of( random.nextLong() >> random.nextInt( 64 ) ) );
+        }
+        long[] longs = { 0, 1, -1, 999999999999999L, 1000000000000000L, -999999999999999L, -1000000000000000L,
+                         Long.MAX_VALUE, Long.MIN_VALUE };
+        for ( long l : longs ) {
+            assertSameAsObject( Node.of( l ) );
+        }
+        assertSameAsObject( Node.of( new BigDecimal( "100000000000.1234" ) ) );
+        assertSameAsObject( Node.of( new BigDecimal( "1.50" ) ) );
+        assertSameAsObject( Node.of( new BigInteger( "123456789012345678901234567890" ) ) );
+        assertSameAsObject( Node.of( 1.5f ) );
+    }
+
+    @Test
+    public void testDocument() throws Exception {
+        String json = "{\"id\":1,\"name\":\"caf\\u00e9 \\\"x\\\"\",\"ok\":true,\"no\":false,\"none\":null," +
+                      "\"price\":12.5,\"items\":[{\"id\":2},{\"id\":3}],\"big\":\"1000000000000000\"}";
+        NodeMap map = serializer.read( json, NodeMap.class );
+        Assert.assertEquals( "{\"id\":1,\"name\":\"café \\\"x\\\"\",\"ok\":true,\"no\":false,\"none\":null," +
+                             "\"price\":12.5,\"items\":[{\"id\":2},{\"id\":3}],\"big\":\"1000000000000000\"}",
+                             serializer.writeToString( map ) );
+        Assert.assertEquals( map, serializer.read( serializer.writeToString( map.freeze() ), NodeMap.class ) );
+        Assert.assertEquals( "[1,\"a\"]", serializer.writeToString( NodeList.asList( 1, "a" ) ) );
+    }
+
+    @Test
+    public void testLazyNumbers() throws Exception {
+        JacksonSerializer lazy = JacksonSerializer.newBuilder().withNumberPolicy( NumberPolicy.LAZY ).build();
+        String[] literals = { "0", "-0", "1", "-1", "100", "0.5", "-0.5", "1.50", "2.0", "10.25", "0.001", "0.000001",
+                              "0.0000001", "1e3", "1.5E-2", "123456789012345", "1234567890123456", "0.123456789012345",
+                              "1234567.5", "999999999999999", "-999999999999999" };
+        for ( String literal : literals ) {
+            Assert.assertEquals( literal, serializer.writeToString( serializer.read( literal, Node.class ) ),
+                                 lazy.writeToString( lazy.read( literal, Node.class ) ) );
+        }
+        Random random = new Random( 0 );
+        for ( int i = 0; i < 10000; i++ ) {
+            String literal = new BigDecimal( random.nextLong() % 1000000000000L ).movePointLeft( random.nextInt( 12 ) )
+                                                                                  .toPlainString();
+            Assert.assertEquals( literal, serializer.writeToString( serializer.read( literal, Node.class ) ),
+                                 lazy.writeToString( lazy.read( literal, Node.class ) ) );
+        }
+    }
+
+    @Test
+    public void testCollidingFieldNames() throws Exception {
+        // Aa, BB and C# share a hash code.
+        NodeMap map = NodeMap.newInstance();
+        map.put( "Aa", Node.of( 1 ) );
+        map.put( "BB", Node.of( 2 ) );
+        map.put( "C#", Node.of( 3 ) );
+        for ( int i = 0; i < 3; i++ ) {
+            Assert.assertEquals( "{\"Aa\":1,\"BB\":2,\"C#\":3}", serializer.writeToString( map ) );
+        }
+    }
+
+}
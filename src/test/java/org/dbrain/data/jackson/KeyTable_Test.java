@@ -0,0 +1,105 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyTable_Test {
+
+    @Test
+    public void testCanonicalize() throws Exception {
+        KeyTable table = new KeyTable( 100 );
+        Assert.assertEquals( 128, table.capacity() );
+
+        String k1 = new String( "key" );
+        String k2 = new String( "key" );
+        Assert.assertSame( k1, table.canonicalize( k1 ) );
+        Assert.assertSame( k1, table.canonicalize( k2 ) );
+        Assert.assertNull( table.canonicalize( null ) );
+        Assert.assertEquals( 1, table.hits() );
+        Assert.assertEquals( 1, table.misses() );
+
+        table.resetStatistics();
+        Assert.assertEquals( 0, table.hits() );
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        KeyTable table = new KeyTable( 4 );
+        for ( int i = 0; i < 1000; i++ ) {
+            Assert.assertEquals( "key" + i, table.canonicalize( "key" + i ) );
+        }
+        Assert.assertEquals( 1000, table.misses() );
+    }
+
+    @Test
+    public void testCollidingKeys() throws Exception {
+        // "Aa" and "BB" have the same hash code, both stay resident.
+        KeyTable table = new KeyTable( 64 );
+        String aa = table.canonicalize( new String( "Aa" ) );
+        String bb = table.canonicalize( new String( "BB" ) );
+        for ( int i = 0; i < 10; i++ ) {
+            Assert.assertSame( aa, table.canonicalize( new String( "Aa" ) ) );
+            Assert.assertSame( bb, table.canonicalize( "BB".toCharArray(), 0, 2 ) );
+        }
+        Assert.assertEquals( 2, table.misses() );
+        Assert.assertEquals( 20, table.hits() );
+
+        // A third key evicts the least recently added one.
+        table.canonicalize( "C#" );
+        Assert.assertSame( bb, table.canonicalize( new String( "BB" ) ) );
+        Assert.assertNotSame( aa, table.canonicalize( new String( "Aa" ) ) );
+    }
+
+    @Test
+    public void testSerializerKeys() throws Exception {
+        // Deferred documents share the keys of the table, across documents.
+        JacksonSerializer serializer = JacksonSerializer.newBuilder().withKeyTable( 64 ).withDeferredParsing( true )
+                                                        .build();
+        NodeList l1 = serializer.read( "[ { \"id\": 1, \"name\": \"a\" } ]", NodeList.class );
+        NodeList l2 = serializer.read( "[ { \"id\": 2, \"name\": \"b\" } ]", NodeList.class );
+        String k1 = l1.get( 0 ).getMap().keySet().iterator().next();
+        String k2 = l2.get( 0 ).getMap().keySet().iterator().next();
+        Assert.assertEquals( "id", k1 );
+        Assert.assertSame( k1, k2 );
+
+        KeyTable table = serializer.getKeyTable();
+        Assert.assertEquals( 64, table.capacity() );
+        Assert.assertEquals( 2, table.misses() );
+        Assert.assertEquals( 2, table.hits() );
+
+        // Without a table, each document has its own keys.
+        JacksonSerializer noTable = JacksonSerializer.newBuilder().withKeyTable( 0 ).withDeferredParsing( true )
+                                                     .build();
+        l1 = noTable.read( "[ { \"id\": 1 } ]", NodeList.class );
+        l2 = noTable.read( "[ { \"id\": 2 } ]", NodeList.class );
+        Assert.assertNotSame( l1.get( 0 ).getMap().keySet().iterator().next(),
+                              l2.get( 0 ).getMap().keySet().iterator().next() );
+    }
+
+    @Test
+    public void testNoKeyTable() throws Exception {
+        JacksonSerializer serializer = JacksonSerializer.newBuilder().withKeyTable( 0 ).build();
+        Assert.assertNull( serializer.getKeyTable() );
+        NodeMap map = serializer.read( "{ \"id\": 1 }", NodeMap.class );
+        Assert.assertEquals( Integer.valueOf( 1 ), map.getInt( "id" ) );
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.jackson.artifacts.Person;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class NdjsonCursor_Test {
+
+    private static final ForkJoinPool pool = new ForkJoinPool( 4 );
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    @AfterClass
+    public static void shutdown() {
+        pool.shutdown();
+    }
+
+    private static InputStream input( String s ) {
+        return new ByteArrayInputStream( s.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private static String lines( int count ) {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < count; i++ ) {
+            sb.append( "{\"id\":" ).append( i ).append( ",\"name\":\"item ☃ " ).append( i ).append( "\"}" );
+            sb.append( i % 7 == 0 ? "\r\n" : "\n" );
+            if ( i % 100 == 0 ) {
+                sb.append( '\n' );
+            }
+        }
+        return sb.toString();
+    }
+
+    private <T> NdjsonCursor<T> cursor( String s, Class<T> clazz, int chunkSize ) {
+        return serializer.streamValuesParallel( input( s ), clazz, pool, chunkSize, 3 );
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        String ndjson = lines( 5000 );
+        List<Node> expected = serializer.streamValues( input( ndjson ) ).stream().collect( Collectors.toList() );
+        for ( int chunkSize : new int[]{ 1, 16, 100, 4096, NdjsonCursor.DEFAULT_CHUNK_SIZE } ) {
+            try ( NdjsonCursor<Node> cursor = cursor( ndjson, Node.class, chunkSize ) ) {
+                Assert.assertEquals( expected, cursor.stream().collect( Collectors.toList() ) );
+                Assert.assertTrue( cursor.eof() );
+            }
+        }
+        Assert.assertEquals( 5000, serializer.streamValuesParallel( input( ndjson ), Node.class ).stream().count() );
+    }
+
+    @Test
+    public void testCursor() throws Exception {
+        NdjsonCursor<NodeMap> cursor = cursor( "{\"a\":1}\n\n{\"a\":2}", NodeMap.class, 4 );
+        Assert.assertTrue( cursor.bof() );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertEquals( Node.of( 1 ), cursor.get().get( "a" ) );
+        Assert.assertTrue( cursor.iterator().hasNext() );
+        Assert.assertEquals( 0, cursor.getOrdinal() );
+        Assert.assertEquals( Node.of( 1 ), cursor.get().get( "a" ) );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertEquals( Node.of( 2 ), cursor.get().get( "a" ) );
+        Assert.assertFalse( cursor.next() );
+        Assert.assertTrue( cursor.eof() );
+    }
+
+    @Test
+    public void testPojo() throws Exception {
+        String ndjson = "{\"name\":\"John\"}\n{\"name\":\"Jane\"}\n";
+        try ( NdjsonCursor<Person> cursor = cursor( ndjson, Person.class, 8 ) ) {
+            Assert.assertEquals( "John,Jane",
+                                 cursor.stream().map( Person::getName ).collect( Collectors.joining( "," ) ) );
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        Assert.assertFalse( cursor( "", Node.class, 16 ).next() );
+        Assert.assertFalse( cursor( "\n\n", Node.class, 16 ).next() );
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        NdjsonCursor<Node> cursor = cursor( lines( 50 ) + "{\"a\":\n" + lines( 50 ), Node.class, 64 );
+        for ( int i = 0; i < 50; i++ ) {
+            Assert.assertTrue( cursor.next() );
+        }
+        try {
+            cursor.next();
+            Assert.fail();
+        } catch ( ParseException e ) {
+            // 50 lines, 1 blank line.
+            Assert.assertTrue( e.getMessage(), e.getMessage().startsWith( "Malformed line #52" ) );
+        }
+        Assert.assertTrue( cursor.eof() );
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        byte[] bytes = lines( 10000 ).getBytes( StandardCharsets.UTF_8 );
+        AtomicInteger read = new AtomicInteger();
+        InputStream counting = new ByteArrayInputStream( bytes ) {
+
+            @Override
+            public synchronized int read( byte[] b, int off, int len ) {
+                int n = super.read( b, off, len );
+                read.addAndGet( Math.max( n, 0 ) );
+                return n;
+            }
+        };
+        try ( NdjsonCursor<Node> cursor = serializer.streamValuesParallel( counting, Node.class, pool, 1024, 3 ) ) {
+            Assert.assertTrue( cursor.next() );
+            Thread.sleep( 50 );
+            // The chunk taken and three in flight, plus the partial lines carried over.
+            Assert.assertTrue( read.get() > 1024 );
+            Assert.assertTrue( read.get() < 5 * 1024 );
+        }
+    }
+
+    @Test
+    public void testReadAhead() throws Exception {
+        // The reader runs on the pool: while the consumer waits on the first chunk, the next ones are read.
+        CountDownLatch ahead = new CountDownLatch( 3 );
+        InputStream slow = new ByteArrayInputStream( lines( 1000 ).getBytes( StandardCharsets.UTF_8 ) ) {
+
+            @Override
+            public synchronized int read( byte[] b, int off, int len ) {
+                ahead.countDown();
+                return super.read( b, off, Math.min( len, 256 ) );
+            }
+        };
+        try ( NdjsonCursor<Node> cursor = serializer.streamValuesParallel( slow, Node.class, pool, 1024, 3 ) ) {
+            Assert.assertTrue( cursor.next() );
+            Assert.assertTrue( ahead.await( 10, TimeUnit.SECONDS ) );
+            Assert.assertEquals( 1000, cursor.stream().count() + 1 );
+        }
+    }
+
+    @Test
+    public void testInputError() throws Exception {
+        byte[] bytes = lines( 100 ).getBytes( StandardCharsets.UTF_8 );
+        InputStream failing = new ByteArrayInputStream( bytes ) {
+
+            @Override
+            public synchronized int read( byte[] b, int off, int len ) {
+                int n = super.read( b, off, len );
+                return n >= 0 ? n : failure();
+            }
+
+            private int failure() {
+                throw new UncheckedIOException( new IOException( "Broken" ) );
+            }
+        };
+        NdjsonCursor<Node> cursor = serializer.streamValuesParallel( failing, Node.class, pool, 256, 2 );
+        // The values of the chunks read before the error are delivered, the last partial chunk is lost.
+        int count = 0;
+        try {
+            while ( cursor.next() ) {
+                count++;
+            }
+            Assert.fail();
+        } catch ( ParseException e ) {
+            Assert.assertTrue( cursor.eof() );
+        }
+        Assert.assertTrue( count > 0 && count < 100 );
+    }
+
+}
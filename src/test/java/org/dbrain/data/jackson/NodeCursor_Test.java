@@ -0,0 +1,129 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jackson;
+
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class NodeCursor_Test {
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    @Test
+    public void testArray() throws Exception {
+        NodeCursor cursor = serializer.streamArray( new StringReader( "[ 1, { \"a\": [ 2 ] }, null, \"x\" ]" ) );
+        Assert.assertTrue( cursor.bof() );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertFalse( cursor.bof() );
+        Assert.assertEquals( Node.of( 1 ), cursor.get() );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertEquals( NodeList.asList( 2 ), cursor.get().getMap().get( "a" ) );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertTrue( cursor.get().isNull() );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertEquals( 3, cursor.getOrdinal() );
+        Assert.assertFalse( cursor.eof() );
+        Assert.assertFalse( cursor.next() );
+        Assert.assertTrue( cursor.eof() );
+
+        List<Node> empty = new ArrayList<>();
+        serializer.streamArray( new StringReader( "[]" ) ).forEach( empty::add );
+        Assert.assertTrue( empty.isEmpty() );
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        String ndjson = "{\"id\":1}\n{\"id\":2}\n\n{\"id\":3}\n";
+        try ( NodeCursor cursor = serializer.streamValues( new StringReader( ndjson ) ) ) {
+            List<Long> ids = cursor.stream().map( n -> n.getMap().getLong( "id" ) ).collect( Collectors.toList() );
+            Assert.assertEquals( 3, ids.size() );
+            Assert.assertEquals( Long.valueOf( 3 ), ids.get( 2 ) );
+            Assert.assertTrue( cursor.eof() );
+        }
+    }
+
+    @Test
+    public void testLarge() throws Exception {
+        // Generated on the fly, never held in memory as a whole.
+        int count = 100000;
+        Reader reader = new Reader() {
+
+            private int    i      = -1;
+            private String buffer = "[";
+            private int    pos    = 0;
+
+            @Override
+            public int read( char[] cbuf, int off, int len ) {
+                while ( pos == buffer.length() ) {
+                    if ( ++i > count ) {
+                        return -1;
+                    }
+                    buffer = i < count ? ( i > 0 ? "," : "" ) + "{\"i\":" + i + "}" : "]";
+                    pos = 0;
+                }
+                int n = Math.min( len, buffer.length() - pos );
+                buffer.getChars( pos, pos + n, cbuf, off );
+                pos += n;
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        long sum = 0;
+        for ( Node node : serializer.streamArray( reader ) ) {
+            sum += node.getMap().getLong( "i" );
+        }
+        Assert.assertEquals( (long) count * ( count - 1 ) / 2, sum );
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        NodeCursor cursor = serializer.streamArray( new StringReader( "[ 1, 2, { \"a\" 3 } ]" ) );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertTrue( cursor.next() );
+        try {
+            cursor.next();
+            Assert.fail();
+        } catch ( ParseException e ) {
+            Assert.assertTrue( e.getMessage(), e.getMessage().startsWith( "Malformed element #2" ) );
+        }
+        Assert.assertTrue( cursor.eof() );
+    }
+
+    @Test( expected = ParseException.class )
+    public void testNotArray() throws Exception {
+        serializer.streamArray( new StringReader( "{}" ) ).next();
+    }
+
+    @Test( expected = ParseException.class )
+    public void testTruncated() throws Exception {
+        serializer.streamArray( new StringReader( "[ 1, 2" ) ).forEach( n -> {
+        } );
+    }
+
+}
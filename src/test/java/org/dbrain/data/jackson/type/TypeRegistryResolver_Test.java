@@ -17,6 +17,8 @@
 package org.dbrain.data.jackson.type;
 
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.dbrain.data.TypeRegistry;
 import org.dbrain.data.jackson.JacksonSerializer;
 import org.dbrain.data.jackson.type.artifacts.Ext1;
@@ -69,4 +71,61 @@ public class TypeRegistryResolver_Test {
         Assert.assertEquals( ext1.getTest(), "test1" );
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAnonymousSubclass() throws Exception {
+        Map object = serializer.convert( new Ext1( "test1" ) {}, Map.class );
+        Assert.assertEquals( "Ext1", object.get( "@type" ) );
+
+        Root root = serializer.convert( object, Root.class );
+        Assert.assertEquals( Ext1.class, root.getClass() );
+        Assert.assertEquals( "test1", ( (Ext1) root ).getTest() );
+    }
+
+    private static TypeSerializer serializer( TypeRegistryResolver resolver, Class<?> clazz ) {
+        return resolver.buildTypeSerializer( null, TypeFactory.defaultInstance().constructType( clazz ), null );
+    }
+
+    @Test
+    public void testLookupRegistry() throws Exception {
+        TypeRegistry<Ext1> ext1Registry = TypeRegistry.from( Ext1.class, c -> c.getSimpleName() )
+                                                      .registerType( Ext1.class )
+                                                      .build();
+        TypeRegistryResolver resolver = TypeRegistryResolver.newBuilder()
+                                                            .with( rootTypeRegistry, "@type" )
+                                                            .with( ext1Registry, "@ext" )
+                                                            .build()
+                                                            .warmUp( TypeFactory.defaultInstance() );
+
+        // The most specific registry wins, subclasses resolve to the registry of their parent.
+        Assert.assertEquals( "@type", serializer( resolver, Ext2.class ).getPropertyName() );
+        Assert.assertEquals( "@ext", serializer( resolver, Ext1.class ).getPropertyName() );
+        Assert.assertEquals( "@ext", serializer( resolver, new Ext1( "a" ) {}.getClass() ).getPropertyName() );
+        Assert.assertNull( resolver.lookupRegistry( String.class ) );
+        Assert.assertNull( resolver.lookupRegistry( String.class ) );
+
+        // Id resolvers and type serializers are shared.
+        Assert.assertSame( serializer( resolver, Root.class ), serializer( resolver, Ext2.class ) );
+        Assert.assertSame( serializer( resolver, Root.class ).getTypeIdResolver(),
+                           serializer( resolver, Ext2.class ).getTypeIdResolver() );
+        Assert.assertEquals( "Ext2", serializer( resolver, Root.class ).getTypeIdResolver().idFromValue( new Ext2() ) );
+    }
+
+    @Test
+    public void testTypeFactories() throws Exception {
+        // Two mappers with their own type factory, sharing one resolver.
+        TypeFactory typeFactory = TypeFactory.defaultInstance().withClassLoader( getClass().getClassLoader() );
+        JacksonSerializer other = JacksonSerializer.newBuilder()
+                                                   .withTyping( typing )
+                                                   .withConfigurator( om -> om.setTypeFactory( typeFactory ) )
+                                                   .build();
+        typing.warmUp( typeFactory );
+
+        for ( int i = 0; i < 3; i++ ) {
+            String json = serializer.writeToString( new Ext1( "test" + i ) );
+            Assert.assertEquals( "test" + i, ( (Ext1) other.read( json, Root.class ) ).getTest() );
+            Assert.assertEquals( "test" + i, ( (Ext1) serializer.read( json, Root.class ) ).getTest() );
+        }
+    }
+
+}
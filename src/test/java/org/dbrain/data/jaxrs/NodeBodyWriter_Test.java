@@ -0,0 +1,182 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jaxrs;
+
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.jackson.NdjsonCursor;
+import org.dbrain.data.jackson.NodeCursor;
+import org.dbrain.data.jackson.artifacts.Person;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.dbrain.data.tree.NodeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+public class NodeBodyWriter_Test {
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    private final NodeMap map = NodeMap.newBuilder().put( "name", "héllo" ).put( "id", 1 ).build();
+
+    /**
+     * Entity stream that fails if closed by the writer.
+     */
+    private static final class EntityStream extends ByteArrayOutputStream {
+
+        @Override
+        public void close() throws IOException {
+            throw new IOException( "Closed by the writer." );
+        }
+
+        String text( Charset charset ) {
+            return new String( toByteArray(), charset );
+        }
+    }
+
+    private String write( Object o, MediaType mediaType ) throws IOException {
+        EntityStream os = new EntityStream();
+        if ( o instanceof Node ) {
+            NodeBodyWriter writer = new NodeBodyWriter( serializer );
+            Assert.assertTrue( writer.isWriteable( o.getClass(), null, null, mediaType ) );
+            writer.writeTo( (Node) o, o.getClass(), null, null, mediaType, null, os );
+        } else {
+            NodeStreamBodyWriter writer = new NodeStreamBodyWriter( serializer );
+            Assert.assertTrue( writer.isWriteable( o.getClass(), null, null, mediaType ) );
+            writer.writeTo( o, o.getClass(), null, null, mediaType, null, os );
+        }
+        return os.text( StandardCharsets.UTF_8 );
+    }
+
+    @Test
+    public void testNode() throws Exception {
+        Assert.assertEquals( "{\"name\":\"héllo\",\"id\":1}", write( map, MediaType.APPLICATION_JSON_TYPE ) );
+        Assert.assertEquals( "[1,\"a\"]", write( NodeList.asList( 1, "a" ), null ) );
+        Assert.assertEquals( "null", write( Node.nullValue(), null ) );
+
+        EntityStream os = new EntityStream();
+        new NodeBodyWriter( serializer ).writeTo( map, NodeMap.class, null, null,
+                                                  new MediaType( "application", "json", "ISO-8859-1" ), null, os );
+        Assert.assertEquals( "{\"name\":\"héllo\",\"id\":1}", os.text( StandardCharsets.ISO_8859_1 ) );
+        Assert.assertFalse( new NodeBodyWriter( serializer ).isWriteable( String.class, null, null, null ) );
+    }
+
+    @Test
+    public void testArray() throws Exception {
+        Iterator<Node> iterator = Arrays.<Node>asList( map, Node.of( 2 ) ).iterator();
+        Assert.assertEquals( "[{\"name\":\"héllo\",\"id\":1},2]", write( iterator, MediaType.APPLICATION_JSON_TYPE ) );
+        Assert.assertEquals( "[]", write( Stream.empty(), MediaType.APPLICATION_JSON_TYPE ) );
+
+        NodeCursor cursor = serializer.streamArray( new StringReader( "[1,[2],{\"a\":3}]" ) );
+        Assert.assertEquals( "[1,[2],{\"a\":3}]", write( cursor, MediaType.APPLICATION_JSON_TYPE ) );
+        Assert.assertTrue( cursor.eof() );
+    }
+
+    @Test
+    public void testNdjson() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Node> stream = Stream.of( map, NodeList.asList( 1 ), Node.of( "a" ) ).onClose( () -> closed.set( true ) );
+        Assert.assertEquals( "{\"name\":\"héllo\",\"id\":1}\n[1]\n\"a\"\n",
+                             write( stream, NodeStreamBodyWriter.APPLICATION_NDJSON_TYPE ) );
+        Assert.assertTrue( closed.get() );
+    }
+
+    @Test
+    public void testSourceClosedOnError() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Node> stream = Stream.of( Node.of( 1 ), Node.of( 2 ) ).map( n -> {
+            if ( n.equals( Node.of( 2 ) ) ) {
+                throw new IllegalStateException( "Failed." );
+            }
+            return n;
+        } ).onClose( () -> closed.set( true ) );
+        try {
+            write( stream, MediaType.APPLICATION_JSON_TYPE );
+            Assert.fail();
+        } catch ( IllegalStateException e ) {
+            // Expected
+        }
+        Assert.assertTrue( closed.get() );
+    }
+
+    @Test
+    public void testNotWriteable() throws Exception {
+        NodeStreamBodyWriter writer = new NodeStreamBodyWriter( serializer );
+        Assert.assertFalse( writer.isWriteable( NodeList.class, null, null, null ) );
+        Assert.assertFalse( writer.isWriteable( OutputStream.class, null, null, null ) );
+
+        Iterator<Node> iterator = Arrays.<Node>asList( map ).iterator();
+        Assert.assertTrue( writer.isWriteable( Iterator.class, null, null, new MediaType( "application", "vnd.a+json" ) ) );
+        Assert.assertFalse( writer.isWriteable( Iterator.class, null, null, MediaType.TEXT_PLAIN_TYPE ) );
+        Assert.assertFalse( writer.isWriteable( Iterator.class, null, null, MediaType.APPLICATION_XML_TYPE ) );
+        Assert.assertFalse( writer.isWriteable( Iterator.class, null, null, MediaType.WILDCARD_TYPE ) );
+        Assert.assertFalse( writer.isWriteable( iterator.getClass(), null, null,
+                                                MediaType.APPLICATION_OCTET_STREAM_TYPE ) );
+    }
+
+    @Test
+    public void testNodeMediaType() throws Exception {
+        NodeBodyWriter writer = new NodeBodyWriter( serializer );
+        Assert.assertTrue( writer.isWriteable( NodeMap.class, null, null, MediaType.APPLICATION_JSON_TYPE ) );
+        Assert.assertTrue( writer.isWriteable( NodeMap.class, null, null, new MediaType( "application", "vnd.a+json" ) ) );
+        Assert.assertFalse( writer.isWriteable( NodeMap.class, null, null, MediaType.TEXT_PLAIN_TYPE ) );
+        Assert.assertFalse( writer.isWriteable( NodeMap.class, null, null, MediaType.APPLICATION_XML_TYPE ) );
+        Assert.assertFalse( writer.isWriteable( Node.class, null, null, MediaType.APPLICATION_OCTET_STREAM_TYPE ) );
+    }
+
+    // Declared types of the sources.
+    private Iterator<Node>           nodes;
+    private Stream<NodeMap>          maps;
+    private Stream<? extends Node>   wildcard;
+    private Iterator<?>              unknown;
+    private Iterator<Object>         objects;
+    private Stream<String>           strings;
+    private Iterator<List<Node>>     lists;
+    private NdjsonCursor<Person>     persons;
+
+    private boolean isWriteable( String field ) throws Exception {
+        Field f = getClass().getDeclaredField( field );
+        return new NodeStreamBodyWriter( serializer ).isWriteable( f.getType(), f.getGenericType(), null,
+                                                                     MediaType.APPLICATION_JSON_TYPE );
+    }
+
+    @Test
+    public void testElementType() throws Exception {
+        Assert.assertTrue( isWriteable( "nodes" ) );
+        Assert.assertTrue( isWriteable( "maps" ) );
+        Assert.assertTrue( isWriteable( "wildcard" ) );
+        Assert.assertTrue( isWriteable( "unknown" ) );
+        Assert.assertTrue( isWriteable( "objects" ) );
+        Assert.assertFalse( isWriteable( "strings" ) );
+        Assert.assertFalse( isWriteable( "lists" ) );
+        Assert.assertFalse( isWriteable( "persons" ) );
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.jaxrs;
+
+import org.dbrain.data.cursor.ForwardCursor;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.jackson.NodeCursor;
+import org.dbrain.data.text.ParseException;
+import org.dbrain.data.tree.Node;
+import org.dbrain.data.tree.NodeList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+public class NodeCursorBodyReader_Test {
+
+    private final NodeCursorBodyReader reader = new NodeCursorBodyReader( JacksonSerializer.newBuilder().build() );
+
+    // Declared types of resource method parameters.
+    public Iterator<Node>   nodes;
+    public Iterator<String> strings;
+    public List<Node>       list;
+
+    private static Type typeOf( String field ) throws Exception {
+        return NodeCursorBodyReader_Test.class.getField( field ).getGenericType();
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private Object read( Class<?> type, Type genericType, String body ) throws Exception {
+        InputStream is = new ByteArrayInputStream( body.getBytes( StandardCharsets.UTF_8 ) );
+        return reader.readFrom( (Class<Object>) type, genericType, null, MediaType.APPLICATION_JSON_TYPE, null, is );
+    }
+
+    @Test
+    public void testReadable() throws Exception {
+        Assert.assertTrue( reader.isReadable( NodeCursor.class, NodeCursor.class, null, null ) );
+        Assert.assertTrue( reader.isReadable( ForwardCursor.class, ForwardCursor.class, null, null ) );
+        Assert.assertTrue( reader.isReadable( Iterator.class, typeOf( "nodes" ), null, null ) );
+        Assert.assertFalse( reader.isReadable( Iterator.class, typeOf( "strings" ), null, null ) );
+        Assert.assertFalse( reader.isReadable( List.class, typeOf( "list" ), null, null ) );
+        Assert.assertFalse( reader.isReadable( Object.class, Object.class, null, null ) );
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        @SuppressWarnings( "unchecked" )
+        Iterator<Node> it = (Iterator<Node>) read( Iterator.class, typeOf( "nodes" ), "[1,\"é\",[2],{\"a\":null}]" );
+        Assert.assertEquals( Node.of( 1 ), it.next() );
+        Assert.assertEquals( Node.of( "é" ), it.next() );
+        Assert.assertEquals( NodeList.asList( 2 ), it.next() );
+        Assert.assertTrue( it.next().getMap().get( "a" ).isNull() );
+        Assert.assertFalse( it.hasNext() );
+    }
+
+    @Test
+    public void testCursor() throws Exception {
+        ForwardCursor cursor = (ForwardCursor) read( ForwardCursor.class, ForwardCursor.class, "[1, 2" );
+        Assert.assertTrue( cursor.next() );
+        Assert.assertEquals( Node.of( 1 ), ( (NodeCursor) cursor ).get() );
+        Assert.assertTrue( cursor.next() );
+        try {
+            // The body is only parsed as the cursor moves.
+            cursor.next();
+            Assert.fail();
+        } catch ( ParseException e ) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.dbrain.data.impl.value.CompactMapValueImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the compact NodeMap against the hash based implementation.
+ */
+public class NodeMap_compact_Test {
+
+    private static NodeMap compact( String... keys ) {
+        NodeMap result = new CompactMapValueImpl();
+        for ( int i = 0; i < keys.length; i++ ) {
+            result.put( keys[i], Node.of( i ) );
+        }
+        return result;
+    }
+
+    private static NodeMap hashed( String... keys ) {
+        NodeMap result = NodeMap.newInstance();
+        for ( int i = 0; i < keys.length; i++ ) {
+            result.put( keys[i], Node.of( i ) );
+        }
+        return result;
+    }
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        NodeMap m = compact( "a", "b", "c" );
+        assertEquals( 3, m.size() );
+        assertEquals( Node.of( 1 ), m.get( "b" ) );
+        assertTrue( m.get( "z" ).isNull() );
+        assertFalse( m.containsKey( "z" ) );
+
+        assertEquals( Node.of( 1 ), m.put( "b", Node.of( "x" ) ) );
+        assertEquals( Node.of( "x" ), m.get( "b" ) );
+
+        assertEquals( Node.of( "x" ), m.remove( "b" ) );
+        assertNull( m.remove( "b" ) );
+        assertEquals( Arrays.asList( "a", "c" ), new ArrayList<>( m.keySet() ) );
+        assertEquals( Node.of( 2 ), m.get( "c" ) );
+
+        m.put( "n", null );
+        assertTrue( m.containsKey( "n" ) );
+        assertTrue( m.get( "n" ).isNull() );
+    }
+
+    @Test
+    public void testEquals() throws Exception {
+        assertEquals( hashed( "a", "b", "c" ), compact( "a", "b", "c" ) );
+        assertEquals( compact( "a", "b", "c" ), hashed( "a", "b", "c" ) );
+        assertEquals( hashed( "a", "b", "c" ).hashCode(), compact( "a", "b", "c" ).hashCode() );
+        assertFalse( compact( "a", "b" ).equals( compact( "a", "b", "c" ) ) );
+
+        // Same content, different insertion order.
+        NodeMap m1 = NodeMap.newBuilder().put( "x", 1 ).put( "y", 2 ).build();
+        NodeMap m2 = NodeMap.newBuilder().put( "y", 2 ).put( "x", 1 ).build();
+        assertEquals( m1, m2 );
+        assertEquals( m1.hashCode(), m2.hashCode() );
+    }
+
+    @Test
+    public void testHashCode() throws Exception {
+        NodeMap m = compact( "a", "b" );
+        int h = m.hashCode();
+        assertEquals( hashed( "a", "b" ).hashCode(), h );
+
+        m.put( "c", Node.of( 2 ) );
+        assertEquals( hashed( "a", "b", "c" ).hashCode(), m.hashCode() );
+
+        m.entrySet().iterator().next().setValue( Node.of( 5 ) );
+        assertFalse( hashed( "a", "b", "c" ).equals( m ) );
+        m.put( "a", Node.of( 0 ) );
+        assertEquals( hashed( "a", "b", "c" ).hashCode(), m.hashCode() );
+
+        m.remove( "c" );
+        assertEquals( h, m.hashCode() );
+
+        // Mutable values are not cached.
+        NodeList l = NodeList.newInstance();
+        m.put( "l", l );
+        int h2 = m.hashCode();
+        l.add( Node.of( 1 ) );
+        assertFalse( h2 == m.hashCode() );
+    }
+
+    @Test
+    public void testIteration() throws Exception {
+        NodeMap m = compact( "d", "c", "b", "a" );
+        assertEquals( Arrays.asList( "d", "c", "b", "a" ), new ArrayList<>( m.keySet() ) );
+
+        Iterator<Map.Entry<String, Node>> i = m.entrySet().iterator();
+        while ( i.hasNext() ) {
+            Map.Entry<String, Node> e = i.next();
+            if ( e.getKey().equals( "c" ) ) {
+                i.remove();
+            } else {
+                e.setValue( Node.of( e.getKey() ) );
+            }
+        }
+        assertEquals( Arrays.asList( "d", "b", "a" ), new ArrayList<>( m.keySet() ) );
+        assertEquals( Node.of( "b" ), m.get( "b" ) );
+
+        List<String> keys = new ArrayList<>();
+        m.forEach( ( k, v ) -> keys.add( k ) );
+        assertEquals( Arrays.asList( "d", "b", "a" ), keys );
+    }
+
+    @Test
+    public void testRemoveDoesNotGrowShapes() throws Exception {
+        // Removing keys in any order must not exhaust the shape tree: the map still shares a shape afterwards.
+        for ( int i = 0; i < 100000; i++ ) {
+            NodeMap m = compact( "r1", "r2", "r3", "r4" );
+            m.remove( "r" + ( i % 4 + 1 ) );
+        }
+        NodeMap m = compact( "s1", "s2", "s3" );
+        m.remove( "s3" );
+        m.put( "s3", Node.of( 2 ) );
+        assertEquals( hashed( "s1", "s2", "s3" ), m );
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        List<String> keys = Arrays.asList( "k1", "k2", "k3", "k4" );
+        List<NodeMap> maps = new ArrayList<>();
+        for ( int i = 0; i <= keys.size(); i++ ) {
+            maps.add( compact( keys.toArray( new String[0] ) ) );
+        }
+
+        for ( int r = 0; r < keys.size(); r++ ) {
+            String removed = keys.get( r );
+            NodeMap m = maps.get( r );
+            List<String> visited = new ArrayList<>();
+            Iterator<Map.Entry<String, Node>> i = m.entrySet().iterator();
+            while ( i.hasNext() ) {
+                String key = i.next().getKey();
+                visited.add( key );
+                if ( key.equals( removed ) ) {
+                    i.remove();
+                }
+            }
+            assertEquals( keys, visited );
+            List<String> expected = new ArrayList<>( keys );
+            expected.remove( removed );
+            assertEquals( expected, new ArrayList<>( m.keySet() ) );
+            assertEquals( expected.size(), m.size() );
+        }
+
+        // Remove every entry through the iterator.
+        NodeMap m = maps.get( keys.size() );
+        Iterator<Map.Entry<String, Node>> i = m.entrySet().iterator();
+        int count = 0;
+        while ( i.hasNext() ) {
+            i.next();
+            i.remove();
+            count++;
+        }
+        assertEquals( 4, count );
+        assertTrue( m.isEmpty() );
+    }
+
+    @Test
+    public void testLargeMap() throws Exception {
+        String[] keys = new String[200];
+        for ( int i = 0; i < keys.length; i++ ) {
+            keys[i] = "key" + i;
+        }
+        NodeMap m = compact( keys );
+        assertEquals( hashed( keys ), m );
+        assertEquals( keys.length, m.size() );
+        assertEquals( Node.of( 150 ), m.get( "key150" ) );
+        assertEquals( Node.of( 150 ), m.remove( "key150" ) );
+        assertEquals( keys.length - 1, m.size() );
+        assertEquals( "key0", m.keySet().iterator().next() );
+    }
+
+    @Test
+    public void testMapMethods() throws Exception {
+        NodeMap m = compact( "a", "b" );
+        assertEquals( Node.of( 0 ), m.putIfAbsent( "a", Node.of( 5 ) ) );
+        assertNull( m.putIfAbsent( "c", Node.of( 2 ) ) );
+        assertEquals( Node.of( 9 ), m.getOrDefault( "z", Node.of( 9 ) ) );
+        assertEquals( Node.of( 3 ), m.computeIfAbsent( "d", k -> Node.of( 3 ) ) );
+        assertEquals( Node.of( 10 ), m.computeIfPresent( "d", ( k, v ) -> Node.of( v.getInt() + 7 ) ) );
+        assertNull( m.computeIfPresent( "d", ( k, v ) -> null ) );
+        assertFalse( m.containsKey( "d" ) );
+        assertEquals( Node.of( 1 ), m.merge( "e", Node.of( 1 ), ( v1, v2 ) -> v2 ) );
+        assertTrue( m.replace( "e", Node.of( 1 ), Node.of( 4 ) ) );
+        assertTrue( m.remove( "e", Node.of( 4 ) ) );
+        assertEquals( Arrays.asList( "a", "b", "c" ), new ArrayList<>( m.keySet() ) );
+    }
+
+    @Test
+    public void testBuilderCreatesCompactMaps() throws Exception {
+        NodeList l = NodeList.newBuilder() //
+                .add( NodeMap.newBuilder().put( "id", 1 ).put( "name", "a" ).build() ) //
+                .add( NodeMap.newBuilder().put( "id", 2 ).put( "name", "b" ).build() ) //
+                .build();
+        assertEquals( Node.of( "b" ), l.get( 1 ).getMap().get( "name" ) );
+        assertTrue( l.get( 0 ).getMap() instanceof CompactMapValueImpl );
+    }
+
+}
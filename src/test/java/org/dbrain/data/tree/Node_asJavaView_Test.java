@@ -0,0 +1,76 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.dbrain.data.jackson.BinaryNodeSerializer;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class Node_asJavaView_Test {
+
+    private static final String JSON = "{ \"a\": 1, \"b\": [ \"x\", { \"c\": true } ], \"d\": null }";
+
+    @Test
+    public void testView() throws Exception {
+        Node node = JacksonSerializer.newBuilder().build().read( JSON, Node.class );
+        Object expected = node.getObject();
+
+        Assert.assertEquals( expected, node.asJavaView() );
+        Assert.assertEquals( expected, node.freeze().asJavaView() );
+        Assert.assertEquals( expected, BinaryNodeSerializer.decode( BinaryNodeSerializer.encode( node ) ).asJavaView() );
+
+        Map<String, Object> view = node.getMap().asJavaView();
+        Assert.assertEquals( 1L, ( (Number) view.get( "a" ) ).longValue() );
+        Assert.assertEquals( Arrays.asList( "x" ), ( (List<?>) view.get( "b" ) ).subList( 0, 1 ) );
+        Assert.assertTrue( view.containsKey( "d" ) );
+        Assert.assertNull( view.get( "d" ) );
+        Assert.assertNull( view.get( "e" ) );
+        Assert.assertEquals( "x", Node.of( "x" ).asJavaView() );
+    }
+
+    @Test
+    public void testLive() throws Exception {
+        NodeMap map = NodeMap.newInstance();
+        Map<String, Object> view = map.asJavaView();
+        map.put( "a", NodeList.asList( 1, 2 ) );
+        Assert.assertEquals( 1, view.size() );
+        Assert.assertEquals( 2, ( (List<?>) view.get( "a" ) ).size() );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testReadOnlyMap() throws Exception {
+        NodeMap.newInstance().asJavaView().put( "a", 1 );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testReadOnlyEntry() throws Exception {
+        NodeMap map = NodeMap.newInstance();
+        map.put( "a", Node.of( 1 ) );
+        map.asJavaView().entrySet().iterator().next().setValue( 2 );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testReadOnlyList() throws Exception {
+        NodeList.asList( 1, 2 ).asJavaView().remove( 0 );
+    }
+
+}
@@ -109,6 +109,35 @@ public class Node_equals_Test {
 
     }
 
+    /**
+     * Numbers backed by long, double and BigDecimal must be equal and hash the same when they hold the same value.
+     */
+    @Test
+    public void testNumberRepresentationsEquals() throws Exception {
+
+        Node[][] sameValues = new Node[][]{ //
+                { Node.of( 123L ), Node.of( 123d ), Node.of( new BigDecimal( "123.000" ) ), Node.of( new BigInteger( "123" ) ) }, //
+                { Node.of( 0L ), Node.of( -0d ), Node.of( new BigDecimal( "0.0" ) ) }, //
+                { Node.of( 123.4 ), Node.of( new BigDecimal( "123.40" ) ) }, //
+                { Node.of( 1e20 ), Node.of( new BigDecimal( "100000000000000000000" ) ) }, //
+                { Node.of( Long.MAX_VALUE ), Node.of( new BigDecimal( Long.MAX_VALUE ) ) } //
+        };
+
+        for ( Node[] values : sameValues ) {
+            for ( Node v1 : values ) {
+                for ( Node v2 : values ) {
+                    Assert.assertEquals( v1, v2 );
+                    Assert.assertEquals( v1.hashCode(), v2.hashCode() );
+                }
+            }
+        }
+
+        Assert.assertNotEquals( Node.of( 0.1 ), Node.of( new BigDecimal( "0.1000000000000000001" ) ) );
+        Assert.assertNotEquals( Node.of( Long.MAX_VALUE ), Node.of( new BigDecimal( Long.MAX_VALUE ).add( BigDecimal.ONE ) ) );
+        Assert.assertNotEquals( Node.of( 123L ), Node.of( 123.5 ) );
+
+    }
+
     @Test
     public void testMapEquals() throws Exception {
         NodeMap map1 = NodeMap.newInstance();
@@ -0,0 +1,148 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the frozen map and list implementations.
+ */
+public class Node_freeze_Test {
+
+    @Test
+    public void testFreezeScalar() throws Exception {
+        Node n = Node.of( "test" );
+        assertTrue( n.isFrozen() );
+        assertSame( n, n.freeze() );
+    }
+
+    @Test
+    public void testFreezeMap() throws Exception {
+        NodeMap m = NodeMap.newInstance();
+        m.put( "a", Node.of( 1 ) );
+        m.put( "b", NodeList.asList( 1, 2, 3 ) );
+        assertFalse( m.isFrozen() );
+
+        NodeMap frozen = m.freeze();
+        assertTrue( frozen.isFrozen() );
+        assertTrue( frozen.get( "b" ).isFrozen() );
+        assertSame( frozen, frozen.freeze() );
+        assertEquals( m, frozen );
+        assertEquals( m.hashCode(), frozen.hashCode() );
+
+        // The frozen map is a copy.
+        m.put( "c", Node.of( 3 ) );
+        assertFalse( frozen.containsKey( "c" ) );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testFrozenMapPut() throws Exception {
+        NodeMap.newInstance().freeze().put( "a", Node.of( 1 ) );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testFrozenListAdd() throws Exception {
+        NodeList.newInstance().freeze().add( Node.of( 1 ) );
+    }
+
+    @Test
+    public void testMapWith() throws Exception {
+        Map<String, Node> expected = new HashMap<>();
+        NodeMap m = NodeMap.newInstance().freeze();
+        List<NodeMap> versions = new ArrayList<>();
+        for ( int i = 0; i < 5000; i++ ) {
+            m = m.with( "key" + i, Node.of( i ) );
+            expected.put( "key" + i, Node.of( i ) );
+            versions.add( m );
+        }
+        assertEquals( expected, m );
+        assertEquals( expected.hashCode(), m.hashCode() );
+        assertEquals( 5000, m.size() );
+        assertEquals( Node.of( 1234 ), m.get( "key1234" ) );
+        assertTrue( m.get( "missing" ).isNull() );
+
+        // Older versions are untouched.
+        assertEquals( 11, versions.get( 10 ).size() );
+        assertFalse( versions.get( 10 ).containsKey( "key11" ) );
+
+        // Replace and remove.
+        NodeMap replaced = m.with( "key10", Node.of( "x" ) );
+        assertEquals( 5000, replaced.size() );
+        assertEquals( Node.of( "x" ), replaced.get( "key10" ) );
+        assertEquals( Node.of( 10 ), m.get( "key10" ) );
+
+        NodeMap removed = m;
+        for ( int i = 0; i < 5000; i += 2 ) {
+            removed = removed.without( "key" + i );
+            expected.remove( "key" + i );
+        }
+        assertEquals( expected, removed );
+        assertEquals( 2500, removed.size() );
+        assertSame( removed, removed.without( "missing" ) );
+    }
+
+    @Test
+    public void testMapCollisions() throws Exception {
+        // "Aa" and "BB" have the same hash code.
+        NodeMap m = NodeMap.newInstance().with( "Aa", Node.of( 1 ) ).with( "BB", Node.of( 2 ) ).with( "C", Node.of( 3 ) );
+        assertEquals( 3, m.size() );
+        assertEquals( Node.of( 1 ), m.get( "Aa" ) );
+        assertEquals( Node.of( 2 ), m.get( "BB" ) );
+        NodeMap n = m.without( "Aa" );
+        assertEquals( 2, n.size() );
+        assertFalse( n.containsKey( "Aa" ) );
+        assertEquals( Node.of( 2 ), n.get( "BB" ) );
+    }
+
+    @Test
+    public void testListWith() throws Exception {
+        List<Node> expected = new ArrayList<>();
+        NodeList l = NodeList.newInstance().freeze();
+        NodeList v100 = null;
+        for ( int i = 0; i < 40000; i++ ) {
+            l = l.plus( Node.of( i ) );
+            expected.add( Node.of( i ) );
+            if ( i == 99 ) {
+                v100 = l;
+            }
+        }
+        assertEquals( expected, l );
+        assertEquals( expected.hashCode(), l.hashCode() );
+        assertEquals( Node.of( 33000 ), l.get( 33000 ) );
+        assertEquals( 100, v100.size() );
+
+        NodeList changed = l.with( 1000, Node.of( "x" ) ).with( 39999, Node.of( "y" ) );
+        assertEquals( Node.of( "x" ), changed.get( 1000 ) );
+        assertEquals( Node.of( "y" ), changed.get( 39999 ) );
+        assertEquals( Node.of( 1000 ), l.get( 1000 ) );
+        assertNotEquals( l, changed );
+
+        assertEquals( expected, NodeList.of( expected.toArray() ).freeze() );
+    }
+
+}
@@ -21,6 +21,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 
 /**
  * Test different valueOf.
@@ -90,6 +91,24 @@ public class Node_of_Test {
 
     }
 
+    @Test
+    public void testOfBigInteger() throws Exception {
+        Assert.assertTrue( Node.of( (BigInteger) null ).isNull() );
+        Assert.assertEquals( Node.of( BigInteger.TEN ).getObject(), BigDecimal.TEN );
+
+        BigInteger big = BigInteger.valueOf( Long.MAX_VALUE ).add( BigInteger.ONE );
+        Assert.assertEquals( Node.of( big ).getObject(), new BigDecimal( big ) );
+    }
+
+    @Test
+    public void testOfDoubleString() throws Exception {
+        Assert.assertEquals( "123", Node.of( 123d ).getString() );
+        Assert.assertEquals( "123.4", Node.of( 123.4 ).getString() );
+        Assert.assertEquals( "1E+2", Node.of( 100d ).getString() );
+        Assert.assertEquals( "0.00001", Node.of( 1e-5 ).getString() );
+        Assert.assertEquals( Node.of( 1e-5 ).getObject().toString(), Node.of( 1e-5 ).getString() );
+    }
+
     @Test
     public void testOfBoolean() throws Exception {
         Assert.assertTrue( Node.of( (Boolean) null ).isNull() );
@@ -0,0 +1,192 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.dbrain.data.Path;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.dbrain.data.text.ParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class Patch_Test {
+
+    private final JacksonSerializer serializer = JacksonSerializer.newBuilder().build();
+
+    private Node read( String json ) {
+        return serializer.read( json, Node.class );
+    }
+
+    private void assertDiff( String from, String to ) {
+        Node fromNode = read( from );
+        Node toNode = read( to );
+        Patch patch = Patch.diff( fromNode, toNode );
+
+        // Mutable and frozen documents.
+        Assert.assertEquals( toNode, patch.apply( read( from ).freeze() ) );
+        Assert.assertEquals( toNode, patch.apply( fromNode ) );
+
+        // Through JSON Patch, digit keys come back as indexes and still apply to maps.
+        Patch copy = serializer.read( serializer.writeToString( patch ), Patch.class );
+        Assert.assertEquals( toNode, copy.apply( read( from ) ) );
+    }
+
+    @Test
+    public void testDiff() throws Exception {
+        assertDiff( "{}", "{}" );
+        assertDiff( "1", "\"a\"" );
+        assertDiff( "{ \"a\": 1, \"b\": 2 }", "{ \"a\": 1, \"b\": 3, \"c\": 4 }" );
+        assertDiff( "{ \"a\": { \"b\": [1, 2, 3] } }", "{ \"a\": { \"b\": [1, 3] } }" );
+        assertDiff( "[1, 2, 3]", "[0, 1, 2, 3, 4]" );
+        assertDiff( "[1, 2, 3, 4, 5]", "[1, 5]" );
+        assertDiff( "[1, { \"x\": 1 }, 3]", "[1, { \"x\": 2 }, 3]" );
+        assertDiff( "{ \"a/b\": 1, \"c~d\": [], \"0\": 2 }", "{ \"a/b\": 2, \"c~d\": [ null ], \"0\": 3 }" );
+        assertDiff( "{ \"a\": [1], \"b\": {} }", "[1]" );
+    }
+
+    @Test
+    public void testOperations() throws Exception {
+        Patch patch = Patch.diff( read( "{ \"a\": 1, \"b\": 2 }" ), read( "{ \"a\": 1, \"b\": 3, \"c\": 4 }" ) );
+        Assert.assertEquals( Arrays.asList( Patch.replace( Path.of( "b" ), Node.of( 3 ) ),
+                                            Patch.add( Path.of( "c" ), Node.of( 4 ) ) ), patch.getOperations() );
+
+        Assert.assertEquals( patch, serializer.read( serializer.writeToString( patch ), Patch.class ) );
+
+        Assert.assertTrue( Patch.diff( read( "[1, { \"a\": 2 }]" ), read( "[1, { \"a\": 2 }]" ) ).isEmpty() );
+    }
+
+    @Test
+    public void testMove() throws Exception {
+        Node from = read( "{ \"old\": { \"big\": [1, 2, 3] }, \"x\": 1 }" );
+        Node to = read( "{ \"new\": { \"big\": [1, 2, 3] }, \"x\": 1 }" );
+        Patch patch = Patch.diff( from, to );
+        Assert.assertEquals( Arrays.asList( Patch.move( Path.of( "old" ), Path.of( "new" ) ) ), patch.getOperations() );
+        Assert.assertEquals( "[{\"op\":\"move\",\"from\":\"/old\",\"path\":\"/new\"}]",
+                             serializer.writeToString( patch ) );
+        Assert.assertEquals( to, patch.apply( from ) );
+    }
+
+    @Test
+    public void testSharedSubtrees() throws Exception {
+        NodeMap big = NodeMap.newInstance();
+        for ( int i = 0; i < 100; i++ ) {
+            big.put( "k" + i, NodeList.asList( i, i + 1 ) );
+        }
+        NodeMap v1 = big.freeze();
+        NodeMap v2 = v1.with( "k50", Node.of( "changed" ) );
+        Patch patch = Patch.diff( v1, v2 );
+        Assert.assertEquals( Arrays.asList( Patch.replace( Path.of( "k50" ), Node.of( "changed" ) ) ),
+                             patch.getOperations() );
+        Assert.assertEquals( v2, patch.apply( v1 ) );
+        Assert.assertEquals( NodeList.asList( 50, 51 ), v1.get( "k50" ) );
+    }
+
+    @Test
+    public void testJsonPatch() throws Exception {
+        Patch patch = serializer.read( "[ { \"op\": \"add\", \"path\": \"/list/-\", \"value\": { \"x\": 1 } }," +
+                                       "  { \"op\": \"remove\", \"path\": \"/list/0\" }," +
+                                       "  { \"op\": \"replace\", \"path\": \"\", \"value\": null, \"extra\": [] } ]",
+                                       Patch.class );
+        Assert.assertEquals( 3, patch.getOperations().size() );
+        Node document = read( "{ \"list\": [ 1 ] }" );
+        Assert.assertEquals( read( "{ \"list\": [ { \"x\": 1 } ] }" ),
+                             Patch.of( patch.getOperations().subList( 0, 2 ) ).apply( document ) );
+        Assert.assertTrue( patch.apply( document ).isNull() );
+    }
+
+    @Test
+    public void testJsonPatchMissingValue() throws Exception {
+        for ( String op : new String[]{ "add", "replace" } ) {
+            try {
+                serializer.read( "[ { \"op\": \"" + op + "\", \"path\": \"/a\" } ]", Patch.class );
+                Assert.fail( op );
+            } catch ( ParseException e ) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testApplyMutableValues() throws Exception {
+        Node document = read( "{ \"a\": 1, \"list\": [] }" );
+        Node out = Patch.diff( document, read( "{ \"a\": 1, \"sub\": { \"x\": [ 1 ] }, \"list\": [ {} ] }" ) )
+                        .apply( document );
+        Assert.assertSame( document, out );
+
+        // Values inserted into a mutable document can be modified.
+        NodeMap sub = (NodeMap) out.getMap().get( "sub" );
+        sub.put( "y", Node.of( 2 ) );
+        ( (NodeList) sub.get( "x" ) ).add( Node.of( 2 ) );
+        ( (NodeMap) ( (NodeList) out.getMap().get( "list" ) ).get( 0 ) ).put( "z", Node.of( 3 ) );
+        Assert.assertEquals( read( "{ \"a\": 1, \"sub\": { \"x\": [ 1, 2 ], \"y\": 2 }, \"list\": [ { \"z\": 3 } ] }" ),
+                             out );
+
+        // The values of a frozen document stay frozen.
+        Node frozen = Patch.of( Patch.add( Path.of( "sub" ), read( "{}" ) ) ).apply( read( "{}" ).freeze() );
+        Assert.assertTrue( frozen.getMap().get( "sub" ).isFrozen() );
+    }
+
+    @Test
+    public void testApplyAtomic() throws Exception {
+        Node document = read( "{ \"a\": 1, \"b\": [ 1, 2 ] }" );
+        Patch patch = Patch.of( Patch.remove( Path.of( "a" ) ), Patch.add( Path.of( "b[0]" ), Node.of( 0 ) ),
+                                Patch.remove( Path.of( "zz" ) ) );
+        try {
+            patch.apply( document );
+            Assert.fail();
+        } catch ( IllegalArgumentException e ) {
+            // Expected
+        }
+        Assert.assertEquals( read( "{ \"a\": 1, \"b\": [ 1, 2 ] }" ), document );
+    }
+
+    @Test
+    public void testApplyUndo() throws Exception {
+        String json = "{ \"a\": 1, \"m\": { \"x\": 1, \"y\": 2, \"z\": 3 }, \"b\": [ 1, 2, 3 ], \"c\": { \"d\": 4 } }";
+        Node document = read( json );
+        document.getMap().put( "f", read( "{ \"g\": [ 5 ] }" ).freeze() );
+        Node expected = read( json );
+        expected.getMap().put( "f", read( "{ \"g\": [ 5 ] }" ) );
+
+        Patch patch = Patch.of( Patch.move( Path.of( "m.x" ), Path.of( "c.x" ) ),
+                                Patch.replace( Path.of( "m.y" ), Node.of( 20 ) ),
+                                Patch.remove( Path.of( "b[0]" ) ),
+                                Patch.add( Path.of( "b[1]" ), Node.of( 10 ) ),
+                                Patch.replace( Path.of( "b[0]" ), Node.of( 30 ) ),
+                                Patch.add( Path.of( "f.g[1]" ), Node.of( 6 ) ),
+                                Patch.add( Path.of( "new" ), Node.of( true ) ),
+                                Patch.remove( Path.of( "zz" ) ) );
+        try {
+            patch.apply( document );
+            Assert.fail();
+        } catch ( IllegalArgumentException e ) {
+            // Expected
+        }
+        Assert.assertEquals( expected, document );
+        Assert.assertEquals( Arrays.asList( "x", "y", "z" ), new ArrayList<>( document.getMap().get( "m" ).getMap().keySet() ) );
+        Assert.assertEquals( Arrays.asList( "a", "m", "b", "c", "f" ), new ArrayList<>( document.getMap().keySet() ) );
+        Assert.assertTrue( document.getMap().get( "f" ).isFrozen() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testApplyMissing() throws Exception {
+        Patch.of( Patch.remove( Path.of( "a.b" ) ) ).apply( read( "{ \"a\": {} }" ) );
+    }
+
+}
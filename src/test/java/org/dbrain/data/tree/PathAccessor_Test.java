@@ -0,0 +1,85 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.tree;
+
+import org.dbrain.data.DataCoercionException;
+import org.dbrain.data.Path;
+import org.dbrain.data.jackson.JacksonSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PathAccessor_Test {
+
+    private NodeMap sample() {
+        return JacksonSerializer.newBuilder().build().read(
+                "{ \"a\": { \"b\": [ 1, { \"c\": \"value\" } ] }, \"d\": null }", NodeMap.class );
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        NodeMap map = sample();
+        Assert.assertEquals( Node.of( "value" ), map.get( Path.of( "a.b[1].c" ) ) );
+        Assert.assertEquals( Node.of( 1 ), map.get( Path.of( "a.b[0]" ) ) );
+        Assert.assertSame( map, map.get( Path.empty() ) );
+
+        PathAccessor accessor = PathAccessor.of( "a.b[1].c" );
+        Assert.assertEquals( Path.of( "a.b[1].c" ), accessor.getPath() );
+        Assert.assertEquals( "value", accessor.get( map ).getString() );
+        Assert.assertTrue( accessor.get( NodeMap.newInstance() ).isNull() );
+    }
+
+    @Test
+    public void testGetMissing() throws Exception {
+        NodeMap map = sample();
+        Assert.assertTrue( map.get( Path.of( "x.y" ) ).isNull() );
+        Assert.assertTrue( map.get( Path.of( "d.y" ) ).isNull() );
+        Assert.assertTrue( map.get( Path.of( "a.b[5]" ) ).isNull() );
+    }
+
+    @Test( expected = DataCoercionException.class )
+    public void testGetWrongType() throws Exception {
+        sample().get( Path.of( "a.b.c" ) );
+    }
+
+    @Test
+    public void testSet() throws Exception {
+        NodeMap map = sample();
+        Assert.assertEquals( Node.of( "value" ), map.set( Path.of( "a.b[1].c" ), Node.of( "new" ) ) );
+        Assert.assertEquals( Node.of( "new" ), map.get( Path.of( "a.b[1].c" ) ) );
+
+        Assert.assertNull( map.set( Path.of( "a.b[2]" ), Node.of( 3 ) ) );
+        Assert.assertEquals( 3, map.get( Path.of( "a.b" ) ).getList().size() );
+
+        Assert.assertNull( map.set( Path.of( "x.y[0].z" ), Node.of( true ) ) );
+        Assert.assertEquals( Node.of( true ), map.get( Path.of( "x.y[0].z" ) ) );
+        Assert.assertTrue( map.get( Path.of( "x.y" ) ) instanceof NodeList );
+
+        Assert.assertNull( map.set( Path.of( "d.e" ), Node.of( 1 ) ) );
+        Assert.assertEquals( Node.of( 1 ), map.get( Path.of( "d.e" ) ) );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void testSetPastEnd() throws Exception {
+        sample().set( Path.of( "a.b[3]" ), Node.of( 1 ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testSetEmpty() throws Exception {
+        sample().set( Path.empty(), Node.of( 1 ) );
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright [2015] [Eric Poitras]
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+
+package org.dbrain.data.util;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class WeakInterner_Test {
+
+    @Test
+    public void testIntern() throws Exception {
+        WeakInterner<String> interner = new WeakInterner<>();
+        String v1 = new String( "value" );
+        String v2 = new String( "value" );
+        Assert.assertNull( interner.get( "key" ) );
+        Assert.assertSame( v1, interner.intern( "key", v1 ) );
+        Assert.assertSame( v1, interner.intern( "key", v2 ) );
+        Assert.assertSame( v1, interner.get( "key" ) );
+        Assert.assertNull( interner.get( null ) );
+        Assert.assertEquals( 1, interner.size() );
+    }
+
+    @Test
+    public void testReclaimed() throws Exception {
+        WeakInterner<Object> interner = new WeakInterner<>();
+        interner.intern( "key", new Object() );
+        for ( int i = 0; i < 20 && interner.get( "key" ) != null; i++ ) {
+            System.gc();
+            Thread.sleep( 10 );
+        }
+        // The collector gives no guarantee, the rest only runs if the instance was actually reclaimed.
+        Assume.assumeTrue( interner.get( "key" ) == null );
+
+        // The reclaimed entry is replaced, and not removed by the later purge.
+        Object value = new Object();
+        Object other = new Object();
+        Assert.assertSame( value, interner.intern( "key", value ) );
+        Assert.assertSame( other, interner.intern( "other", other ) );
+        Assert.assertEquals( 2, interner.size() );
+        Assert.assertSame( value, interner.get( "key" ) );
+    }
+
+}